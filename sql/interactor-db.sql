@@ -42,11 +42,74 @@ CREATE TABLE INTERACTION_DETAILS (
   FOREIGN KEY (INTERACTION_ID) REFERENCES INTERACTION (ID)
 );
 
+/** DERIVED FROM INTERACTION.PUBMEDIDS AND INTERACTOR.SYNONYMS **/
+CREATE TABLE INTERACTION_PUBMED (
+  PUBMED_ID      VARCHAR NOT NULL,
+  INTERACTION_ID INTEGER NOT NULL,
+  PRIMARY KEY (PUBMED_ID, INTERACTION_ID)
+) WITHOUT ROWID;
+
+CREATE TABLE INTERACTOR_SYNONYM (
+  SYNONYM       VARCHAR NOT NULL,
+  INTERACTOR_ID INTEGER NOT NULL,
+  PRIMARY KEY (SYNONYM, INTERACTOR_ID)
+) WITHOUT ROWID;
+
+/** DERIVED FROM INTERACTION **/
+CREATE TABLE INTERACTOR_DEGREE (
+  INTERACTOR_ID           INTEGER NOT NULL,
+  INTERACTION_RESOURCE_ID INTEGER NOT NULL,
+  DEGREE                  INTEGER NOT NULL,
+  MAX_SCORE               NUMERIC,
+  MEAN_SCORE              NUMERIC,
+  PRIMARY KEY (INTERACTOR_ID, INTERACTION_RESOURCE_ID)
+) WITHOUT ROWID;
+
+/** OPTIONAL, DERIVED FROM INTERACTION (IntactParser -a) **/
+CREATE TABLE INTERACTION_ADJACENCY (
+  INTERACTOR_ID           INTEGER NOT NULL,
+  INTERACTION_RESOURCE_ID INTEGER NOT NULL,
+  MISCORE                 NUMERIC NOT NULL,
+  INTERACTION_ID          INTEGER NOT NULL,
+  PARTNER_ID              INTEGER NOT NULL,
+  PRIMARY KEY (INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE DESC, INTERACTION_ID)
+) WITHOUT ROWID;
+
+/** POSITION OF THE BULK LOAD IN THE INTACT FILE (IntactParser --resume), A SINGLE ROW **/
+CREATE TABLE INGEST_CHECKPOINT (
+  ID             INTEGER PRIMARY KEY CHECK (ID = 1),
+  SOURCE         VARCHAR NOT NULL,
+  SOURCE_LENGTH  INTEGER,
+  BYTE_OFFSET    INTEGER NOT NULL,
+  LINE_NUMBER    INTEGER NOT NULL,
+  LINES_INCLUDED INTEGER NOT NULL,
+  MIN_SCORE      NUMERIC,
+  COMPLETE       INTEGER NOT NULL DEFAULT 0,
+  UPDATE_DATE DEFAULT CURRENT_TIMESTAMP
+);
+
+/** REPLACED AT THE END OF EVERY LOAD AND UPDATE, KEPT BY THE SNAPSHOTS (InteractorsSnapshot), A SINGLE ROW **/
+CREATE TABLE CONTENT_STAMP (
+  ID          INTEGER PRIMARY KEY CHECK (ID = 1),
+  STAMP       VARCHAR NOT NULL,
+  UPDATE_DATE DEFAULT CURRENT_TIMESTAMP
+);
+
+/** PARTITIONS DERIVED FROM THIS DATABASE (PartitionGenerator), FILE_NAME IS RELATIVE TO ITS FOLDER **/
+CREATE TABLE INTERACTOR_PARTITION (
+  FILE_NAME    VARCHAR PRIMARY KEY,
+  TAXID        INTEGER,
+  MIN_SCORE    NUMERIC NOT NULL,
+  INTERACTIONS INTEGER NOT NULL,
+  CREATE_DATE DEFAULT CURRENT_TIMESTAMP
+);
+
 /** INDEXES **/
 CREATE INDEX INTERACTOR_ACC_IDX ON INTERACTOR (ACC);
-CREATE INDEX INTERACTION_INTERACTOR_A_IDX ON INTERACTION (INTERACTOR_A);
-CREATE INDEX INTERACTION_INTERACTOR_B_IDX ON INTERACTION (INTERACTOR_B);
+CREATE INDEX INTERACTION_A_RESOURCE_SCORE_IDX ON INTERACTION (INTERACTOR_A, INTERACTION_RESOURCE_ID, MISCORE DESC);
+CREATE INDEX INTERACTION_B_RESOURCE_SCORE_IDX ON INTERACTION (INTERACTOR_B, INTERACTION_RESOURCE_ID, MISCORE DESC);
 CREATE INDEX INTERACTION_DETAILS_INTERACTION_ID_IDX ON INTERACTION_DETAILS (INTERACTION_ID);
+CREATE INDEX INTERACTOR_DEGREE_RESOURCE_IDX ON INTERACTOR_DEGREE (INTERACTION_RESOURCE_ID, DEGREE DESC);
 
 /** INSERT **/
 INSERT OR REPLACE INTO INTERACTOR_RESOURCE (NAME, URL)
@@ -3,12 +3,20 @@ package org.reactome.server.interactors;
 import com.martiansoftware.jsap.*;
 import org.apache.commons.io.FileUtils;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.exception.IntactParserException;
 import org.reactome.server.interactors.model.*;
+import org.reactome.server.interactors.service.IntactUpdateService;
 import org.reactome.server.interactors.service.InteractionParserService;
 import org.reactome.server.interactors.service.InteractionResourceService;
 import org.reactome.server.interactors.service.InteractorResourceService;
+import org.reactome.server.interactors.util.DuplicateIndex;
 import org.reactome.server.interactors.util.InteractorConstant;
 import org.reactome.server.interactors.util.InteractorDatabaseGenerator;
+import org.reactome.server.interactors.util.MitabLine;
+import org.reactome.server.interactors.util.OffsetLineReader;
+import org.reactome.server.interactors.util.PartitionGenerator;
+import org.reactome.server.interactors.util.SnapshotGenerator;
+import org.reactome.server.interactors.util.StreamingDownload;
 import org.reactome.server.interactors.util.Toolbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,12 +25,10 @@ import java.io.*;
 import java.net.URL;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.*;
 
 import static java.lang.Double.parseDouble;
 import static java.lang.Double.valueOf;
-import static java.lang.Integer.parseInt;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -32,11 +38,18 @@ public class IntactParser {
 
     private static final Logger logger = LoggerFactory.getLogger(IntactParser.class);
     // This is the default intact file URL, a program argument can be specified in order to use a different URL
-    private static final String INTACT_FILE_URL = "ftp://ftp.ebi.ac.uk/pub/databases/intact/current/psimitab/intact-micluster.txt";
+    private static final String INTACT_FILE_URL = "https://ftp.ebi.ac.uk/pub/databases/intact/current/psimitab/intact-micluster.txt";
     private static final String INTACT_SCORE_LABEL = "intact-miscore";
     private static final String AUTHOR_SCORE_LABEL = "author score";
     private static final String PSI_MI_LABEL = "psi-mi";
     private static final String PUBMED_LABEL = "pubmed";
+    // Lines handed over to a parser worker at once and chunks that can wait in each queue of the pipelined ingest
+    private static final int CHUNK_SIZE = 1000;
+    private static final int QUEUE_CAPACITY = 16;
+    // Chunks each worker can have parsed ahead of the one the writer is waiting for
+    private static final int CHUNKS_AHEAD_PER_WORKER = 2;
+    // Initial size of the duplicates index, it grows if needed
+    private static final int EXPECTED_INTERACTIONS = 1 << 20;
     private static Map<String, String> resourceMapping = new HashMap<>();
 
     static {
@@ -46,10 +59,8 @@ public class IntactParser {
         resourceMapping.put("ddbj/embl/genbank", "EMBL");
     }
 
-    // Regex that extracts the Taxonid from taxid:9606(human)
-    private Pattern pattern = Pattern.compile("([0-9]+)");
     // Errors report lists
-    private Set<String> parserErrorMessages = new HashSet<>();
+    private Set<String> parserErrorMessages = ConcurrentHashMap.newKeySet();
     private List<String> dbErrorMessages = new ArrayList<>();
     // Services Declaration
     private InteractionParserService interactionParserService;
@@ -58,10 +69,28 @@ public class IntactParser {
     // Easy access to the Resources.
     private Map<String, InteractionResource> interactionResourceMap = new HashMap<>();
     private Map<String, InteractorResource> interactorResourceMap = new HashMap<>();
-    private Set<Interaction> interactions = new HashSet<>();
+    // Only set in update mode, interactions are compared with the existing ones instead of being inserted
+    private IntactUpdateService updateService;
+    // Only set in bulk load mode. Position in the file, recorded with every batch so an interrupted load can be resumed
+    private IngestCheckpoint checkpoint;
+    private boolean bulkLoad;
+    // Only a hash of the (A, B) accessions of what has been parsed so far. Heap does not grow with the interactions
+    private DuplicateIndex duplicates;
+    // Interactions below this score are not persisted
+    private double minimumScore = InteractorConstant.MINIMUM_VALID_SCORE;
+    // Parser counters, only touched by the thread that persists the interactions
+    private int totalLinesParsed = 1;
+    private int totalLinesIncluded = 0;
+    private int totalIgnoredLines = 0;
+
+    private IntactParser(InteractorsDatabase database) throws SQLException {
+        this(database, false, false);
+    }
 
-    private IntactParser(InteractorsDatabase database) {
-        interactionParserService = new InteractionParserService(database);
+    private IntactParser(InteractorsDatabase database, boolean bulkLoad, boolean exactDuplicates) throws SQLException {
+        this.bulkLoad = bulkLoad;
+        duplicates = new DuplicateIndex(EXPECTED_INTERACTIONS, exactDuplicates);
+        interactionParserService = new InteractionParserService(database, bulkLoad);
         interactorResourceService = new InteractorResourceService(database);
         interactionResourceService = new InteractionResourceService(database);
     }
@@ -70,6 +99,20 @@ public class IntactParser {
      * This is a standalone process that will generate an interactors database and parse the IntAct static file
      */
     public static void main(String[] args) throws Exception {
+        try {
+            run(args);
+        } catch (IntactParserException e) {
+            logger.error(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Same as main, for the callers that are not a standalone process (e.g. tests). Nothing is left open.
+     *
+     * @throws IntactParserException if the arguments are not valid or the file has not been fully loaded
+     */
+    public static void run(String... args) throws Exception {
         long start = System.currentTimeMillis();
         logger.info("Start Parsing IntAct File");
 
@@ -79,35 +122,253 @@ public class IntactParser {
                         new FlaggedOption("url", JSAP.STRING_PARSER, INTACT_FILE_URL, JSAP.NOT_REQUIRED, 'u', "url","IntAct file URL"),
                         new QualifiedSwitch("download", JSAP.BOOLEAN_PARSER, null, JSAP.NOT_REQUIRED, 'd', "download","Download IntAct File"),
                         new FlaggedOption("destination", JSAP.STRING_PARSER, "/tmp", JSAP.NOT_REQUIRED, 't', "destination","Folder to save the downloaded file"),
-                        new FlaggedOption("interactors-database-path", JSAP.STRING_PARSER, null, JSAP.REQUIRED, 'g', "interactors-database-path","Interactor Database Path")
+                        new FlaggedOption("interactors-database-path", JSAP.STRING_PARSER, null, JSAP.REQUIRED, 'g', "interactors-database-path","Interactor Database Path"),
+                        new Switch("bulk-load", 'b', "bulk-load", "Resolve interactors in memory and write them using multi-row inserts"),
+                        new Switch("adjacency", 'a', "adjacency", "Also build the interaction adjacency table, answering the interactions of an accession from a single index"),
+                        new FlaggedOption("workers", JSAP.INTEGER_PARSER, "1", JSAP.NOT_REQUIRED, 'w', "workers","Number of parser threads. More than one runs the pipelined ingest"),
+                        new Switch("stream", 's', "stream", "Parse the downloaded file while the bytes arrive (requires -d)"),
+                        new Switch("exact-duplicates", 'e', "exact-duplicates", "Duplicates are identified comparing the accessions, not only their 64-bit hash. It needs more memory"),
+                        new Switch("update", 'i', "update", "Apply the IntAct file to an existing database instead of creating a new one"),
+                        new Switch("resume", 'r', "resume", "Continue an interrupted bulk load (-b) from the last position recorded in the database"),
+                        new FlaggedOption("minimum-score", JSAP.DOUBLE_PARSER, InteractorConstant.MINIMUM_VALID_SCORE.toString(), JSAP.NOT_REQUIRED, 'm', "minimum-score", "Interactions with a lower score are not persisted"),
+                        new FlaggedOption("partitions", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED, 'p', "partitions", "Partitions to derive from the database, taxId (or * for all species) and minimum score. e.g. 9606:0.6,10090:0.6,*:0.8"),
+                        new FlaggedOption("snapshot", JSAP.STRING_PARSER, null, JSAP.NOT_REQUIRED, 'x', "snapshot", "Binary snapshot of the database to write once it is loaded, to be read from a memory mapping")
                 }
         );
 
         JSAPResult config = jsap.parse(args);
-        if (jsap.messagePrinted()) System.exit(1);
+        if (jsap.messagePrinted()) throw new IntactParserException("Invalid arguments");
 
-        // Check if database exists and create a new one
+        // Check if database exists and create a new one (or update the existing one)
         String database = config.getString("interactors-database-path");
+        File dbFile = new File(database);
+        List<DatabasePartition> partitions = null;
+        if (config.contains("partitions")) {
+            try {
+                partitions = getPartitions(config.getString("partitions"));
+            } catch (IllegalArgumentException e) {
+                throw new IntactParserException(e.getMessage());
+            }
+        }
+        if (config.getBoolean("update")) {
+            if (!dbFile.exists()) {
+                throw new IntactParserException("Database [" + database + "] does not exist. There is nothing to update.");
+            }
+            update(database, config);
+            partition(database, partitions);
+            snapshot(database, config);
+            logger.info("End IntAct File parsing. Elapsed Time [{}.ms]", (System.currentTimeMillis() - start));
+            return;
+        }
+        boolean bulkLoad = config.getBoolean("bulk-load");
+        if (config.getBoolean("resume")) {
+            if (!bulkLoad || !dbFile.exists()) {
+                throw new IntactParserException("Only a bulk load (-b) of an existing database [" + database + "] can be resumed.");
+            }
+            resume(database, config);
+            partition(database, partitions);
+            snapshot(database, config);
+            logger.info("End IntAct File parsing. Elapsed Time [{}.ms]", (System.currentTimeMillis() - start));
+            return;
+        }
+        if (dbFile.exists()) {
+            throw new IntactParserException("Database [" + database + "] already exists in this location. Please inform a different database location or name.");
+        }
+
+        // Open database connection using the bulk build profile. The bulk load does not need the
+        // indexes while inserting, so they are created once the data is there.
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.BULK_BUILD);
         try {
-            File dbFile = new File(database);
-            if (dbFile.exists()) {
-                logger.error("Database [{}] already exists in this location. Please inform a different database location or name.", database);
-                System.exit(1);
+            InteractorDatabaseGenerator.create(interactors.getConnection(), false, !bulkLoad);
+
+            IntactParser intactParser = new IntactParser(interactors, bulkLoad, config.getBoolean("exact-duplicates"));
+            intactParser.minimumScore = config.getDouble("minimum-score");
+            intactParser.cacheResources();
+
+            boolean completed = parse(intactParser, config);
+            finish(intactParser, interactors, completed, config.getBoolean("adjacency"));
+        } finally {
+            interactors.close();
+        }
+
+        logger.info("Database has been populate. The database size is [{} MB]", new File(database).length() / (1024L * 1024L));
+        partition(database, partitions);
+        snapshot(database, config);
+        logger.info("End IntAct File parsing. Elapsed Time [{}.ms]", (System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Continues a bulk load from the last checkpoint. Everything up to the checkpoint has been committed together
+     * with it, so the file is read from there and the interactor and interaction IDs carry on from the database.
+     * Duplicates are only detected among the lines read in this run.
+     */
+    private static void resume(String database, JSAPResult config) throws Exception {
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.BULK_BUILD);
+        try {
+            resume(interactors, config);
+        } finally {
+            interactors.close();
+        }
+    }
+
+    private static void resume(InteractorsDatabase interactors, JSAPResult config) throws Exception {
+        String database = interactors.getFileName();
+        IntactParser intactParser = new IntactParser(interactors, true, config.getBoolean("exact-duplicates"));
+
+        IngestCheckpoint checkpoint = intactParser.interactionParserService.getCheckpoint();
+        if (checkpoint == null) {
+            throw new IntactParserException("Database [" + database + "] has no checkpoint. It can't be resumed.");
+        }
+        if (isStreamed(checkpoint)) {
+            throw new IntactParserException("Database [" + database + "] was loaded while downloading [" + checkpoint.getSource() + "] (-s), which can't be resumed. Remove it and run the load again.");
+        }
+        if (checkpoint.isComplete()) {
+            logger.info("[{}] has already been fully loaded into [{}]. There is nothing to resume.", checkpoint.getSource(), database);
+            return;
+        }
+
+        File source = new File(checkpoint.getSource());
+        if (!source.exists() || (checkpoint.getSourceLength() != null && source.length() != checkpoint.getSourceLength())) {
+            throw new IntactParserException("[" + source.getAbsolutePath() + "] is missing or is not the file the load started with. It can't be resumed.");
+        }
+
+        // The interactions already loaded have been filtered with the score the load started with
+        intactParser.minimumScore = config.getDouble("minimum-score");
+        if (checkpoint.getMinimumScore() != null) {
+            if (config.userSpecified("minimum-score") && intactParser.minimumScore != checkpoint.getMinimumScore()) {
+                throw new IntactParserException("Database [" + database + "] has been loaded with minimum score [" + checkpoint.getMinimumScore() + "]. It can't be resumed with [" + intactParser.minimumScore + "].");
             }
+            intactParser.minimumScore = checkpoint.getMinimumScore();
+        }
+        intactParser.cacheResources();
+        intactParser.checkpoint = checkpoint;
+        intactParser.totalLinesParsed = (int) checkpoint.getLineNumber();
+        intactParser.totalLinesIncluded = (int) checkpoint.getLinesIncluded();
+        logger.info("Resuming [{}] from line [{}] (byte [{}]). [{}] interactions were already loaded.",
+                source.getAbsolutePath(), checkpoint.getLineNumber(), checkpoint.getByteOffset(), checkpoint.getLinesIncluded());
+
+        boolean completed;
+        try (OffsetLineReader reader = OffsetLineReader.open(source, checkpoint.getByteOffset(), checkpoint.getLineNumber())) {
+            completed = intactParser.parser(reader, config.getInt("workers"));
+        }
+        finish(intactParser, interactors, completed, config.getBoolean("adjacency"));
+    }
 
-            InteractorDatabaseGenerator.create(new InteractorsDatabase(database).getConnection());
-        } catch (SQLException e) {
-            e.printStackTrace();
+    /**
+     * Once the whole file is in, the database gets its final shape and then the checkpoint is closed. A bulk load
+     * that has not completed is left as it is, so it can be resumed.
+     */
+    private static void finish(IntactParser intactParser, InteractorsDatabase interactors, boolean completed, boolean adjacency) throws SQLException, IntactParserException {
+        IngestCheckpoint checkpoint = intactParser.checkpoint;
+        if (checkpoint != null && !completed) {
+            if (isStreamed(checkpoint)) {
+                throw new IntactParserException("The IntAct file has not been fully parsed. A load streamed from [" + checkpoint.getSource() + "] can't be resumed, remove [" + interactors.getFileName() + "] and run it again.");
+            }
+            throw new IntactParserException("The IntAct file has not been fully parsed. Run it again with --resume to continue from the last checkpoint.");
+        }
+
+        interactors.closeStatements();
+        InteractorDatabaseGenerator.finishBulkBuild(interactors.getConnection(), intactParser.bulkLoad, adjacency);
+
+        // Only now, a resume of a database that could not be finished does it again
+        if (checkpoint != null) {
+            intactParser.interactionParserService.completeCheckpoint(checkpoint);
         }
+    }
 
-        // Open database connection.
+    /**
+     * Loads streamed while downloading (-s) record the URL, the partial download does not outlive a failure and
+     * the offsets of a compressed file do not point into it anyway
+     */
+    private static boolean isStreamed(IngestCheckpoint checkpoint) {
+        return checkpoint.getSource().contains("://");
+    }
+
+    /**
+     * Incremental update of an existing database. The differences between the database and the IntAct file are
+     * applied in a single transaction, which is only committed if the whole file has been parsed.
+     */
+    private static void update(String database, JSAPResult config) throws Exception {
         InteractorsDatabase interactors = new InteractorsDatabase(database);
-        IntactParser intactParser = new IntactParser(interactors);
-        intactParser.cacheResources();
+        try {
+            IntactParser intactParser = new IntactParser(interactors, false, config.getBoolean("exact-duplicates"));
+            intactParser.minimumScore = config.getDouble("minimum-score");
+            intactParser.cacheResources();
+
+            Long resourceId = intactParser.interactionResourceMap.get(InteractorConstant.STATIC).getId();
+            intactParser.updateService = new IntactUpdateService(interactors, resourceId);
+
+            if (parse(intactParser, config)) {
+                intactParser.updateService.commit();
+            } else {
+                intactParser.updateService.rollback();
+                throw new IntactParserException("The IntAct file has not been fully parsed. Database [" + database + "] has not been updated.");
+            }
+        } finally {
+            interactors.close();
+        }
+    }
+
+    /**
+     * Without partitions in the arguments the ones already registered are derived again, so they follow the
+     * changes of the database.
+     */
+    private static void partition(String database, List<DatabasePartition> partitions) throws SQLException, IOException {
+        if (partitions == null) {
+            PartitionGenerator.refresh(database);
+        } else {
+            PartitionGenerator.create(database, partitions);
+        }
+    }
+
+    private static void snapshot(String database, JSAPResult config) throws SQLException, IOException {
+        if (!config.contains("snapshot")) return;
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            SnapshotGenerator.create(interactors, config.getString("snapshot"));
+        } finally {
+            interactors.close();
+        }
+    }
 
+    /**
+     * @param partitions e.g. 9606:0.6,*:0.8
+     */
+    private static List<DatabasePartition> getPartitions(String partitions) {
+        List<DatabasePartition> rtn = new ArrayList<>();
+        for (String partition : partitions.split(",")) {
+            String[] values = partition.trim().split(":");
+            if (values.length != 2 || !Toolbox.isNumeric(values[1].trim()) || !(values[0].trim().equals("*") || Toolbox.isNumeric(values[0].trim()))) {
+                throw new IllegalArgumentException("Invalid partition [" + partition + "]. Expected taxId:minimum-score, e.g. 9606:0.6 or *:0.8");
+            }
+            Integer taxId = values[0].trim().equals("*") ? null : Integer.valueOf(values[0].trim());
+            rtn.add(new DatabasePartition(taxId, Double.valueOf(values[1].trim())));
+        }
+        return rtn;
+    }
+
+    /**
+     * Parses the file given in the arguments, downloading it first (or while parsing) if requested.
+     *
+     * @return true if the whole file has been parsed
+     */
+    private static boolean parse(IntactParser intactParser, JSAPResult config) throws IOException {
         String file = config.getString("file");
         boolean download = config.getBoolean("download");
 
+        int workers = config.getInt("workers");
+        if (download && config.getBoolean("stream")) {
+            URL url = new URL(config.getString("url"));
+            try (StreamingDownload stream = StreamingDownload.open(url, getDownloadTarget(url, config.getString("destination")))) {
+                logger.info("Parsing [{}] while it is saved into [{}]", url, stream.getTarget().getAbsolutePath());
+                intactParser.startCheckpoint(url.toString(), stream.getLength());
+                boolean parsed = intactParser.parser(new OffsetLineReader(stream.getInputStream()), workers);
+                // Kept only once parsed to the end, otherwise closing it aborts the download
+                if (parsed) stream.finish();
+                return parsed;
+            }
+        }
+
         if (download) {
             String url = config.getString("url");
             String downloadedFile = intactParser.downloadFile(url, config.getString("destination"));
@@ -115,10 +376,22 @@ public class IntactParser {
             file = downloadedFile;
         }
 
-        intactParser.parser(file);
+        intactParser.startCheckpoint(new File(file).getAbsolutePath(), new File(file).length());
+        return intactParser.parser(file, workers);
+    }
 
-        logger.info("Database has been populate. The database size is [{} MB]", new File(database).length() / (1024L * 1024L));
-        logger.info("End IntAct File parsing. Elapsed Time [{}.ms]", (System.currentTimeMillis() - start));
+    /**
+     * Bulk loads record their position in the given file from now on
+     *
+     * @param source path of the file or URL of a streamed download
+     */
+    private void startCheckpoint(String source, long length) {
+        if (!bulkLoad || updateService != null) return;
+
+        checkpoint = new IngestCheckpoint();
+        checkpoint.setSource(source);
+        checkpoint.setMinimumScore(minimumScore);
+        checkpoint.setSourceLength(length < 0 ? null : length);
     }
 
     private static String getDatabaseName(String resource) {
@@ -128,8 +401,9 @@ public class IntactParser {
     }
 
     private static String getRawIdentifier(String identifier) {
-        if (identifier.contains(":")) return identifier.split(":")[1];
-        return identifier;
+        int prefixEnd = identifier.indexOf(MitabLine.PREFIX_SEPARATOR);
+        if (prefixEnd == -1) return identifier;
+        return identifier.substring(prefixEnd + 1, MitabLine.valueEnd(identifier, prefixEnd + 1, identifier.length()));
     }
 
     /**
@@ -153,6 +427,8 @@ public class IntactParser {
         logger.info("File has been download. Parse will be executed pointing to this file: " + file);
 
         intactParser.parser(file);
+        InteractorDatabaseGenerator.refreshDerivedTables(interactors.getConnection());
+        InteractorDatabaseGenerator.stampContent(interactors.getConnection());
         logger.info("End IntAct File parsing. Elapsed Time [{}.ms]", (System.currentTimeMillis() - start));
 
         return interactors;
@@ -160,84 +436,326 @@ public class IntactParser {
 
     /**
      * Parsing the file
+     *
+     * @return true if the whole file has been parsed
      */
-    private void parser(String file) {
-        int totalLinesParsed = 1;
-        int totalLinesIncluded = 0;
-        int totalIgnoredLines = 0;
+    private boolean parser(String file) {
+        try (OffsetLineReader reader = OffsetLineReader.open(new File(file), 0, 0)) {
+            return parser(reader);
+        } catch (IOException ex) {
+            logger.error("Can't get the IntAct file. Please check the logs.", ex);
+            return false;
+        }
+    }
 
+    /**
+     * Parsing the content, e.g. a file or a download in progress. The reader is not closed here.
+     */
+    private boolean parser(OffsetLineReader reader) {
+        boolean completed = false;
         try {
             String inputLine;
-            BufferedReader br = new BufferedReader(new FileReader(file));
 
-            // First line is a header. Calling readLine will point the cursor to the next line.
-            br.readLine();
+            // First line is a header, unless the reader has been opened further on. Calling readLine will point the cursor to the next line.
+            if (reader.getLineNumber() == 0) reader.readLine();
 
             // Intact Identifiers
             // intact:EBI-7122727|intact:EBI-7122766|intact:EBI-7122684|intact:EBI-7121552
             List<Interaction> interactionList = new ArrayList<>();
-            while ((inputLine = br.readLine()) != null) {
-                String[] content = inputLine.split("\\t");
-
-                totalLinesParsed++;
-
+            MitabLine mitabLine = new MitabLine();
+            while ((inputLine = reader.readLine()) != null) {
                 // Parse the line
-                Interaction interaction = interactionFromFile(content);
-                if (interaction.getInteractorA().getIntactId().equals("-") || interaction.getInteractorB().getIntactId().equals("-")) {
-                    totalIgnoredLines++;
-                    continue;
-                }
-
-                // Only persist in the Database those interactions with score higher than InteractorConstant.MINIMUM_VALID_SCORE
-                if (interaction.getIntactScore() >= InteractorConstant.MINIMUM_VALID_SCORE) {
-
+                Interaction interaction = interactionFromFile(mitabLine.parse(inputLine));
+                if (include(inputLine, interaction)) {
                     interactionList.add(interaction);
-                    totalLinesIncluded++;
 
                     // Go to the database every 1000 interactions
                     if ((totalLinesIncluded % 1000) == 0) {
-                        logger.info("Performing a DB save. Rows parsed [{}]", totalLinesIncluded);
-                        try {
-                            interactionParserService.save(interactionList);
-                            interactionList.clear();
-                        } catch (SQLException e) {
-                            logger.error("Exception thrown during DB save: ", e);
-                            dbErrorMessages.add("Error inserting interactions to the Database." + e.getMessage());
-                        }
+                        save(interactionList, reader.getOffset(), reader.getLineNumber());
                     }
                 }
             }
 
             // Persist remaining items
-            try {
-                logger.info("Performing a DB save. Rows parsed [{}]", totalLinesIncluded);
+            save(interactionList, reader.getOffset(), reader.getLineNumber());
+            completed = true;
 
-                interactionParserService.save(interactionList);
-                interactionList.clear();
-            } catch (SQLException e) {
-                logger.error("Exception thrown during DB save: ", e);
-                dbErrorMessages.add("Error inserting interactions to the Database." + e.getMessage());
-            }
+        } catch (IOException ex) {
+            logger.error("Can't get the IntAct file. Please check the logs.", ex);
+        } catch (Exception ex) {
+            logger.error("Got a generic exception. Please check the logs.", ex);
+        } finally {
+            writeReports();
+        }
+
+        logger.info("The IntAct parser has finished. [{}] rows have been read. [{}] have been considered as Interaction based on [{}] minimum score. [{}] ignored rows in absence of A or B", totalLinesParsed, totalLinesIncluded, minimumScore, totalIgnoredLines);
+        return completed;
+    }
+
+    /**
+     * Pipelined version of the parser. A reader thread splits the file in chunks of lines, the given number of
+     * workers turn them into Interactions and the calling thread is the single writer into the database.
+     * Stages are connected by bounded queues, so the memory footprint does not depend on the file size.
+     * Chunks are persisted in the same order they have been read, hence duplicates are reported exactly
+     * as in the sequential parser. Workers stop taking chunks when the writer is waiting for a slow one and
+     * 2 x workers chunks are parsed but not written, so the chunks waiting to be put back in order are bounded too.
+     *
+     * @param workers number of parser threads. One (or less) falls back to the sequential parser.
+     * @return true if the whole file has been parsed
+     */
+    private boolean parser(String file, int workers) {
+        try (OffsetLineReader reader = OffsetLineReader.open(new File(file), 0, 0)) {
+            return parser(reader, workers);
+        } catch (IOException ex) {
+            logger.error("Can't get the IntAct file. Please check the logs.", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Pipelined parser reading from the given content. The reader is not closed here.
+     */
+    private boolean parser(OffsetLineReader reader, int workers) {
+        if (workers <= 1) {
+            return parser(reader);
+        }
 
-            br.close();
+        logger.info("Running the pipelined parser with [{}] workers", workers);
+        BlockingQueue<Chunk> lineQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Chunk> parsedQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Semaphore ahead = new Semaphore(CHUNKS_AHEAD_PER_WORKER * workers);
 
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1);
+        boolean completed = false;
+        try {
+            executor.submit(() -> readChunks(reader, lineQueue, workers));
+            for (int i = 0; i < workers; i++) {
+                executor.submit(() -> parseChunks(lineQueue, parsedQueue, ahead));
+            }
+            writeChunks(parsedQueue, workers, ahead);
+            completed = true;
         } catch (IOException ex) {
             logger.error("Can't get the IntAct file. Please check the logs.", ex);
         } catch (Exception ex) {
             logger.error("Got a generic exception. Please check the logs.", ex);
         } finally {
-            if (parserErrorMessages.size() > 0) {
-                logger.info("There are [{}] error messages in the IntAct file.", parserErrorMessages.size());
-                writeOutputFile(parserErrorMessages, "parser-messages.txt");
+            // Reader and workers might be blocked in a full queue if the writer has given up
+            executor.shutdownNow();
+            // The reader belongs to the caller, make sure nobody is reading it anymore
+            awaitTermination(executor);
+            writeReports();
+        }
+
+        logger.info("The IntAct parser has finished. [{}] rows have been read. [{}] have been considered as Interaction based on [{}] minimum score. [{}] ignored rows in absence of A or B", totalLinesParsed, totalLinesIncluded, minimumScore, totalIgnoredLines);
+        return completed;
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("The parser threads have not finished in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reader stage: splits the file in chunks of CHUNK_SIZE lines. Whatever stops it (e.g. the file can't be read)
+     * takes the place of the chunk being read, and then each worker receives an end-of-file mark, so nobody waits
+     * forever.
+     */
+    private void readChunks(OffsetLineReader reader, BlockingQueue<Chunk> lineQueue, int workers) {
+        long sequence = 0;
+        try {
+            // First line is a header, unless the reader has been opened further on. Calling readLine will point the cursor to the next line.
+            if (reader.getLineNumber() == 0) reader.readLine();
+
+            String inputLine;
+            Chunk chunk = new Chunk(sequence, reader.getLineNumber());
+            while ((inputLine = reader.readLine()) != null) {
+                chunk.offsets[chunk.lines.size()] = reader.getOffset();
+                chunk.lines.add(inputLine);
+                if (chunk.lines.size() == CHUNK_SIZE) {
+                    lineQueue.put(chunk.end(reader.getOffset()));
+                    chunk = new Chunk(++sequence, reader.getLineNumber());
+                }
+            }
+            chunk.last = true;
+            lineQueue.put(chunk.end(reader.getOffset()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception ex) {
+            Chunk failed = new Chunk(sequence, 0);
+            failed.error = ex;
+            putQuietly(lineQueue, failed);
+        } finally {
+            if (!Thread.currentThread().isInterrupted()) {
+                for (int i = 0; i < workers; i++) {
+                    putQuietly(lineQueue, Chunk.END);
+                }
             }
+        }
+    }
 
-            if (dbErrorMessages.size() > 0) {
-                logger.info("There are [{}] db error messages.", dbErrorMessages.size());
-                writeOutputFile(dbErrorMessages, "db-error-messages.txt");
+    /**
+     * Parser stage: turns every line of a chunk into an Interaction. Errors are attached to the chunk and
+     * reported by the writer, in the order they would have happened in the sequential parser. A chunk is only
+     * taken once the writer is not too far behind (see ahead).
+     */
+    private void parseChunks(BlockingQueue<Chunk> lineQueue, BlockingQueue<Chunk> parsedQueue, Semaphore ahead) {
+        MitabLine mitabLine = new MitabLine();
+        try {
+            while (true) {
+                ahead.acquire();
+                Chunk chunk = lineQueue.take();
+                if (chunk == Chunk.END) {
+                    ahead.release();
+                    break;
+                }
+                if (chunk.error == null) {
+                    try {
+                        for (String line : chunk.lines) {
+                            chunk.interactions.add(interactionFromFile(mitabLine.parse(line)));
+                        }
+                    } catch (Exception ex) {
+                        chunk.error = ex;
+                    }
+                }
+                parsedQueue.put(chunk);
             }
+            parsedQueue.put(Chunk.END);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
         }
+    }
+
+    /**
+     * Writer stage: runs in the calling thread, puts the chunks back in order and persists them. Chunks are taken
+     * by the workers in the order they have been read, so the one the writer is waiting for is always being parsed
+     * and it is released for a new one once written.
+     */
+    private void writeChunks(BlockingQueue<Chunk> parsedQueue, int workers, Semaphore ahead) throws Exception {
+        Map<Long, Chunk> pending = new HashMap<>();
+        List<Interaction> interactionList = new ArrayList<>();
+        long next = 0;
+        int finishedWorkers = 0;
+        Chunk last = null;
+
+        while (finishedWorkers < workers) {
+            Chunk chunk = parsedQueue.take();
+            if (chunk == Chunk.END) {
+                finishedWorkers++;
+                continue;
+            }
+            pending.put(chunk.sequence, chunk);
+
+            while ((chunk = pending.remove(next)) != null) {
+                next++;
+                if (chunk.error != null) throw chunk.error;
+
+                for (int i = 0; i < chunk.interactions.size(); i++) {
+                    Interaction interaction = chunk.interactions.get(i);
+                    if (include(chunk.lines.get(i), interaction)) {
+                        interactionList.add(interaction);
 
-        logger.info("The IntAct parser has finished. [{}] rows have been read. [{}] have been considered as Interaction based on [{}] minimum score. [{}] ignored rows in absence of A or B", totalLinesParsed, totalLinesIncluded, InteractorConstant.MINIMUM_VALID_SCORE, totalIgnoredLines);
+                        // Go to the database every 1000 interactions
+                        if ((totalLinesIncluded % 1000) == 0) {
+                            save(interactionList, chunk.offsets[i], chunk.firstLine + i);
+                        }
+                    }
+                }
+                last = chunk;
+                ahead.release();
+            }
+        }
+
+        // The reader always ends with a chunk marked as the last one, even an empty one
+        if (last == null || !last.last) {
+            throw new IOException("The IntAct file has not been read to the end");
+        }
+        // Persist remaining items
+        save(interactionList, last.endOffset, last.firstLine + last.lines.size() - 1);
+    }
+
+    /**
+     * Checks for duplicates and decides whether a parsed line has to be persisted.
+     * Only interactions having A and B and a score higher than the minimum score (InteractorConstant.MINIMUM_VALID_SCORE by default) are included.
+     */
+    private boolean include(CharSequence line, Interaction interaction) {
+        totalLinesParsed++;
+
+        if (!duplicates.add(interaction.getInteractorA().getAcc(), interaction.getInteractorB().getAcc())) {
+            String msg = "A Duplicate entry has been found: " + new MitabLine().parse(line).head(4) + " " + interaction.getIntactScore();
+            logger.info(msg);
+            parserErrorMessages.add(msg);
+        }
+
+        if (interaction.getInteractorA().getIntactId().equals("-") || interaction.getInteractorB().getIntactId().equals("-")) {
+            totalIgnoredLines++;
+            return false;
+        }
+
+        // Only persist in the Database those interactions with score higher than the minimum score
+        if (interaction.getIntactScore() >= minimumScore) {
+            totalLinesIncluded++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param offset     position in the file right after the last line read
+     * @param lineNumber number of that line
+     */
+    private void save(List<Interaction> interactionList, long offset, long lineNumber) {
+        logger.info("Performing a DB save. Rows parsed [{}]", totalLinesIncluded);
+        if (updateService != null) {
+            try {
+                updateService.apply(interactionList);
+                interactionList.clear();
+            } catch (SQLException e) {
+                dbErrorMessages.add("Error updating interactions in the Database." + e.getMessage());
+                // A partial update can't be committed, stop parsing
+                throw new IllegalStateException("Exception thrown during DB update", e);
+            }
+            return;
+        }
+        try {
+            if (checkpoint != null) {
+                checkpoint.setByteOffset(offset);
+                checkpoint.setLineNumber(lineNumber);
+                checkpoint.setLinesIncluded(totalLinesIncluded);
+            }
+            interactionParserService.save(interactionList, checkpoint);
+            interactionList.clear();
+        } catch (SQLException e) {
+            logger.error("Exception thrown during DB save: ", e);
+            dbErrorMessages.add("Error inserting interactions to the Database." + e.getMessage());
+            // The batch has been rolled back, stop parsing so the load can be resumed from the last checkpoint
+            if (bulkLoad) throw new IllegalStateException("Exception thrown during DB bulk save", e);
+        }
+    }
+
+    private void writeReports() {
+        if (parserErrorMessages.size() > 0) {
+            logger.info("There are [{}] error messages in the IntAct file.", parserErrorMessages.size());
+            writeOutputFile(parserErrorMessages, "parser-messages.txt");
+        }
+
+        if (dbErrorMessages.size() > 0) {
+            logger.info("There are [{}] db error messages.", dbErrorMessages.size());
+            writeOutputFile(dbErrorMessages, "db-error-messages.txt");
+        }
+    }
+
+    private static void putQuietly(BlockingQueue<Chunk> queue, Chunk chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private void writeOutputFile(Collection<String> messages, String filename) {
@@ -265,7 +783,7 @@ public class IntactParser {
     /**
      * A given interactorA and interactorB can have a list of different InteractionID.
      */
-    private Interaction interactionFromFile(String[] line) {
+    private Interaction interactionFromFile(MitabLine line) {
 
         Interactor interactorA = new Interactor();
 
@@ -280,59 +798,51 @@ public class IntactParser {
          * auto-catalysis. Ex: uniprotkb:P12346
          */
         /* sample of ID Interactor A => intact:EBI-7121510 */
-        parseIntactId(line[ParserIndex.ID_INTERACTOR_A.value], interactorA);
+        parseIntactId(line, ParserIndex.ID_INTERACTOR_A.value, interactorA);
 
 
         // sample of Alt. ID(s) interactor A => uniprotkb:Q1231
-        parseAlternativeIds(line[ParserIndex.ALTERNATIVE_INTERACTOR_A.value], interactorA);
+        parseAlternativeIds(line, ParserIndex.ALTERNATIVE_INTERACTOR_A.value, interactorA);
 
         // gene/ewas name
-        parseAliases(line[ParserIndex.ALIAS_INTERACTOR_A.value], interactorA);
+        parseAliases(line, ParserIndex.ALIAS_INTERACTOR_A.value, interactorA);
 
         // synonyms
-        parseSynonyms(line[ParserIndex.ALIAS_INTERACTOR_A.value], interactorA);
+        parseSynonyms(line, ParserIndex.ALIAS_INTERACTOR_A.value, interactorA);
 
         // taxid:9606(human)
-        parseTaxonomy(line[ParserIndex.TAXID_INTERACTOR_A.value], interactorA);
+        parseTaxonomy(line, ParserIndex.TAXID_INTERACTOR_A.value, interactorA);
 
         // sample of ID Interactor B => intact:EBI-7121510
-        parseIntactId(line[ParserIndex.ID_INTERACTOR_B.value], interactorB);
+        parseIntactId(line, ParserIndex.ID_INTERACTOR_B.value, interactorB);
 
         // sample of Alt. ID(s) interactor B =>  uniprotkb:Q15301
-        parseAlternativeIds(line[ParserIndex.ALTERNATIVE_INTERACTOR_B.value], interactorB);
+        parseAlternativeIds(line, ParserIndex.ALTERNATIVE_INTERACTOR_B.value, interactorB);
 
         // gene/ewas name
-        parseAliases(line[ParserIndex.ALIAS_INTERACTOR_B.value], interactorB);
+        parseAliases(line, ParserIndex.ALIAS_INTERACTOR_B.value, interactorB);
 
         // synonyms
-        parseSynonyms(line[ParserIndex.ALIAS_INTERACTOR_B.value], interactorB);
+        parseSynonyms(line, ParserIndex.ALIAS_INTERACTOR_B.value, interactorB);
 
         // taxid:9606(human)
-        parseTaxonomy(line[ParserIndex.TAXID_INTERACTOR_B.value], interactorB);
+        parseTaxonomy(line, ParserIndex.TAXID_INTERACTOR_B.value, interactorB);
 
-        Interaction interaction = prepareInteractions(line, interactorA, interactorB);
-        if (interactions.contains(interaction)) {
-            String msg = "A Duplicate entry has been found: " + line[0] + " " + line[1] + " " + line[2] + " " + line[3] + " " + interaction.getIntactScore();
-            logger.info(msg);
-            parserErrorMessages.add(msg);
-        } else {
-            interactions.add(interaction);
-        }
-
-        // Create interaction
-        return interaction;
+        // Create interaction. Duplicates are checked by the caller
+        return prepareInteractions(line, interactorA, interactorB);
 
     }
 
-    private void parseTaxonomy(String value, Interactor interactor) {
-        if (!value.equals("-")) { // not null
-            // Split at : taxid:9606
-            String[] taxid = value.split(":");
-
-            Matcher m = pattern.matcher(taxid[1]);
+    private void parseTaxonomy(MitabLine line, int field, Interactor interactor) {
+        if (!line.isEmpty(field)) { // not null
+            // taxid:9606(human) => the first number after the prefix
+            CharSequence s = line.getLine();
+            int end = line.end(field);
+            int from = prefixEnd(s, line.start(field), end) + 1;
 
-            if (m.find()) {
-                interactor.setTaxid(parseInt(m.group(1)));
+            int taxid = MitabLine.firstNumber(s, from, MitabLine.valueEnd(s, from, end));
+            if (taxid != -1) {
+                interactor.setTaxid(taxid);
             }
 
         } else {
@@ -341,7 +851,7 @@ public class IntactParser {
         }
     }
 
-    private Interaction prepareInteractions(String[] line, Interactor interactorA, Interactor interactorB) {
+    private Interaction prepareInteractions(MitabLine line, Interactor interactorA, Interactor interactorB) {
         Interaction interaction = new Interaction();
 
         interaction.setInteractorA(interactorA);
@@ -350,20 +860,19 @@ public class IntactParser {
         Long intactResourceId = interactionResourceMap.get(InteractorConstant.STATIC).getId();
         interaction.setInteractionResourceId(intactResourceId);
 
-        parseConfidenceValue(line[ParserIndex.CONFIDENCE_VALUE.value], interaction);
+        parseConfidenceValue(line, ParserIndex.CONFIDENCE_VALUE.value, interaction);
 
-        parsePubmedIdentifier(line[ParserIndex.PUBMED_IDENTIFIER.value], interaction);
+        parsePubmedIdentifier(line, ParserIndex.PUBMED_IDENTIFIER.value, interaction);
 
-        // Get interaction ID column
-        String allInteractionIds = line[ParserIndex.INTERACTION_IDENTIFIER.value];
-
-        String[] interactionIds = allInteractionIds.split("\\|");
-        for (String interactionIdCompound : interactionIds) {
-            String[] interactionId = interactionIdCompound.split(":");
-            String id = interactionId[1];
+        // Get interaction ID column, e.g intact:EBI-7122727|intact:EBI-7122766
+        CharSequence s = line.getLine();
+        int end = line.end(ParserIndex.INTERACTION_IDENTIFIER.value);
+        for (int start = line.start(ParserIndex.INTERACTION_IDENTIFIER.value), entryEnd; start < end; start = entryEnd + 1) {
+            entryEnd = MitabLine.entryEnd(s, start, end, false);
+            if (entryEnd == start) continue;
 
             InteractionDetails interactionDetails = new InteractionDetails();
-            interactionDetails.setInteractionAc(id);
+            interactionDetails.setInteractionAc(value(s, start, entryEnd));
 
             interaction.addInteractionDetails(interactionDetails);
         }
@@ -375,8 +884,8 @@ public class IntactParser {
      * Alternative ID is the accession value.
      * Based on the alternative id - retrieves the interactor resource
      */
-    private void parseAlternativeIds(String value, Interactor interactor) {
-        if (value.equals("-")) { // In this case the alternative identifier is ONLY a dash "-"
+    private void parseAlternativeIds(MitabLine line, int field, Interactor interactor) {
+        if (line.isEmpty(field)) { // In this case the alternative identifier is ONLY a dash "-"
             // In case alternative ID is null we will set the IntAct id as the accession. This is done in the IntactPortal
             interactor.setAcc("IntAct:" + getRawIdentifier(interactor.getIntactId()));
 
@@ -387,10 +896,17 @@ public class IntactParser {
 
             parserErrorMessages.add("Interactor ID [" + interactor.getAcc() + "] - Interactor alternative ID(s) are null.");
         } else {
-            // Considering only the first split. Otherwise ChEBI id breaks the split. e.g chebi:CHEBI:23423
-            String[] alternativeId = value.split(":", 2);
-            String databaseName = getDatabaseName(alternativeId[0]);
-            interactor.setAcc(databaseName + ":" + getRawIdentifier(alternativeId[1]));
+            // Considering only the first ":". Otherwise ChEBI id breaks the split. e.g chebi:CHEBI:23423
+            CharSequence s = line.getLine();
+            int start = line.start(field);
+            int end = line.end(field);
+            int prefixEnd = prefixEnd(s, start, end);
+            String databaseName = getDatabaseName(MitabLine.substring(s, start, prefixEnd));
+
+            // Same as getRawIdentifier on what is after the prefix
+            int from = prefixEnd + 1;
+            String rawIdentifier = MitabLine.prefixEnd(s, from, end) == -1 ? MitabLine.substring(s, from, end) : value(s, from, end);
+            interactor.setAcc(databaseName + ":" + rawIdentifier);
 
             // Set interactor resource id
             InteractorResource interactorResource = interactorResourceMap.get(databaseName.toLowerCase());
@@ -404,29 +920,33 @@ public class IntactParser {
      * Parse IntAct ID A and B
      * In cases where A or B is a dash (-), just skip it.
      */
-    private void parseIntactId(String value, Interactor interactor) {
-        if (!value.equals("-")) { // not null
-            String[] intactId = value.split(":");
-            interactor.setIntactId(intactId[1]);
+    private void parseIntactId(MitabLine line, int field, Interactor interactor) {
+        if (!line.isEmpty(field)) { // not null
+            interactor.setIntactId(value(line.getLine(), line.start(field), line.end(field)));
         } else {
             // In case IntAct ID is - it means the molecule interacts/modify itself
-            interactor.setIntactId(value);
+            interactor.setIntactId(MitabLine.EMPTY);
         }
     }
 
     /**
      * Parsing the Aliases A and B for the identifiers. Separated by "|".
      */
-    private void parseAliases(String value, Interactor interactor) {
-        if (!value.equals("-")) { // not null
-            String[] allAliases = value.split("\\|");
-            for (String uniqueAlias : allAliases) {
+    private void parseAliases(MitabLine line, int field, Interactor interactor) {
+        if (!line.isEmpty(field)) { // not null
+            CharSequence s = line.getLine();
+            int end = line.end(field);
+            String rawAcc = null;
+            for (int start = line.start(field), entryEnd; start < end; start = entryEnd + 1) {
+                entryEnd = MitabLine.entryEnd(s, start, end, false);
+                if (entryEnd == start) continue;
+
                 // databaseName:value
-                String[] alias = uniqueAlias.split(":");
+                int prefixEnd = MitabLine.valueEnd(s, start, entryEnd);
 
                 // If alternatives IDs are null, try to figure the resource out in the alias
                 if (interactor.getInteractorResourceId() == 0) {
-                    String resourceName = getDatabaseName(alias[0]);
+                    String resourceName = getDatabaseName(MitabLine.substring(s, start, prefixEnd));
                     InteractorResource interactorResource = interactorResourceMap.get(resourceName.toLowerCase());
                     if (interactorResource != null) {
                         interactor.setInteractorResourceId(interactorResource.getId());
@@ -435,8 +955,12 @@ public class IntactParser {
 
                 // first occurrence of psi-mi should be taken as the alias
                 // however there cases where the first in the alias is the accession.
-                if (alias[0].equalsIgnoreCase(PSI_MI_LABEL) && interactor.getAlias() == null && !getRawIdentifier(interactor.getAcc()).equalsIgnoreCase(alias[1])) {
-                    interactor.setAlias(alias[1]);
+                if (prefixEnd < entryEnd && interactor.getAlias() == null && MitabLine.equalsIgnoreCase(s, start, prefixEnd, PSI_MI_LABEL)) {
+                    int valueEnd = MitabLine.valueEnd(s, prefixEnd + 1, entryEnd);
+                    if (rawAcc == null) rawAcc = getRawIdentifier(interactor.getAcc());
+                    if (!MitabLine.equalsIgnoreCase(s, prefixEnd + 1, valueEnd, rawAcc)) {
+                        interactor.setAlias(MitabLine.substring(s, prefixEnd + 1, valueEnd));
+                    }
                 }
             }
         }
@@ -451,70 +975,101 @@ public class IntactParser {
         }
     }
 
-    private void parseSynonyms(String value, Interactor interactor) {
-        if (!value.equals("-")) { // not null
-            // Now the alias has also | on it and make invalid the following split.
-            String[] allAliases = value.split("\\|(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
+    private void parseSynonyms(MitabLine line, int field, Interactor interactor) {
+        if (!line.isEmpty(field)) { // not null
+            // Now the alias has also | on it, only the separators out of quotes are taken into account.
+            CharSequence s = line.getLine();
+            int end = line.end(field);
+            String rawAcc = getRawIdentifier(interactor.getAcc());
             Set<String> uniqueSynonyms = new LinkedHashSet<>();
-            for (String uniqueAlias : allAliases) {
-                // databaseName:value
-                String[] alias = uniqueAlias.split(":", 2);
+            for (int start = line.start(field), entryEnd; start < end; start = entryEnd + 1) {
+                entryEnd = MitabLine.entryEnd(s, start, end, true);
+
+                // databaseName:value, where value is everything after the first ":"
+                int prefixEnd = MitabLine.prefixEnd(s, start, entryEnd);
+                if (prefixEnd == -1) continue;
+
                 // Saving all the alias in the same column. We don't query by alias, so it is ok.
                 // We can't save it as CSV, otherwise when splitting the list it will split alias that has comma.
-                try {
-                    String synonym = alias[1];
-                    // at this point, accession has the databaseName, ignoring the aliases that are equals to accession
-                    if (!synonym.equalsIgnoreCase(getRawIdentifier(interactor.getAcc())) && !synonym.equalsIgnoreCase(interactor.getAlias())) {
-                        uniqueSynonyms.add(synonym);
-                    }
-                } catch (ArrayIndexOutOfBoundsException e) {
-                    e.printStackTrace();
+                // at this point, accession has the databaseName, ignoring the aliases that are equals to accession
+                if (!MitabLine.equalsIgnoreCase(s, prefixEnd + 1, entryEnd, rawAcc) && !MitabLine.equalsIgnoreCase(s, prefixEnd + 1, entryEnd, interactor.getAlias())) {
+                    uniqueSynonyms.add(MitabLine.substring(s, prefixEnd + 1, entryEnd));
                 }
             }
 
             String synonyms = String.join("$", uniqueSynonyms);
             interactor.setSynonyms(synonyms);
-            uniqueSynonyms.clear();
         }
     }
 
-    private void parseConfidenceValue(String value, Interaction interaction) {
-        if (!value.equals("-")) { // not null
-            String[] alternativeIdsRaw = value.split("\\|");
-            for (String alternativeIds : alternativeIdsRaw) {
-                String[] alternativeId = alternativeIds.split(":");
-                if (alternativeId[0].equalsIgnoreCase(AUTHOR_SCORE_LABEL)) {
-                    if (Toolbox.isNumeric(alternativeId[1])) {
-                        interaction.setAuthorScore(parseDouble(alternativeId[1]));
+    private void parseConfidenceValue(MitabLine line, int field, Interaction interaction) {
+        if (!line.isEmpty(field)) { // not null
+            CharSequence s = line.getLine();
+            int end = line.end(field);
+            for (int start = line.start(field), entryEnd; start < end; start = entryEnd + 1) {
+                entryEnd = MitabLine.entryEnd(s, start, end, false);
+
+                // intact-miscore:0.56
+                int prefixEnd = MitabLine.valueEnd(s, start, entryEnd);
+                int from = Math.min(prefixEnd + 1, entryEnd);
+                int valueEnd = MitabLine.valueEnd(s, from, entryEnd);
+                if (MitabLine.equalsIgnoreCase(s, start, prefixEnd, AUTHOR_SCORE_LABEL)) {
+                    if (MitabLine.isNumeric(s, from, valueEnd)) {
+                        interaction.setAuthorScore(parseDouble(MitabLine.substring(s, from, valueEnd)));
                     }
                 }
-                if (alternativeId[0].equalsIgnoreCase(INTACT_SCORE_LABEL)) {
-                    if (Toolbox.isNumeric(alternativeId[1])) {
-                        interaction.setIntactScore(valueOf(alternativeId[1]));
+                if (MitabLine.equalsIgnoreCase(s, start, prefixEnd, INTACT_SCORE_LABEL)) {
+                    if (MitabLine.isNumeric(s, from, valueEnd)) {
+                        interaction.setIntactScore(valueOf(MitabLine.substring(s, from, valueEnd)));
                     } else {
-                        parserErrorMessages.add("Interactor A [" + interaction.getInteractorA().getIntactId() + "] - Interactor B [" + interaction.getInteractorB().getIntactId() + "] - The intact-miscore is not a number [" + alternativeId[1] + "]");
+                        parserErrorMessages.add("Interactor A [" + interaction.getInteractorA().getIntactId() + "] - Interactor B [" + interaction.getInteractorB().getIntactId() + "] - The intact-miscore is not a number [" + MitabLine.substring(s, from, valueEnd) + "]");
                     }
                 }
             }
         }
     }
 
-    private void parsePubmedIdentifier(String value, Interaction interaction) {
-        if (!value.equals("-")) { // not null
-            String[] pubmedIdsRaw = value.split("\\|");
-            for (String pubmedIds : pubmedIdsRaw) {
-                String[] pubmedId = pubmedIds.split(":");
-                if (pubmedId[0].equalsIgnoreCase(PUBMED_LABEL)) {
-                    if (Toolbox.isNumeric(pubmedId[1])) {
-                        interaction.addPubmedIdentifier(pubmedId[1]);
+    private void parsePubmedIdentifier(MitabLine line, int field, Interaction interaction) {
+        if (!line.isEmpty(field)) { // not null
+            CharSequence s = line.getLine();
+            int end = line.end(field);
+            for (int start = line.start(field), entryEnd; start < end; start = entryEnd + 1) {
+                entryEnd = MitabLine.entryEnd(s, start, end, false);
+
+                // pubmed:10831611
+                int prefixEnd = MitabLine.valueEnd(s, start, entryEnd);
+                if (MitabLine.equalsIgnoreCase(s, start, prefixEnd, PUBMED_LABEL)) {
+                    int from = Math.min(prefixEnd + 1, entryEnd);
+                    int valueEnd = MitabLine.valueEnd(s, from, entryEnd);
+                    if (MitabLine.isNumeric(s, from, valueEnd)) {
+                        interaction.addPubmedIdentifier(MitabLine.substring(s, from, valueEnd));
                     } else {
-                        parserErrorMessages.add("Interactor A [" + interaction.getInteractorA().getIntactId() + "] - Interactor B [" + interaction.getInteractorB().getIntactId() + "] - The intact-miscore is not a number [" + pubmedId[1] + "]");
+                        parserErrorMessages.add("Interactor A [" + interaction.getInteractorA().getIntactId() + "] - Interactor B [" + interaction.getInteractorB().getIntactId() + "] - The intact-miscore is not a number [" + MitabLine.substring(s, from, valueEnd) + "]");
                     }
                 }
             }
         }
     }
 
+    /**
+     * Position of the ":" after the prefix of a xref, e.g. "intact:EBI-7121510". The prefix is mandatory here.
+     */
+    private static int prefixEnd(CharSequence s, int start, int end) {
+        int prefixEnd = MitabLine.prefixEnd(s, start, end);
+        if (prefixEnd == -1) {
+            throw new IllegalArgumentException("Missing prefix in [" + MitabLine.substring(s, start, end) + "]");
+        }
+        return prefixEnd;
+    }
+
+    /**
+     * The value of a xref, from the prefix up to the next ":" (if any), e.g. EBI-7121510 for "intact:EBI-7121510"
+     */
+    private static String value(CharSequence s, int start, int end) {
+        int from = prefixEnd(s, start, end) + 1;
+        return MitabLine.substring(s, from, MitabLine.valueEnd(s, from, end));
+    }
+
     /**
      * Download the file from Intact server.
      *
@@ -525,15 +1080,18 @@ public class IntactParser {
         logger.info("Downloading IntAct File...");
         URL url = new URL(urlFtp);
 
-        File intactFile = new File(directory, "intact-micluster.txt");
-        if (intactFile.exists()) {
-            if (!intactFile.renameTo(new File(directory, "intact-micluster-" + new Date().toString() + ".txt"))) {
-                logger.warn("IntAct Static file has not been renamed properly");
-            }
+        // Nothing is read here, finishing the download completes it (or keeps the previous one if unchanged)
+        try (StreamingDownload download = StreamingDownload.open(url, getDownloadTarget(url, directory))) {
+            download.finish();
+            return download.getTarget().getAbsolutePath();
         }
-        FileUtils.copyURLToFile(url, intactFile);
+    }
 
-        return intactFile.getAbsolutePath();
+    /**
+     * The downloaded file is always intact-micluster.txt, keeping the extension if it comes compressed.
+     */
+    private static File getDownloadTarget(URL url, String directory) {
+        return new File(directory, url.getPath().endsWith(".gz") ? "intact-micluster.txt.gz" : "intact-micluster.txt");
     }
 
     /**
@@ -558,6 +1116,37 @@ public class IntactParser {
         logger.info("Caching is Done. InteractionResource [{}] and Interactor Resources[{}]", interactionResourceMap.size(), interactorResourceMap.size());
     }
 
+    /**
+     * Unit of work exchanged between the stages of the pipelined parser
+     */
+    private static class Chunk {
+        static final Chunk END = new Chunk(-1, 0);
+
+        final long sequence;
+        // Line number of the first line is firstLine. offsets[i] is the position in the file right after line i
+        final long firstLine;
+        final long[] offsets = new long[CHUNK_SIZE];
+        final List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        final List<Interaction> interactions = new ArrayList<>(CHUNK_SIZE);
+        long endOffset;
+        // Only the chunk with the end of the file
+        boolean last;
+        Exception error;
+
+        /**
+         * @param linesBefore lines read before the first line of this chunk
+         */
+        Chunk(long sequence, long linesBefore) {
+            this.sequence = sequence;
+            this.firstLine = linesBefore + 1;
+        }
+
+        Chunk end(long endOffset) {
+            this.endOffset = endOffset;
+            return this;
+        }
+    }
+
     private enum ParserIndex {
         ID_INTERACTOR_A(0),
         ID_INTERACTOR_B(1),
@@ -0,0 +1,23 @@
+package org.reactome.server.interactors.dao;
+
+import org.reactome.server.interactors.model.DatabasePartition;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public interface DatabasePartitionDAO {
+
+    /**
+     * @return the registered partitions, none if the database predates them
+     */
+    List<DatabasePartition> getAll() throws SQLException;
+
+    /**
+     * Replaces the registered partitions with the given ones
+     */
+    void replaceAll(List<DatabasePartition> partitions) throws SQLException;
+}
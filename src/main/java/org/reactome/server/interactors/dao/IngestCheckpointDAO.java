@@ -0,0 +1,22 @@
+package org.reactome.server.interactors.dao;
+
+import org.reactome.server.interactors.model.IngestCheckpoint;
+
+import java.sql.SQLException;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public interface IngestCheckpointDAO {
+
+    /**
+     * @return the last recorded checkpoint or null if the load has not recorded any
+     */
+    IngestCheckpoint get() throws SQLException;
+
+    /**
+     * Replaces the recorded checkpoint. Transaction handling is up to the caller.
+     */
+    void save(IngestCheckpoint checkpoint) throws SQLException;
+}
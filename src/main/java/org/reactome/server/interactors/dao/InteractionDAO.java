@@ -3,22 +3,20 @@ package org.reactome.server.interactors.dao;
 import org.reactome.server.interactors.model.Interaction;
 
 import java.sql.SQLException;
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
  */
 
-public interface InteractionDAO {
+public interface InteractionDAO extends InteractionLookupDAO {
 
     boolean create(List<Interaction> interaction) throws SQLException;
 
-    List<Interaction> getByAcc(String acc, Long resourceId, Integer page, Integer pageSize) throws SQLException;
+    void bulkCreate(List<Interaction> interactions) throws SQLException;
 
-    List<Interaction> getByAcc(List<String> acc, Long resourceId, Integer page, Integer pageSize) throws SQLException;
+    void bulkUpdate(List<Interaction> interactions) throws SQLException;
 
-    Map<String, Integer> countByAccessions(Collection<String> accs, Long resourceId) throws SQLException;
+    void delete(List<Long> ids) throws SQLException;
 
 }
\ No newline at end of file
@@ -9,11 +9,13 @@ import java.util.List;
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
  */
 
-public interface InteractionDetailsDAO {
+public interface InteractionDetailsDAO extends InteractionDetailsLookupDAO {
     // add here something specific for Interactor
 
     boolean create(List<InteractionDetails> interactionDetails) throws SQLException;
 
-    List<InteractionDetails> getByInteraction(Long interactionId) throws SQLException;
+    void bulkCreate(List<InteractionDetails> interactionDetails) throws SQLException;
 
-}
+    void deleteByInteractions(List<Long> interactionIds) throws SQLException;
+
+}
\ No newline at end of file
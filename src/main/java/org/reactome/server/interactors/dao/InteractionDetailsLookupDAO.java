@@ -0,0 +1,23 @@
+package org.reactome.server.interactors.dao;
+
+import org.reactome.server.interactors.model.InteractionDetails;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries of the interaction details, for those that can only be read (e.g. a snapshot).
+ * {@link InteractionDetailsDAO} adds the writes.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public interface InteractionDetailsLookupDAO {
+
+    List<InteractionDetails> getByInteraction(Long interactionId) throws SQLException;
+
+    Map<Long, List<InteractionDetails>> getByInteractions(Collection<Long> interactionIds) throws SQLException;
+
+}
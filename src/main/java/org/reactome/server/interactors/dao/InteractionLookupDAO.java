@@ -0,0 +1,39 @@
+package org.reactome.server.interactors.dao;
+
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionCursor;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Queries of the interactions, for those that can only be read (e.g. kept in memory or in a snapshot).
+ * {@link InteractionDAO} adds the writes.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public interface InteractionLookupDAO {
+
+    long getMaxId() throws SQLException;
+
+    void scan(Long resourceId, Consumer<Interaction> consumer) throws SQLException;
+
+    List<Interaction> getByAcc(String acc, Long resourceId, Integer page, Integer pageSize) throws SQLException;
+
+    List<Interaction> getByAcc(List<String> acc, Long resourceId, Integer page, Integer pageSize) throws SQLException;
+
+    List<Interaction> getByAccAfter(String acc, Long resourceId, InteractionCursor after, int size) throws SQLException;
+
+    void scanByAcc(String acc, Long resourceId, Consumer<Interaction> consumer) throws SQLException;
+
+    List<Interaction> getByPubmedId(String pubmedId, Long resourceId) throws SQLException;
+
+    Map<String, List<Interaction>> getByAccessions(Collection<String> accs, Long resourceId) throws SQLException;
+
+    Map<String, Integer> countByAccessions(Collection<String> accs, Long resourceId) throws SQLException;
+
+}
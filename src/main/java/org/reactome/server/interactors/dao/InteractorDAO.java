@@ -4,6 +4,7 @@ import org.reactome.server.interactors.model.Interactor;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -20,5 +21,13 @@ public interface InteractorDAO {
 
     List<Interactor> getAll() throws SQLException;
 
+    List<Interactor> getBySynonym(String synonym) throws SQLException;
+
     Interactor create(Interactor interactor) throws SQLException;
+
+    void bulkCreate(List<Interactor> interactors) throws SQLException;
+
+    Map<String, Long> getAccessionIds() throws SQLException;
+
+    int deleteOrphans() throws SQLException;
 }
@@ -0,0 +1,25 @@
+package org.reactome.server.interactors.dao;
+
+import org.reactome.server.interactors.model.InteractorDegree;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public interface InteractorDegreeDAO {
+
+    /**
+     * @return degree per accession, accessions without interactions are not in the map
+     */
+    Map<String, InteractorDegree> getByAccessions(Collection<String> accs, Long resourceId) throws SQLException;
+
+    /**
+     * @return the interactors with most interactions, most connected first
+     */
+    List<InteractorDegree> getMostConnected(Long resourceId, int limit) throws SQLException;
+}
@@ -0,0 +1,235 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.dao.InteractionLookupDAO;
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionCursor;
+import org.reactome.server.interactors.model.Interactor;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Lookups by accession over interactors and interactions numbered from 0, where each interactor has a slice of
+ * EDGES with its interactions (compressed sparse rows), sorted as the database sorts them: resource, score (highest
+ * first) and ID. Getting the interactions of an accession is then a lookup of the interactor and a walk along its
+ * slice. Where the columns are kept is up to the subclasses, lookups other than by accession go to the database.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public abstract class GraphInteraction implements InteractionLookupDAO {
+
+    private InteractionLookupDAO database;
+
+    protected GraphInteraction(InteractionLookupDAO database) {
+        this.database = database;
+    }
+
+    /**
+     * @return number of the interactor with the given accession, -1 if there is none
+     */
+    protected abstract int findInteractor(String acc);
+
+    /**
+     * @return position in EDGES of the first interaction of the interactor
+     */
+    protected abstract int edgesFrom(int interactor);
+
+    /**
+     * @return position in EDGES after the last interaction of the interactor
+     */
+    protected abstract int edgesTo(int interactor);
+
+    /**
+     * @return number of the interaction at the given position of EDGES
+     */
+    protected abstract int edge(int position);
+
+    protected abstract int interactions();
+
+    protected abstract long interactionId(int interaction);
+
+    protected abstract int interactorA(int interaction);
+
+    protected abstract int interactorB(int interaction);
+
+    protected abstract double authorScore(int interaction);
+
+    protected abstract double score(int interaction);
+
+    protected abstract long interactionResourceId(int interaction);
+
+    protected abstract String pubmedIds(int interaction);
+
+    protected abstract long interactorId(int interactor);
+
+    protected abstract String acc(int interactor);
+
+    protected abstract String alias(int interactor);
+
+    protected abstract long interactorResourceId(int interactor);
+
+    protected abstract String intactId(int interactor);
+
+    protected abstract int taxId(int interactor);
+
+    protected abstract String synonyms(int interactor);
+
+    /**
+     * @return positions in EDGES of the interactions of the accession in the resource, from (inclusive) and to
+     * (exclusive), null if the accession is not known
+     */
+    private int[] slice(String acc, Long resourceId) {
+        int interactor = findInteractor(acc);
+        if (interactor < 0) return null;
+
+        int from = edgesFrom(interactor);
+        int to = edgesTo(interactor);
+        // Sorted by resource first, almost always a single one
+        while (from < to && interactionResourceId(edge(from)) != resourceId) from++;
+        int end = from;
+        while (end < to && interactionResourceId(edge(end)) == resourceId) end++;
+        return new int[]{from, end};
+    }
+
+    @Override
+    public List<Interaction> getByAcc(String acc, Long resourceId, Integer page, Integer pageSize) {
+        List<Interaction> interactions = new ArrayList<>();
+        int[] slice = slice(acc, resourceId);
+        if (slice == null) return interactions;
+
+        int from = slice[0];
+        int to = slice[1];
+        // Both are greater than -1, paginated is enabled
+        if (page > -1 && pageSize > -1) {
+            from = Math.min(to, from + Math.max(0, pageSize * page - pageSize));
+            to = Math.min(to, from + pageSize);
+        }
+        for (int i = from; i < to; i++) {
+            interactions.add(buildInteraction(acc, edge(i)));
+        }
+        return interactions;
+    }
+
+    @Override
+    public List<Interaction> getByAcc(List<String> accs, Long resourceId, Integer page, Integer pageSize) {
+        List<Interaction> interactions = new ArrayList<>();
+        for (String acc : accs) {
+            interactions.addAll(getByAcc(acc, resourceId, page, pageSize));
+        }
+        return interactions;
+    }
+
+    /**
+     * The slice is sorted by score and ID, so the first interaction of the page is found by a binary search
+     */
+    @Override
+    public List<Interaction> getByAccAfter(String acc, Long resourceId, InteractionCursor after, int size) {
+        List<Interaction> interactions = new ArrayList<>();
+        int[] slice = slice(acc, resourceId);
+        if (slice == null) return interactions;
+
+        int from = slice[0];
+        if (after != null) {
+            int low = slice[0];
+            int high = slice[1];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int interaction = edge(mid);
+                double score = score(interaction);
+                boolean before = score > after.getScore() || (score == after.getScore() && interactionId(interaction) <= after.getId());
+                if (before) low = mid + 1; else high = mid;
+            }
+            from = low;
+        }
+        int to = size < 0 ? slice[1] : (int) Math.min(slice[1], (long) from + size);
+        for (int i = from; i < to; i++) {
+            interactions.add(buildInteraction(acc, edge(i)));
+        }
+        return interactions;
+    }
+
+    @Override
+    public void scanByAcc(String acc, Long resourceId, Consumer<Interaction> consumer) {
+        int[] slice = slice(acc, resourceId);
+        if (slice == null) return;
+        for (int i = slice[0]; i < slice[1]; i++) {
+            consumer.accept(buildInteraction(acc, edge(i)));
+        }
+    }
+
+    @Override
+    public Map<String, List<Interaction>> getByAccessions(Collection<String> accs, Long resourceId) {
+        Map<String, List<Interaction>> interactions = new LinkedHashMap<>();
+        for (String acc : accs) {
+            interactions.put(acc, getByAcc(acc, resourceId, -1, -1));
+        }
+        return interactions;
+    }
+
+    @Override
+    public Map<String, Integer> countByAccessions(Collection<String> accs, Long resourceId) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String acc : accs) {
+            int[] slice = slice(acc, resourceId);
+            if (slice != null && slice[1] > slice[0]) {
+                counts.put(acc, slice[1] - slice[0]);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Interaction> getByPubmedId(String pubmedId, Long resourceId) throws SQLException {
+        return database.getByPubmedId(pubmedId, resourceId);
+    }
+
+    @Override
+    public void scan(Long resourceId, Consumer<Interaction> consumer) throws SQLException {
+        database.scan(resourceId, consumer);
+    }
+
+    @Override
+    public long getMaxId() {
+        long max = 0;
+        for (int i = 0; i < interactions(); i++) max = Math.max(max, interactionId(i));
+        return max;
+    }
+
+    /**
+     * Same as StaticInteraction.buildInteraction: the interactor queried is always on side A
+     */
+    private Interaction buildInteraction(String acc, int edge) {
+        Interaction interaction = new Interaction();
+        interaction.setId(interactionId(edge));
+
+        Interactor interactorA = buildInteractor(interactorA(edge));
+        Interactor interactorB = buildInteractor(interactorB(edge));
+        if (acc.equals(interactorA.getAcc())) {
+            interaction.setInteractorA(interactorA);
+            interaction.setInteractorB(interactorB);
+        } else {
+            interaction.setInteractorA(interactorB);
+            interaction.setInteractorB(interactorA);
+        }
+
+        interaction.setAuthorScore(authorScore(edge));
+        interaction.setIntactScore(score(edge));
+        interaction.setInteractionResourceId(interactionResourceId(edge));
+        interaction.setPubmedIds(pubmedIds(edge));
+        return interaction;
+    }
+
+    private Interactor buildInteractor(int i) {
+        Interactor interactor = new Interactor();
+        interactor.setId(interactorId(i));
+        interactor.setAcc(acc(i));
+        interactor.setAlias(alias(i));
+        interactor.setInteractorResourceId(interactorResourceId(i));
+        interactor.setIntactId(intactId(i));
+        interactor.setTaxid(taxId(i));
+        interactor.setSynonyms(synonyms(i));
+        return interactor;
+    }
+}
@@ -0,0 +1,143 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.database.InteractionGraph;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interactors and interactions of a database loaded in memory when it is created, for the lookups by accession
+ * of {@link org.reactome.server.interactors.service.InteractionService}, see {@link InteractionGraph}. Accessions
+ * are looked up in a dictionary.
+ * <p>
+ * It is a snapshot, nothing is written to the database through it. Once loaded it is not modified, so it can be
+ * shared by any number of threads.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class InMemoryInteraction extends GraphInteraction {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryInteraction.class);
+
+    private InteractionGraph graph;
+    private Map<String, Integer> accIndex;
+
+    public InMemoryInteraction(InteractorsDatabase database) throws SQLException {
+        super(new StaticInteraction(database));
+
+        long start = System.currentTimeMillis();
+        try (PooledConnection pooled = database.getReadConnection()) {
+            graph = InteractionGraph.load(pooled);
+        } catch (SQLException e) {
+            logger.error("An error has occurred while loading the interactions in memory. Please check the following exception.");
+            throw new SQLException(e);
+        }
+        accIndex = new HashMap<>(graph.getInteractors() * 4 / 3 + 1);
+        for (int i = 0; i < graph.getInteractors(); i++) {
+            accIndex.put(graph.getAcc(i), i);
+        }
+        logger.info("[{}] interactors and [{}] interactions loaded in memory in [{}.ms]", graph.getInteractors(), graph.getInteractions(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    protected int findInteractor(String acc) {
+        Integer interactor = accIndex.get(acc);
+        return interactor == null ? -1 : interactor;
+    }
+
+    @Override
+    protected int edgesFrom(int interactor) {
+        return graph.getEdgesFrom(interactor);
+    }
+
+    @Override
+    protected int edgesTo(int interactor) {
+        return graph.getEdgesTo(interactor);
+    }
+
+    @Override
+    protected int edge(int position) {
+        return graph.getEdge(position);
+    }
+
+    @Override
+    protected int interactions() {
+        return graph.getInteractions();
+    }
+
+    @Override
+    protected long interactionId(int interaction) {
+        return graph.getInteractionId(interaction);
+    }
+
+    @Override
+    protected int interactorA(int interaction) {
+        return graph.getInteractorA(interaction);
+    }
+
+    @Override
+    protected int interactorB(int interaction) {
+        return graph.getInteractorB(interaction);
+    }
+
+    @Override
+    protected double authorScore(int interaction) {
+        return graph.getAuthorScore(interaction);
+    }
+
+    @Override
+    protected double score(int interaction) {
+        return graph.getScore(interaction);
+    }
+
+    @Override
+    protected long interactionResourceId(int interaction) {
+        return graph.getInteractionResourceId(interaction);
+    }
+
+    @Override
+    protected String pubmedIds(int interaction) {
+        return graph.getPubmedIds(interaction);
+    }
+
+    @Override
+    protected long interactorId(int interactor) {
+        return graph.getInteractorId(interactor);
+    }
+
+    @Override
+    protected String acc(int interactor) {
+        return graph.getAcc(interactor);
+    }
+
+    @Override
+    protected String alias(int interactor) {
+        return graph.getAlias(interactor);
+    }
+
+    @Override
+    protected long interactorResourceId(int interactor) {
+        return graph.getInteractorResourceId(interactor);
+    }
+
+    @Override
+    protected String intactId(int interactor) {
+        return graph.getIntactId(interactor);
+    }
+
+    @Override
+    protected int taxId(int interactor) {
+        return graph.getTaxId(interactor);
+    }
+
+    @Override
+    protected String synonyms(int interactor) {
+        return graph.getSynonyms(interactor);
+    }
+}
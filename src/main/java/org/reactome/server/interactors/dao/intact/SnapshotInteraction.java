@@ -0,0 +1,127 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.InteractorsSnapshot;
+
+/**
+ * Interactions of a snapshot written by {@link org.reactome.server.interactors.util.SnapshotGenerator}, for the
+ * lookups by accession of {@link org.reactome.server.interactors.service.InteractionService}. Everything is read
+ * from the mapped file, so it is ready as soon as the snapshot is opened and takes no space in the heap.
+ * Lookups other than by accession go to the database the snapshot was written from.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class SnapshotInteraction extends GraphInteraction {
+
+    private InteractorsSnapshot snapshot;
+
+    public SnapshotInteraction(InteractorsSnapshot snapshot, InteractorsDatabase database) {
+        super(new StaticInteraction(database));
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Interactions are sorted by ID in the snapshot
+     */
+    @Override
+    public long getMaxId() {
+        int interactions = snapshot.getInteractions();
+        return interactions == 0 ? 0 : snapshot.getInteractionId(interactions - 1);
+    }
+
+    @Override
+    protected int findInteractor(String acc) {
+        return snapshot.findInteractor(acc);
+    }
+
+    @Override
+    protected int edgesFrom(int interactor) {
+        return snapshot.getEdgesFrom(interactor);
+    }
+
+    @Override
+    protected int edgesTo(int interactor) {
+        return snapshot.getEdgesTo(interactor);
+    }
+
+    @Override
+    protected int edge(int position) {
+        return snapshot.getEdge(position);
+    }
+
+    @Override
+    protected int interactions() {
+        return snapshot.getInteractions();
+    }
+
+    @Override
+    protected long interactionId(int interaction) {
+        return snapshot.getInteractionId(interaction);
+    }
+
+    @Override
+    protected int interactorA(int interaction) {
+        return snapshot.getInteractorA(interaction);
+    }
+
+    @Override
+    protected int interactorB(int interaction) {
+        return snapshot.getInteractorB(interaction);
+    }
+
+    @Override
+    protected double authorScore(int interaction) {
+        return snapshot.getAuthorScore(interaction);
+    }
+
+    @Override
+    protected double score(int interaction) {
+        return snapshot.getScore(interaction);
+    }
+
+    @Override
+    protected long interactionResourceId(int interaction) {
+        return snapshot.getInteractionResourceId(interaction);
+    }
+
+    @Override
+    protected String pubmedIds(int interaction) {
+        return snapshot.getPubmedIds(interaction);
+    }
+
+    @Override
+    protected long interactorId(int interactor) {
+        return snapshot.getInteractorId(interactor);
+    }
+
+    @Override
+    protected String acc(int interactor) {
+        return snapshot.getAcc(interactor);
+    }
+
+    @Override
+    protected String alias(int interactor) {
+        return snapshot.getAlias(interactor);
+    }
+
+    @Override
+    protected long interactorResourceId(int interactor) {
+        return snapshot.getInteractorResourceId(interactor);
+    }
+
+    @Override
+    protected String intactId(int interactor) {
+        return snapshot.getIntactId(interactor);
+    }
+
+    @Override
+    protected int taxId(int interactor) {
+        return snapshot.getTaxId(interactor);
+    }
+
+    @Override
+    protected String synonyms(int interactor) {
+        return snapshot.getSynonyms(interactor);
+    }
+}
@@ -0,0 +1,50 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.dao.InteractionDetailsLookupDAO;
+import org.reactome.server.interactors.database.InteractorsSnapshot;
+import org.reactome.server.interactors.model.InteractionDetails;
+
+import java.util.*;
+
+/**
+ * Interaction details of a snapshot written by {@link org.reactome.server.interactors.util.SnapshotGenerator}.
+ * The interaction is found by a binary search on its ID and its details are next to each other in the file.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class SnapshotInteractionDetails implements InteractionDetailsLookupDAO {
+
+    private InteractorsSnapshot snapshot;
+
+    public SnapshotInteractionDetails(InteractorsSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public List<InteractionDetails> getByInteraction(Long interactionId) {
+        List<InteractionDetails> interactionsDetails = new ArrayList<>();
+        int interaction = snapshot.findInteraction(interactionId);
+        if (interaction < 0) return interactionsDetails;
+
+        for (int k = snapshot.getDetailsFrom(interaction); k < snapshot.getDetailsTo(interaction); k++) {
+            InteractionDetails interactionDetails = new InteractionDetails();
+            interactionDetails.setId(snapshot.getDetailId(k));
+            interactionDetails.setInteractionId(interactionId);
+            interactionDetails.setInteractionAc(snapshot.getDetailAc(k));
+            interactionsDetails.add(interactionDetails);
+        }
+        return interactionsDetails;
+    }
+
+    /**
+     * @return details per interaction ID, as StaticInteractionDetails does. Interactions without details are not
+     * in the map.
+     */
+    public Map<Long, List<InteractionDetails>> getByInteractions(Collection<Long> interactionIds) {
+        Map<Long, List<InteractionDetails>> interactionsDetails = new HashMap<>();
+        for (Long interactionId : new LinkedHashSet<>(interactionIds)) {
+            List<InteractionDetails> details = getByInteraction(interactionId);
+            if (!details.isEmpty()) interactionsDetails.put(interactionId, details);
+        }
+        return interactionsDetails;
+    }
+}
@@ -0,0 +1,100 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.dao.DatabasePartitionDAO;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.model.DatabasePartition;
+import org.reactome.server.interactors.util.QueryStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class StaticDatabasePartition implements DatabasePartitionDAO {
+
+    private final Logger logger = LoggerFactory.getLogger(StaticDatabasePartition.class);
+
+    private Connection connection;
+
+    private final String TABLE = "INTERACTOR_PARTITION";
+    private final String ALL_COLUMNS = "FILE_NAME, TAXID, MIN_SCORE, INTERACTIONS";
+
+    public StaticDatabasePartition(InteractorsDatabase database) {
+        this.connection = database.getConnection();
+    }
+
+    public List<DatabasePartition> getAll() throws SQLException {
+        logger.debug("Retrieving all partitions");
+
+        List<DatabasePartition> ret = new ArrayList<>();
+        try {
+            try (PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM SQLITE_MASTER WHERE TYPE = 'table' AND NAME = ?")) {
+                exists.setString(1, TABLE);
+                if (!exists.executeQuery().next()) return ret;
+            }
+
+            try (PreparedStatement pstm = connection.prepareStatement("SELECT " + ALL_COLUMNS + " FROM " + TABLE)) {
+                ResultSet rs = pstm.executeQuery();
+                while (rs.next()) {
+                    ret.add(buildPartition(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the partitions. Please check the following exception.");
+            throw new SQLException(e);
+        }
+
+        return ret;
+    }
+
+    public void replaceAll(List<DatabasePartition> partitions) throws SQLException {
+        try {
+            connection.setAutoCommit(false);
+
+            try (Statement statement = connection.createStatement()) {
+                // Databases created before the partitions do not have the table
+                statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTOR_PARTITION);
+                statement.executeUpdate("DELETE FROM " + TABLE);
+            }
+
+            try (PreparedStatement pstm = connection.prepareStatement("INSERT INTO " + TABLE + " (" + ALL_COLUMNS + ") VALUES (?, ?, ?, ?)")) {
+                for (DatabasePartition partition : partitions) {
+                    pstm.setString(1, partition.getFileName());
+                    if (partition.getTaxId() == null) {
+                        pstm.setNull(2, Types.INTEGER);
+                    } else {
+                        pstm.setInt(2, partition.getTaxId());
+                    }
+                    pstm.setDouble(3, partition.getMinScore());
+                    pstm.setLong(4, partition.getInteractions());
+                    pstm.addBatch();
+                }
+                pstm.executeBatch();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            logger.error("An error has occurred while registering the partitions. Please check the following exception.");
+            connection.rollback();
+            throw new SQLException(e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private DatabasePartition buildPartition(ResultSet rs) throws SQLException {
+        DatabasePartition ret = new DatabasePartition();
+        ret.setFileName(rs.getString("FILE_NAME"));
+        int taxId = rs.getInt("TAXID");
+        ret.setTaxId(rs.wasNull() ? null : taxId);
+        ret.setMinScore(rs.getDouble("MIN_SCORE"));
+        ret.setInteractions(rs.getLong("INTERACTIONS"));
+
+        return ret;
+    }
+}
@@ -0,0 +1,93 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.dao.IngestCheckpointDAO;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.model.IngestCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * The INGEST_CHECKPOINT table has a single row (ID = 1).
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class StaticIngestCheckpoint implements IngestCheckpointDAO {
+
+    private final Logger logger = LoggerFactory.getLogger(StaticIngestCheckpoint.class);
+
+    private InteractorsDatabase database;
+
+    private final String TABLE = "INGEST_CHECKPOINT";
+    private final String ALL_COLUMNS = "SOURCE, SOURCE_LENGTH, BYTE_OFFSET, LINE_NUMBER, LINES_INCLUDED, MIN_SCORE, COMPLETE";
+
+    public StaticIngestCheckpoint(InteractorsDatabase database) {
+        this.database = database;
+    }
+
+    public IngestCheckpoint get() throws SQLException {
+        logger.debug("Retrieving the ingest checkpoint");
+
+        IngestCheckpoint checkpoint = null;
+        try {
+            String query = "SELECT " + ALL_COLUMNS +
+                            " FROM " + TABLE +
+                            " WHERE ID = 1";
+
+            PreparedStatement pstm = database.prepareStatement(query);
+            try (ResultSet rs = pstm.executeQuery()) {
+                if (rs.next()) {
+                    checkpoint = buildCheckpoint(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the ingest checkpoint. Please check the following exception.");
+            throw new SQLException(e);
+        }
+
+        return checkpoint;
+    }
+
+    public void save(IngestCheckpoint checkpoint) throws SQLException {
+        String query = "INSERT OR REPLACE INTO " + TABLE + " (ID, " + ALL_COLUMNS + ", UPDATE_DATE) " +
+                        "VALUES (1, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+        PreparedStatement pstm = database.prepareStatement(query);
+        pstm.setString(1, checkpoint.getSource());
+        if (checkpoint.getSourceLength() == null) {
+            pstm.setNull(2, Types.INTEGER);
+        } else {
+            pstm.setLong(2, checkpoint.getSourceLength());
+        }
+        pstm.setLong(3, checkpoint.getByteOffset());
+        pstm.setLong(4, checkpoint.getLineNumber());
+        pstm.setLong(5, checkpoint.getLinesIncluded());
+        if (checkpoint.getMinimumScore() == null) {
+            pstm.setNull(6, Types.NUMERIC);
+        } else {
+            pstm.setDouble(6, checkpoint.getMinimumScore());
+        }
+        pstm.setInt(7, checkpoint.isComplete() ? 1 : 0);
+        pstm.executeUpdate();
+    }
+
+    private IngestCheckpoint buildCheckpoint(ResultSet rs) throws SQLException {
+        IngestCheckpoint ret = new IngestCheckpoint();
+        ret.setSource(rs.getString("SOURCE"));
+        long sourceLength = rs.getLong("SOURCE_LENGTH");
+        ret.setSourceLength(rs.wasNull() ? null : sourceLength);
+        ret.setByteOffset(rs.getLong("BYTE_OFFSET"));
+        ret.setLineNumber(rs.getLong("LINE_NUMBER"));
+        ret.setLinesIncluded(rs.getLong("LINES_INCLUDED"));
+        double minimumScore = rs.getDouble("MIN_SCORE");
+        ret.setMinimumScore(rs.wasNull() ? null : minimumScore);
+        ret.setComplete(rs.getInt("COMPLETE") == 1);
+
+        return ret;
+    }
+}
@@ -3,8 +3,12 @@ package org.reactome.server.interactors.dao.intact;
 import org.apache.commons.lang.StringUtils;
 import org.reactome.server.interactors.dao.InteractionDAO;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
 import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionCursor;
+import org.reactome.server.interactors.model.InteractionDetails;
 import org.reactome.server.interactors.model.Interactor;
+import org.reactome.server.interactors.util.QueryStatement;
 import org.reactome.server.interactors.util.Toolbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +17,9 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -23,13 +29,19 @@ public class StaticInteraction implements InteractionDAO {
 
     private enum Method {
         BY_ACESSION,
-        BY_INTACT_ID
+        BY_INTACT_ID,
+        AS_STORED
     }
 
     private final Logger logger = LoggerFactory.getLogger(StaticInteraction.class);
+    private InteractorsDatabase database;
     private Connection connection;
 
+    // Accessions bound in a single query. Keeps it under the SQLite default limit of 999 parameters
+    private static final int ACCESSIONS_PER_QUERY = 500;
+
     public StaticInteraction(InteractorsDatabase database) {
+        this.database = database;
         this.connection = database.getConnection();
     }
 
@@ -43,7 +55,7 @@ public class StaticInteraction implements InteractionDAO {
             String query = "INSERT INTO " + TABLE + " (" + ALL_COLUMNS + ") "
                     + "VALUES(?, ?, ?, ?, ?, ?)";
 
-            PreparedStatement pstm = connection.prepareStatement(query);
+            PreparedStatement pstm = database.prepareStatement(query);
 
             for (Interaction interaction : interactions) {
                 pstm.setLong(1, interaction.getInteractorA().getId());
@@ -80,6 +92,131 @@ public class StaticInteraction implements InteractionDAO {
         return true;
     }
 
+    /**
+     * Batch insert of interactions whose IDs have been assigned by the caller, e.g. by the bulk load.
+     * The whole list goes in a single executeBatch and transaction handling is up to the caller.
+     */
+    public void bulkCreate(List<Interaction> interactions) throws SQLException {
+        final String TABLE = "INTERACTION";
+        final String ALL_COLUMNS = "ID, INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS";
+
+        String query = "INSERT INTO " + TABLE + " (" + ALL_COLUMNS + ") "
+                + "VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+        PreparedStatement pstm = database.prepareStatement(query);
+        for (Interaction interaction : interactions) {
+            pstm.setLong(1, interaction.getId());
+            pstm.setLong(2, interaction.getInteractorA().getId());
+            pstm.setLong(3, interaction.getInteractorB().getId());
+            pstm.setDouble(4, interaction.getAuthorScore());
+            pstm.setDouble(5, Toolbox.roundScore(interaction.getIntactScore())); // Rounding score 0.###, the score is higher than InteractorConstant.MINIMUM_VALID_SCORE
+            pstm.setLong(6, interaction.getInteractionResourceId());
+            if (interaction.getPubmedIdentifiers() != null && !interaction.getPubmedIdentifiers().isEmpty()) {
+                pstm.setString(7, String.join(",", interaction.getPubmedIdentifiers()));
+            } else {
+                pstm.setNull(7, Types.VARCHAR);
+            }
+            pstm.addBatch();
+        }
+        pstm.executeBatch();
+    }
+
+    /**
+     * Batch update of the scores and publications of existing interactions. Transaction handling is up to the caller.
+     */
+    public void bulkUpdate(List<Interaction> interactions) throws SQLException {
+        if (interactions.isEmpty()) return;
+
+        String query = "UPDATE INTERACTION SET AUTHOR_SCORE = ?, MISCORE = ?, PUBMEDIDS = ? WHERE ID = ?";
+        PreparedStatement pstm = database.prepareStatement(query);
+        for (Interaction interaction : interactions) {
+            pstm.setDouble(1, interaction.getAuthorScore());
+            pstm.setDouble(2, Toolbox.roundScore(interaction.getIntactScore()));
+            if (interaction.getPubmedIdentifiers() != null && !interaction.getPubmedIdentifiers().isEmpty()) {
+                pstm.setString(3, String.join(",", interaction.getPubmedIdentifiers()));
+            } else {
+                pstm.setNull(3, Types.VARCHAR);
+            }
+            pstm.setLong(4, interaction.getId());
+            pstm.addBatch();
+        }
+        pstm.executeBatch();
+    }
+
+    /**
+     * Batch delete of interactions. Their details have to be deleted before. Transaction handling is up to the caller.
+     */
+    public void delete(List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) return;
+
+        PreparedStatement pstm = database.prepareStatement("DELETE FROM INTERACTION WHERE ID = ?");
+        for (Long id : ids) {
+            pstm.setLong(1, id);
+            pstm.addBatch();
+        }
+        pstm.executeBatch();
+    }
+
+    /**
+     * Reads all the interactions of a given resource, one at a time, so they don't need to fit in memory.
+     * Interactors only have their IDs and the details come in the order they were inserted.
+     */
+    public void scan(Long resourceId, Consumer<Interaction> consumer) throws SQLException {
+        String query = "SELECT   INTERACTION.ID, INTERACTION.INTERACTOR_A, INTERACTION.INTERACTOR_B, INTERACTION.AUTHOR_SCORE, " +
+                                "INTERACTION.MISCORE, INTERACTION.PUBMEDIDS, INTERACTION_DETAILS.INTERACTION_AC " +
+                       "FROM     INTERACTION LEFT JOIN INTERACTION_DETAILS ON INTERACTION_DETAILS.INTERACTION_ID = INTERACTION.ID " +
+                       "WHERE    INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+                       "ORDER BY INTERACTION.ID, INTERACTION_DETAILS.ID";
+
+        try (PreparedStatement pstm = connection.prepareStatement(query)) {
+            pstm.setLong(1, resourceId);
+            ResultSet rs = pstm.executeQuery();
+
+            Interaction interaction = null;
+            while (rs.next()) {
+                long id = rs.getLong("ID");
+                if (interaction == null || interaction.getId() != id) {
+                    if (interaction != null) consumer.accept(interaction);
+
+                    interaction = new Interaction();
+                    interaction.setId(id);
+                    Interactor interactorA = new Interactor();
+                    interactorA.setId(rs.getLong("INTERACTOR_A"));
+                    interaction.setInteractorA(interactorA);
+                    Interactor interactorB = new Interactor();
+                    interactorB.setId(rs.getLong("INTERACTOR_B"));
+                    interaction.setInteractorB(interactorB);
+                    interaction.setAuthorScore(rs.getDouble("AUTHOR_SCORE"));
+                    interaction.setIntactScore(rs.getDouble("MISCORE"));
+                    interaction.setInteractionResourceId(resourceId);
+                    String pubmedIds = rs.getString("PUBMEDIDS");
+                    if (StringUtils.isNotEmpty(pubmedIds)) {
+                        interaction.setPubmedIdentifiers(new ArrayList<>(Arrays.asList(pubmedIds.split(","))));
+                    }
+                }
+
+                String interactionAc = rs.getString("INTERACTION_AC");
+                if (interactionAc != null) {
+                    InteractionDetails interactionDetails = new InteractionDetails();
+                    interactionDetails.setInteractionId(id);
+                    interactionDetails.setInteractionAc(interactionAc);
+                    interaction.addInteractionDetails(interactionDetails);
+                }
+            }
+            if (interaction != null) consumer.accept(interaction);
+        } catch (SQLException e) {
+            logger.error("An error has occurred while reading the interactions. Please check the following exception.");
+            throw new SQLException(e);
+        }
+    }
+
+    public long getMaxId() throws SQLException {
+        PreparedStatement pstm = database.prepareStatement("SELECT MAX(ID) FROM INTERACTION");
+        try (ResultSet rs = pstm.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
     public List<Interaction> getByAcc(String acc, Long resourceId, Integer page, Integer pageSize) throws SQLException{
         List<String> accList = new ArrayList<>(1);
         accList.add(acc);
@@ -87,43 +224,44 @@ public class StaticInteraction implements InteractionDAO {
         return getByAcc(accList, resourceId, page, pageSize);
     }
 
+    /**
+     * Interactions of each accession in turn, highest score first. They are read through INTERACTION_ADJACENCY
+     * when the database has it, otherwise both sides are merged, see QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION.
+     * Neither has to sort all the interactions of an accession to get a page.
+     */
     public List<Interaction> getByAcc(List<String> accs, Long resourceId, Integer page, Integer pageSize) throws SQLException{
         List<Interaction> interactions = new ArrayList<>();
 
-        try {
-            String query = "SELECT   INTERACTION.ID AS 'INTERACTION_ID', " +
-                                    "INTERACTORA.ID AS 'ID_A', INTERACTORA.ACC AS 'ACC_A', INTERACTORA.ALIAS AS 'ALIAS_A', INTERACTORA.INTERACTOR_RESOURCE_ID AS 'INTERACTOR_RESOURCE_A_ID', INTERACTORA.INTACT_ID AS 'INTACT_IDA', INTERACTORA.TAXID AS 'TAX_IDA', INTERACTORA.SYNONYMS AS 'SYNONYMSA', " +
-                                    "INTERACTORB.ID AS 'ID_B', INTERACTORB.ACC AS 'ACC_B', INTERACTORB.ALIAS AS 'ALIAS_B', INTERACTORB.INTERACTOR_RESOURCE_ID AS 'INTERACTOR_RESOURCE_B_ID', INTERACTORB.INTACT_ID AS 'INTACT_IDB', INTERACTORB.TAXID AS 'TAX_IDB', INTERACTORB.SYNONYMS AS 'SYNONYMSB', " +
-                                    "INTERACTION.AUTHOR_SCORE, " +
-                                    "INTERACTION.MISCORE, " +
-                                    "INTERACTION.PUBMEDIDS, " +
-                                    "INTERACTION.INTERACTION_RESOURCE_ID " +
-                           "FROM     INTERACTION, INTERACTOR AS INTERACTORA, INTERACTOR AS INTERACTORB " +
-                           "WHERE    INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
-                           "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
-                           "AND      (INTERACTION.INTERACTOR_A = (select id from interactor where ACC = ?) OR INTERACTION.INTERACTOR_B = (select id from interactor where ACC = ?)) " +
-                           "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
-                           "ORDER BY INTERACTION.MISCORE DESC";
+        try (PooledConnection pooled = database.getReadConnection()) {
+            boolean adjacency = database.hasRows(pooled, "INTERACTION_ADJACENCY");
+            String query = adjacency ? QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY : QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION;
 
             // Both are greater than -1, paginated is enabled
-            if(page > -1 && pageSize > -1){
-                int limit = (pageSize * page) - pageSize;
-                String limitQuery = String.format(" LIMIT %d, %d", limit, pageSize);
-
-                query = query.concat(limitQuery);
+            boolean paginated = page > -1 && pageSize > -1;
+            if (paginated) {
+                query = query.concat(" LIMIT ?, ?");
             }
 
             for (String acc : accs) {
-                PreparedStatement pstm = connection.prepareStatement(query);
-                pstm.setString(1, acc);
-                pstm.setString(2, acc);
-                pstm.setLong(3, resourceId);
+                PreparedStatement pstm = pooled.prepareStatement(query);
+                int index = 1;
+                pstm.setString(index++, acc);
+                pstm.setLong(index++, resourceId);
+                if (!adjacency) {
+                    pstm.setString(index++, acc);
+                    pstm.setLong(index++, resourceId);
+                }
+                if (paginated) {
+                    pstm.setInt(index++, (pageSize * page) - pageSize);
+                    pstm.setInt(index, pageSize);
+                }
 
-                ResultSet rs = pstm.executeQuery();
-                while(rs.next()){
-                    Interaction interaction = buildInteraction(acc, rs, Method.BY_ACESSION);
+                try (ResultSet rs = pstm.executeQuery()) {
+                    while (rs.next()) {
+                        Interaction interaction = buildInteraction(acc, rs, Method.BY_ACESSION);
 
-                    interactions.add(interaction);
+                        interactions.add(interaction);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -133,49 +271,196 @@ public class StaticInteraction implements InteractionDAO {
         return interactions;
     }
 
+    /**
+     * Interactions of an accession in the same order as getByAcc, the ones after the given interaction. Instead of
+     * skipping the rows of the previous pages, the index is entered right after it.
+     *
+     * @param after last interaction of the previous page, null for the first page
+     * @param size  interactions to read at most
+     */
     @Override
-    public Map<String, Integer> countByAccessions(Collection<String> accs, Long resourceId) throws SQLException {
-        Map<String, Integer> interactionsCountMap = new HashMap<>();
+    public List<Interaction> getByAccAfter(String acc, Long resourceId, InteractionCursor after, int size) throws SQLException {
+        List<Interaction> interactions = new ArrayList<>();
+        readByAcc(acc, resourceId, after, size, interactions::add);
+        return interactions;
+    }
 
-        try {
-            String csvValues = "";
-            for (String acc : accs) {
-                csvValues = csvValues.concat("'").concat(acc).concat("'").concat(",");
+    /**
+     * Interactions of an accession in the same order as getByAcc, handed over one at a time while they are read.
+     * They are in the order of the index, so nothing is kept or sorted in between.
+     */
+    @Override
+    public void scanByAcc(String acc, Long resourceId, Consumer<Interaction> consumer) throws SQLException {
+        // A negative limit is no limit in SQLite
+        readByAcc(acc, resourceId, null, -1, consumer);
+    }
+
+    private void readByAcc(String acc, Long resourceId, InteractionCursor after, int size, Consumer<Interaction> consumer) throws SQLException {
+        try (PooledConnection pooled = database.getReadConnection()) {
+            boolean adjacency = database.hasRows(pooled, "INTERACTION_ADJACENCY");
+            String query;
+            if (after == null) {
+                query = adjacency ? QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY : QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION;
+            } else {
+                query = adjacency ? QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY_AFTER : QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_AFTER;
             }
-            csvValues = csvValues.substring(0, csvValues.length()-1);
-
-            String query = "SELECT   accession, SUM(count_) as total_ " +
-                            "FROM (" +
-                                "SELECT   COUNT(*) AS count_, INTERACTORA.acc AS accession " +
-                                "FROM     INTERACTION, INTERACTOR AS INTERACTORA " +
-                                "WHERE    INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
-                                "AND      INTERACTION.INTERACTOR_A IN (select id from interactor where ACC in (" + csvValues + ")) " +
-                                "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
-                                "GROUP BY INTERACTORA.acc " +
-                                "UNION ALL " +
-                                "SELECT   COUNT(*) AS count_, INTERACTORB.acc AS accession " +
-                                "FROM     INTERACTION, INTERACTOR AS INTERACTORB " +
-                                "WHERE    INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
-                                "AND      INTERACTION.INTERACTOR_B IN (select id from interactor where ACC in (" + csvValues + ")) " +
-                                "AND      INTERACTION.INTERACTOR_A <> INTERACTION.INTERACTOR_B " +
-                                "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
-                                "GROUP BY INTERACTORB.acc " +
-                            ")" +
-                            "GROUP BY accession";
-
-            PreparedStatement pstm = connection.prepareStatement(query);
-            pstm.setLong(1, resourceId);
-            pstm.setLong(2, resourceId);
 
-            ResultSet rs = pstm.executeQuery();
-            while(rs.next()){
-                interactionsCountMap.put(rs.getString("accession"), rs.getInt("total_"));
+            PreparedStatement pstm = pooled.prepareStatement(query.concat(" LIMIT ?"));
+            int index = 1;
+            // Once per side of the interaction, there is only one through the adjacency
+            for (int side = adjacency ? 1 : 2; side > 0; side--) {
+                pstm.setString(index++, acc);
+                pstm.setLong(index++, resourceId);
+                if (after != null) {
+                    pstm.setDouble(index++, after.getScore());
+                    pstm.setDouble(index++, after.getScore());
+                    pstm.setLong(index++, after.getId());
+                }
             }
+            pstm.setInt(index, size);
 
-        }catch (SQLException e){
-            logger.error("An error has occurred during interaction batch insert. Please check the following exception.");
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(buildInteraction(acc, rs, Method.BY_ACESSION));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the interactions of [{}]. Please check the following exception.", acc);
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Interactions citing a publication, highest score first. They are looked up in INTERACTION_PUBMED, databases
+     * that predate it search every PUBMEDIDS instead.
+     */
+    @Override
+    public List<Interaction> getByPubmedId(String pubmedId, Long resourceId) throws SQLException {
+        List<Interaction> interactions = new ArrayList<>();
+
+        try (PooledConnection pooled = database.getReadConnection()) {
+            String query = database.hasRows(pooled, "INTERACTION_PUBMED") ? QueryStatement.SELECT_INTERACTIONS_BY_PUBMED_ID : QueryStatement.SELECT_INTERACTIONS_BY_PUBMED_ID_SCAN;
+
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            pstm.setString(1, pubmedId);
+            pstm.setLong(2, resourceId);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    interactions.add(buildInteraction(pubmedId, rs, Method.AS_STORED));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the interactions of the publication [{}]. Please check the following exception.", pubmedId);
+            throw new SQLException(e);
+        }
+        return interactions;
+    }
+
+    /**
+     * Interactions of all the given accessions in one query per ACCESSIONS_PER_QUERY accessions. The accessions are
+     * resolved once and the interactions are reached through the interactor A and interactor B indexes, one side
+     * each, instead of merging both for every accession. CROSS JOIN keeps SQLite from reordering the joins, which
+     * could otherwise scan INTERACTION on the B side.
+     *
+     * @return interactions grouped per accession and sorted by score, highest first, and then by ID. Every accession
+     * is in the map.
+     */
+    @Override
+    public Map<String, List<Interaction>> getByAccessions(Collection<String> accs, Long resourceId) throws SQLException {
+        Map<String, List<Interaction>> interactions = new LinkedHashMap<>();
+        for (String acc : accs) {
+            interactions.put(acc, new ArrayList<>());
+        }
+
+        List<String> accessions = new ArrayList<>(interactions.keySet());
+        try (PooledConnection pooled = database.getReadConnection()) {
+            for (int i = 0; i < accessions.size(); i += ACCESSIONS_PER_QUERY) {
+                List<String> chunk = accessions.subList(i, Math.min(i + ACCESSIONS_PER_QUERY, accessions.size()));
+
+                int size = Toolbox.parameters(chunk.size(), ACCESSIONS_PER_QUERY);
+                String query = QueryStatement.SELECT_INTERACTIONS_BY_ACCESSIONS.replace("##ACCESSIONS##", String.join(",", Collections.nCopies(size, "?")));
+
+                PreparedStatement pstm = pooled.prepareStatement(query);
+                int index = 1;
+                // Padded with the last accession, an IN list does not repeat rows
+                for (int j = 0; j < size; j++) {
+                    pstm.setString(index++, chunk.get(Math.min(j, chunk.size() - 1)));
+                }
+                pstm.setLong(index++, resourceId);
+                pstm.setLong(index, resourceId);
+
+                try (ResultSet rs = pstm.executeQuery()) {
+                    while (rs.next()) {
+                        String acc = rs.getString("QUERY_ACC");
+                        interactions.get(acc).add(buildInteraction(acc, rs, Method.BY_ACESSION));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the interactions of [{}] accessions. Please check the following exception.", accessions.size());
             throw new SQLException(e);
+        }
+        return interactions;
+    }
+
+    /**
+     * Counts the interactions of the given accessions with bound parameters, ACCESSIONS_PER_QUERY at a time.
+     * They are read from INTERACTOR_DEGREE, one lookup per accession, unless the database predates it or it
+     * has not been filled, then they are counted from INTERACTION.
+     *
+     * @return count per accession, accessions without interactions are not in the map
+     */
+    @Override
+    public Map<String, Integer> countByAccessions(Collection<String> accs, Long resourceId) throws SQLException {
+        Map<String, Integer> interactionsCountMap = new HashMap<>();
+
+        List<String> accessions = new ArrayList<>(new LinkedHashSet<>(accs));
+        try (PooledConnection pooled = database.getReadConnection()) {
+            boolean degrees = database.hasRows(pooled, "INTERACTOR_DEGREE");
+            for (int i = 0; i < accessions.size(); i += ACCESSIONS_PER_QUERY) {
+                List<String> chunk = accessions.subList(i, Math.min(i + ACCESSIONS_PER_QUERY, accessions.size()));
+                int size = Toolbox.parameters(chunk.size(), ACCESSIONS_PER_QUERY);
+                String in = String.join(",", Collections.nCopies(size, "?"));
+
+                String query;
+                if (degrees) {
+                    query = "SELECT   INTERACTOR.ACC AS accession, INTERACTOR_DEGREE.DEGREE AS total_ " +
+                            "FROM     INTERACTOR CROSS JOIN INTERACTOR_DEGREE " +
+                            "WHERE    INTERACTOR.ACC IN (" + in + ") " +
+                            "AND      INTERACTOR_DEGREE.INTERACTOR_ID = INTERACTOR.ID " +
+                            "AND      INTERACTOR_DEGREE.INTERACTION_RESOURCE_ID = ?";
+                } else {
+                    query = "SELECT   accession, total_ " +
+                            "FROM     (SELECT INTERACTOR.ACC AS accession, " +
+                                             "(SELECT COUNT(*) FROM INTERACTION WHERE INTERACTOR_A = INTERACTOR.ID AND INTERACTION_RESOURCE_ID = ?) + " +
+                                             "(SELECT COUNT(*) FROM INTERACTION WHERE INTERACTOR_B = INTERACTOR.ID AND INTERACTOR_A <> INTERACTOR_B AND INTERACTION_RESOURCE_ID = ?) AS total_ " +
+                                      "FROM   INTERACTOR " +
+                                      "WHERE  INTERACTOR.ACC IN (" + in + ")) " +
+                            "WHERE    total_ > 0";
+                }
+
+                PreparedStatement pstm = pooled.prepareStatement(query);
+                int index = 1;
+                if (!degrees) {
+                    pstm.setLong(index++, resourceId);
+                    pstm.setLong(index++, resourceId);
+                }
+                for (int j = 0; j < size; j++) {
+                    pstm.setString(index++, chunk.get(Math.min(j, chunk.size() - 1)));
+                }
+                if (degrees) {
+                    pstm.setLong(index, resourceId);
+                }
 
+                try (ResultSet rs = pstm.executeQuery()) {
+                    while (rs.next()) {
+                        interactionsCountMap.put(rs.getString("accession"), rs.getInt("total_"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while counting the interactions of [{}] accessions. Please check the following exception.", accessions.size());
+            throw new SQLException(e);
         }
 
         return interactionsCountMap;
@@ -234,15 +519,17 @@ public class StaticInteraction implements InteractionDAO {
                     interaction.setInteractorB(interactorA);
                 }
                 break;
+            case AS_STORED:
+                interaction.setInteractorA(interactorA);
+                interaction.setInteractorB(interactorB);
+                break;
         }
 
         interaction.setAuthorScore(rs.getDouble("AUTHOR_SCORE"));
         interaction.setIntactScore(rs.getDouble("MISCORE"));
         interaction.setInteractionResourceId(rs.getLong("INTERACTION_RESOURCE_ID"));
-        String pubmedIds = rs.getString("PUBMEDIDS");
-        if (StringUtils.isNotEmpty(pubmedIds)) {
-            interaction.setPubmedIdentifiers(Arrays.asList(pubmedIds.split(",")));
-        }
+        // Split only if they are used
+        interaction.setPubmedIds(rs.getString("PUBMEDIDS"));
 
         return interaction;
     }
@@ -2,6 +2,7 @@ package org.reactome.server.interactors.dao.intact;
 
 import org.reactome.server.interactors.dao.InteractionDetailsDAO;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
 import org.reactome.server.interactors.model.InteractionDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,8 +11,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -20,9 +20,14 @@ public class StaticInteractionDetails implements InteractionDetailsDAO {
 
     private final Logger logger = LoggerFactory.getLogger(StaticInteractionDetails.class);
 
+    private InteractorsDatabase database;
     private Connection connection;
 
+    // Interaction IDs bound in a single query. Keeps it under the SQLite default limit of 999 parameters
+    private static final int IDS_PER_QUERY = 500;
+
     public StaticInteractionDetails(InteractorsDatabase database) {
+        this.database = database;
         this.connection = database.getConnection();
     }
 
@@ -37,7 +42,7 @@ public class StaticInteractionDetails implements InteractionDetailsDAO {
 
         try {
             String query = "INSERT INTO " + TABLE + " (" + ALL_COLUMNS + ") VALUES(?, ?)";
-            PreparedStatement pstm = connection.prepareStatement(query);
+            PreparedStatement pstm = database.prepareStatement(query);
             for (InteractionDetails interactionDetail : interactionDetails) {
                 pstm.setLong(1, interactionDetail.getInteractionId());
                 pstm.setString(2, interactionDetail.getInteractionAc());
@@ -54,16 +59,46 @@ public class StaticInteractionDetails implements InteractionDetailsDAO {
         return true;
     }
 
+    /**
+     * Batch insert of interaction details whose interaction IDs have been assigned by the caller.
+     * The whole list goes in a single executeBatch and transaction handling is up to the caller.
+     */
+    public void bulkCreate(List<InteractionDetails> interactionDetails) throws SQLException {
+        String query = "INSERT INTO INTERACTION_DETAILS (INTERACTION_ID, INTERACTION_AC) VALUES(?, ?)";
+        PreparedStatement pstm = database.prepareStatement(query);
+        for (InteractionDetails interactionDetail : interactionDetails) {
+            pstm.setLong(1, interactionDetail.getInteractionId());
+            pstm.setString(2, interactionDetail.getInteractionAc());
+            pstm.addBatch();
+        }
+        pstm.executeBatch();
+    }
+
+    /**
+     * Batch delete of the details of the given interactions. Transaction handling is up to the caller.
+     */
+    public void deleteByInteractions(List<Long> interactionIds) throws SQLException {
+        if (interactionIds.isEmpty()) return;
+
+        PreparedStatement pstm = database.prepareStatement("DELETE FROM INTERACTION_DETAILS WHERE INTERACTION_ID = ?");
+        for (Long interactionId : interactionIds) {
+            pstm.setLong(1, interactionId);
+            pstm.addBatch();
+        }
+        pstm.executeBatch();
+    }
+
     public List<InteractionDetails> getByInteraction(Long interactionId) throws SQLException {
         List<InteractionDetails> interactionsDetails = new ArrayList<>();
-        try {
+        try (PooledConnection pooled = database.getReadConnection()) {
             String query = "SELECT * FROM INTERACTION_DETAILS WHERE INTERACTION_ID = ?";
-            PreparedStatement pstm = connection.prepareStatement(query);
+            PreparedStatement pstm = pooled.prepareStatement(query);
             pstm.setLong(1, interactionId);
-            ResultSet rs = pstm.executeQuery();
-            while(rs.next()){
-                InteractionDetails interactionDetails = buildInteractionDetails(rs);
-                interactionsDetails.add(interactionDetails);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    InteractionDetails interactionDetails = buildInteractionDetails(rs);
+                    interactionsDetails.add(interactionDetails);
+                }
             }
         } catch (SQLException e){
             logger.error("An error has occurred during interaction batch insert. Please check the following exception.");
@@ -72,6 +107,41 @@ public class StaticInteractionDetails implements InteractionDetailsDAO {
         return interactionsDetails;
     }
 
+    /**
+     * Details of all the given interactions in one query per IDS_PER_QUERY interactions
+     *
+     * @return details per interaction ID, in the same order as {@link #getByInteraction(Long)}. Interactions
+     * without details are not in the map.
+     */
+    public Map<Long, List<InteractionDetails>> getByInteractions(Collection<Long> interactionIds) throws SQLException {
+        Map<Long, List<InteractionDetails>> interactionsDetails = new HashMap<>();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(interactionIds));
+        try (PooledConnection pooled = database.getReadConnection()) {
+            for (int i = 0; i < ids.size(); i += IDS_PER_QUERY) {
+                List<Long> chunk = ids.subList(i, Math.min(i + IDS_PER_QUERY, ids.size()));
+                String query = "SELECT   ID, INTERACTION_ID, INTERACTION_AC " +
+                               "FROM     INTERACTION_DETAILS " +
+                               "WHERE    INTERACTION_ID IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ") " +
+                               "ORDER BY INTERACTION_ID, ID";
+                PreparedStatement pstm = pooled.prepareStatement(query);
+                for (int j = 0; j < chunk.size(); j++) {
+                    pstm.setLong(j + 1, chunk.get(j));
+                }
+
+                try (ResultSet rs = pstm.executeQuery()) {
+                    while (rs.next()) {
+                        InteractionDetails interactionDetails = buildInteractionDetails(rs);
+                        interactionsDetails.computeIfAbsent(interactionDetails.getInteractionId(), id -> new ArrayList<>()).add(interactionDetails);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the details of [{}] interactions. Please check the following exception.", ids.size());
+            throw new SQLException(e);
+        }
+        return interactionsDetails;
+    }
+
     private InteractionDetails buildInteractionDetails(ResultSet rs) throws SQLException {
         InteractionDetails interactionDetails = new InteractionDetails();
         interactionDetails.setId(rs.getLong("ID"));
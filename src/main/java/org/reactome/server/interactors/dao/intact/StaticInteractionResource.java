@@ -2,11 +2,11 @@ package org.reactome.server.interactors.dao.intact;
 
 import org.reactome.server.interactors.dao.InteractionResourceDAO;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
 import org.reactome.server.interactors.model.InteractionResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -21,14 +21,14 @@ public class StaticInteractionResource implements InteractionResourceDAO {
 
     private final Logger logger = LoggerFactory.getLogger(StaticInteractor.class);
 
-    private Connection connection;
+    private InteractorsDatabase database;
 
     private final String TABLE = "INTERACTION_RESOURCE";
     private final String ALL_COLUMNS = "NAME, URL";
     private final String ALL_COLUMNS_SEL = "ID, ".concat(ALL_COLUMNS);
 
     public StaticInteractionResource(InteractorsDatabase database) {
-        this.connection = database.getConnection();
+        this.database = database;
     }
 
     public List<InteractionResource> getAll() throws SQLException {
@@ -39,11 +39,14 @@ public class StaticInteractionResource implements InteractionResourceDAO {
         String query = "SELECT " + ALL_COLUMNS_SEL +
                         " FROM " + TABLE;
 
-        PreparedStatement pstm = connection.prepareStatement(query);
-        ResultSet rs = pstm.executeQuery();
-        while (rs.next()) {
-            InteractionResource interactionResource = buildInteractionResource(rs);
-            ret.add(interactionResource);
+        try (PooledConnection pooled = database.getReadConnection()) {
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    InteractionResource interactionResource = buildInteractionResource(rs);
+                    ret.add(interactionResource);
+                }
+            }
         }
 
         return ret;
@@ -58,12 +61,15 @@ public class StaticInteractionResource implements InteractionResourceDAO {
                         " FROM " + TABLE +
                         " WHERE LOWER(name) = ?";
 
-        PreparedStatement pstm = connection.prepareStatement(query);
-        pstm.setString(1,name.toLowerCase());
+        try (PooledConnection pooled = database.getReadConnection()) {
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            pstm.setString(1, name.toLowerCase());
 
-        ResultSet rs = pstm.executeQuery();
-        if (rs.next()) {
-            interactionResource = buildInteractionResource(rs);
+            try (ResultSet rs = pstm.executeQuery()) {
+                if (rs.next()) {
+                    interactionResource = buildInteractionResource(rs);
+                }
+            }
         }
 
         return interactionResource;
@@ -2,13 +2,17 @@ package org.reactome.server.interactors.dao.intact;
 
 import org.reactome.server.interactors.dao.InteractorDAO;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
 import org.reactome.server.interactors.model.Interactor;
+import org.reactome.server.interactors.util.QueryStatement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -18,13 +22,19 @@ public class StaticInteractor implements InteractorDAO {
 
     private final Logger logger = LoggerFactory.getLogger(StaticInteractor.class);
 
+    private InteractorsDatabase database;
     private Connection connection;
 
     private String TABLE = "INTERACTOR";
     private String ALL_COLUMNS = "ACC, INTACT_ID, INTERACTOR_RESOURCE_ID, ALIAS, TAXID, SYNONYMS";
     private String ALL_COLUMNS_SEL = "ID, CREATE_DATE, ".concat(ALL_COLUMNS);
+    private String ALL_COLUMNS_INS = "ID, ".concat(ALL_COLUMNS);
+
+    // Rows per multi-row insert. 7 parameters per row stays under the SQLite default limit of 999 variables.
+    private static final int ROWS_PER_INSERT = 100;
 
     public StaticInteractor(InteractorsDatabase database) {
+        this.database = database;
         this.connection = database.getConnection();
     }
 
@@ -33,32 +43,84 @@ public class StaticInteractor implements InteractorDAO {
         String insert = "INSERT INTO " + TABLE + " (" + ALL_COLUMNS + ") "
                 + "VALUES(?, ?, ?, ?, ?, ?)";
 
-        PreparedStatement pstm = connection.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS);
-        pstm.setString(1, interactor.getAcc());
-        pstm.setString(2, interactor.getIntactId());
-        pstm.setLong(3, interactor.getInteractorResourceId());
-        pstm.setString(4, interactor.getAlias());
+        try (PreparedStatement pstm = connection.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS)) {
+            pstm.setString(1, interactor.getAcc());
+            pstm.setString(2, interactor.getIntactId());
+            pstm.setLong(3, interactor.getInteractorResourceId());
+            pstm.setString(4, interactor.getAlias());
 
-        Integer taxId = interactor.getTaxid();
-        if (taxId == null) {
-            logger.error("TaxId is null for " + interactor.toString());
-            taxId = -1;
-        }
-        pstm.setInt(5, taxId);
-        pstm.setString(6, interactor.getSynonyms());
+            Integer taxId = interactor.getTaxid();
+            if (taxId == null) {
+                logger.error("TaxId is null for " + interactor.toString());
+                taxId = -1;
+            }
+            pstm.setInt(5, taxId);
+            pstm.setString(6, interactor.getSynonyms());
 
-        if(pstm.executeUpdate() > 0) {
-            try (ResultSet generatedKeys = pstm.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    interactor.setId(generatedKeys.getLong(1));
-                } else {
-                    throw new SQLException("Creating Interactor failed, no ID obtained.");
+            if(pstm.executeUpdate() > 0) {
+                try (ResultSet generatedKeys = pstm.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        interactor.setId(generatedKeys.getLong(1));
+                    } else {
+                        throw new SQLException("Creating Interactor failed, no ID obtained.");
+                    }
                 }
             }
         }
+
         return interactor;
     }
 
+    /**
+     * Bulk insert of interactors whose IDs have already been assigned by the caller.
+     * Rows are written with multi-row INSERT statements and there is no need for the generated keys.
+     * Transaction handling is up to the caller.
+     */
+    public void bulkCreate(List<Interactor> interactors) throws SQLException {
+        if (interactors.isEmpty()) return;
+
+        PreparedStatement pstm = null;
+        int rows = 0;
+        for (int i = 0; i < interactors.size(); i++) {
+            if (rows == 0) {
+                int remaining = Math.min(ROWS_PER_INSERT, interactors.size() - i);
+                if (pstm == null || remaining < ROWS_PER_INSERT) {
+                    pstm = database.prepareStatement(multiRowInsert(remaining));
+                }
+            }
+
+            Interactor interactor = interactors.get(i);
+            int index = rows * 7;
+            pstm.setLong(index + 1, interactor.getId());
+            pstm.setString(index + 2, interactor.getAcc());
+            pstm.setString(index + 3, interactor.getIntactId());
+            pstm.setLong(index + 4, interactor.getInteractorResourceId());
+            pstm.setString(index + 5, interactor.getAlias());
+
+            Integer taxId = interactor.getTaxid();
+            if (taxId == null) {
+                logger.error("TaxId is null for " + interactor.toString());
+                taxId = -1;
+            }
+            pstm.setInt(index + 6, taxId);
+            pstm.setString(index + 7, interactor.getSynonyms());
+
+            if (++rows == ROWS_PER_INSERT || i == interactors.size() - 1) {
+                pstm.executeUpdate();
+                rows = 0;
+            }
+        }
+    }
+
+    private String multiRowInsert(int rows) {
+        StringBuilder insert = new StringBuilder("INSERT INTO " + TABLE + " (" + ALL_COLUMNS_INS + ") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) insert.append(", ");
+            insert.append("(?, ?, ?, ?, ?, ?, ?)");
+        }
+        return insert.toString();
+    }
+
     public Interactor getByAccession(String acc) throws SQLException {
         Interactor ret = null;
 
@@ -66,12 +128,15 @@ public class StaticInteractor implements InteractorDAO {
                        " FROM " + TABLE +
                        " WHERE ACC = ?";
 
-        PreparedStatement pstm = connection.prepareStatement(query);
-        pstm.setString(1, acc);
+        try (PooledConnection pooled = database.getReadConnection()) {
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            pstm.setString(1, acc);
 
-        ResultSet rs = pstm.executeQuery();
-        if (rs.next()) {
-            ret = buildInteractor(rs);
+            try (ResultSet rs = pstm.executeQuery()) {
+                if (rs.next()) {
+                    ret = buildInteractor(rs);
+                }
+            }
         }
         return ret;
     }
@@ -88,32 +153,54 @@ public class StaticInteractor implements InteractorDAO {
                         " FROM " + TABLE +
                         " WHERE ACC IN (?, ?)";
 
-        PreparedStatement pstm = connection.prepareStatement(query);
+        PreparedStatement pstm = database.prepareStatement(query);
         pstm.setString(1, interactorA.getAcc());
         pstm.setString(2, interactorB.getAcc());
 
-        ResultSet rs = pstm.executeQuery();
-        while (rs.next()) {
-            // Can't predict the query result order in the IN-clause, it means, can't figure out
-            // which is A or B, so the if clause is checking that and setting the object by reference.
-            // If interactor ID remains null, then it does not exist in the database.
-            Interactor tempInteractor = buildInteractor(rs);
-
-            if(interactorA.getAcc().equals(interactorB.getAcc())){
-                interactorA.setId(tempInteractor.getId());
-                interactorB.setId(tempInteractor.getId());
-            } else {
-                // is A
-                if (tempInteractor.getAcc().equals(interactorA.getAcc())) {
+        try (ResultSet rs = pstm.executeQuery()) {
+            while (rs.next()) {
+                // Can't predict the query result order in the IN-clause, it means, can't figure out
+                // which is A or B, so the if clause is checking that and setting the object by reference.
+                // If interactor ID remains null, then it does not exist in the database.
+                Interactor tempInteractor = buildInteractor(rs);
+
+                if(interactorA.getAcc().equals(interactorB.getAcc())){
                     interactorA.setId(tempInteractor.getId());
+                    interactorB.setId(tempInteractor.getId());
+                } else {
+                    // is A
+                    if (tempInteractor.getAcc().equals(interactorA.getAcc())) {
+                        interactorA.setId(tempInteractor.getId());
+                    }
+
+                    // is B
+                    if (tempInteractor.getAcc().equals(interactorB.getAcc())) {
+                        interactorB.setId(tempInteractor.getId());
+                    }
                 }
+            }
+        }
+    }
 
-                // is B
-                if (tempInteractor.getAcc().equals(interactorB.getAcc())) {
-                    interactorB.setId(tempInteractor.getId());
+    /**
+     * Interactors having the given synonym. They are looked up in INTERACTOR_SYNONYM, databases that predate it
+     * search every SYNONYMS instead.
+     */
+    public List<Interactor> getBySynonym(String synonym) throws SQLException {
+        List<Interactor> ret = new ArrayList<>();
+
+        try (PooledConnection pooled = database.getReadConnection()) {
+            String query = database.hasRows(pooled, "INTERACTOR_SYNONYM") ? QueryStatement.SELECT_INTERACTORS_BY_SYNONYM : QueryStatement.SELECT_INTERACTORS_BY_SYNONYM_SCAN;
+
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            pstm.setString(1, synonym);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    ret.add(buildInteractor(rs));
                 }
             }
         }
+        return ret;
     }
 
     public List<Interactor> getAll() throws SQLException {
@@ -121,11 +208,14 @@ public class StaticInteractor implements InteractorDAO {
         String query = "SELECT " + ALL_COLUMNS_SEL +
                        " FROM " + TABLE;
 
-        PreparedStatement pstm = connection.prepareStatement(query);
-        ResultSet rs = pstm.executeQuery();
-        while (rs.next()) {
-            Interactor interactor = buildInteractor(rs);
-            ret.add(interactor);
+        try (PooledConnection pooled = database.getReadConnection()) {
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    Interactor interactor = buildInteractor(rs);
+                    ret.add(interactor);
+                }
+            }
         }
         return ret;
     }
@@ -145,11 +235,44 @@ public class StaticInteractor implements InteractorDAO {
     public List<String> getAllAccessions() throws SQLException {
         List<String> ret = new ArrayList<>();
         String query = "SELECT ACC FROM " + TABLE;
-        PreparedStatement pstm = connection.prepareStatement(query);
-        ResultSet rs = pstm.executeQuery();
-        while (rs.next()) {
-            ret.add(rs.getString("ACC"));
+        try (PooledConnection pooled = database.getReadConnection()) {
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    ret.add(rs.getString("ACC"));
+                }
+            }
         }
         return ret;
     }
+
+    /**
+     * Retrieves all the accessions and their internal IDs.
+     * Used by the bulk load to resolve the interactors in memory.
+     */
+    public Map<String, Long> getAccessionIds() throws SQLException {
+        Map<String, Long> ret = new HashMap<>();
+        String query = "SELECT ID, ACC FROM " + TABLE;
+        PreparedStatement pstm = database.prepareStatement(query);
+        try (ResultSet rs = pstm.executeQuery()) {
+            while (rs.next()) {
+                ret.put(rs.getString("ACC"), rs.getLong("ID"));
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Deletes the interactors that are not part of any interaction. Transaction handling is up to the caller.
+     *
+     * @return number of interactors deleted
+     */
+    public int deleteOrphans() throws SQLException {
+        String query = "DELETE FROM " + TABLE + " " +
+                       "WHERE NOT EXISTS (SELECT 1 FROM INTERACTION WHERE INTERACTION.INTERACTOR_A = " + TABLE + ".ID) " +
+                       "AND   NOT EXISTS (SELECT 1 FROM INTERACTION WHERE INTERACTION.INTERACTOR_B = " + TABLE + ".ID)";
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(query);
+        }
+    }
 }
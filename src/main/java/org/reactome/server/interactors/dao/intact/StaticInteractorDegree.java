@@ -0,0 +1,162 @@
+package org.reactome.server.interactors.dao.intact;
+
+import org.reactome.server.interactors.dao.InteractorDegreeDAO;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
+import org.reactome.server.interactors.model.InteractorDegree;
+import org.reactome.server.interactors.util.Toolbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Reads INTERACTOR_DEGREE, which is filled once the database is loaded or updated. Databases that predate it, or
+ * where it has not been filled, get the same degrees grouping INTERACTION, which is much slower.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class StaticInteractorDegree implements InteractorDegreeDAO {
+
+    private final Logger logger = LoggerFactory.getLogger(StaticInteractorDegree.class);
+
+    private InteractorsDatabase database;
+
+    // Accessions bound in a single query. Keeps it under the SQLite default limit of 999 parameters
+    private static final int ACCESSIONS_PER_QUERY = 500;
+
+    private static final String ALL_COLUMNS = "INTERACTOR.ID, INTERACTOR.ACC, INTERACTOR_DEGREE.INTERACTION_RESOURCE_ID, " +
+                                              "INTERACTOR_DEGREE.DEGREE, INTERACTOR_DEGREE.MAX_SCORE, INTERACTOR_DEGREE.MEAN_SCORE ";
+
+    public StaticInteractorDegree(InteractorsDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * One primary key lookup per accession, ACCESSIONS_PER_QUERY accessions at a time. Without INTERACTOR_DEGREE
+     * the interactions of the accessions are grouped instead.
+     */
+    public Map<String, InteractorDegree> getByAccessions(Collection<String> accs, Long resourceId) throws SQLException {
+        Map<String, InteractorDegree> ret = new HashMap<>();
+
+        List<String> accessions = new ArrayList<>(new LinkedHashSet<>(accs));
+        try (PooledConnection pooled = database.getReadConnection()) {
+            boolean degrees = database.hasRows(pooled, "INTERACTOR_DEGREE");
+            for (int i = 0; i < accessions.size(); i += ACCESSIONS_PER_QUERY) {
+                List<String> chunk = accessions.subList(i, Math.min(i + ACCESSIONS_PER_QUERY, accessions.size()));
+                int size = Toolbox.parameters(chunk.size(), ACCESSIONS_PER_QUERY);
+                String in = String.join(",", Collections.nCopies(size, "?"));
+
+                String query;
+                if (degrees) {
+                    query = "SELECT   " + ALL_COLUMNS +
+                            "FROM     INTERACTOR CROSS JOIN INTERACTOR_DEGREE " +
+                            "WHERE    INTERACTOR.ACC IN (" + in + ") " +
+                            "AND      INTERACTOR_DEGREE.INTERACTOR_ID = INTERACTOR.ID " +
+                            "AND      INTERACTOR_DEGREE.INTERACTION_RESOURCE_ID = ?";
+                } else {
+                    // As POPULATE_INTERACTOR_DEGREE, only for the interactions of the accessions
+                    query = "WITH     QUERY AS (SELECT ID, ACC FROM INTERACTOR WHERE ACC IN (" + in + ")) " +
+                            "SELECT   ID, ACC, INTERACTION_RESOURCE_ID, COUNT(*) AS DEGREE, MAX(MISCORE) AS MAX_SCORE, AVG(MISCORE) AS MEAN_SCORE " +
+                            "FROM     (SELECT QUERY.ID, QUERY.ACC, INTERACTION.INTERACTION_RESOURCE_ID, INTERACTION.MISCORE " +
+                                      "FROM   QUERY CROSS JOIN INTERACTION " +
+                                      "WHERE  INTERACTION.INTERACTOR_A = QUERY.ID AND INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+                                      "UNION ALL " +
+                                      "SELECT QUERY.ID, QUERY.ACC, INTERACTION.INTERACTION_RESOURCE_ID, INTERACTION.MISCORE " +
+                                      "FROM   QUERY CROSS JOIN INTERACTION " +
+                                      "WHERE  INTERACTION.INTERACTOR_B = QUERY.ID AND INTERACTION.INTERACTOR_A <> INTERACTION.INTERACTOR_B AND INTERACTION.INTERACTION_RESOURCE_ID = ?) " +
+                            "GROUP BY ID, ACC, INTERACTION_RESOURCE_ID";
+                }
+
+                PreparedStatement pstm = pooled.prepareStatement(query);
+                int index = 1;
+                for (int j = 0; j < size; j++) {
+                    pstm.setString(index++, chunk.get(Math.min(j, chunk.size() - 1)));
+                }
+                pstm.setLong(index++, resourceId);
+                if (!degrees) {
+                    pstm.setLong(index, resourceId);
+                }
+
+                try (ResultSet rs = pstm.executeQuery()) {
+                    while (rs.next()) {
+                        InteractorDegree degree = buildInteractorDegree(rs);
+                        ret.put(degree.getAcc(), degree);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the degree of [{}] accessions. Please check the following exception.", accessions.size());
+            throw new SQLException(e);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Walks the resource and degree index from the top, so it only reads the rows it returns. Without
+     * INTERACTOR_DEGREE every interaction of the resource is grouped first.
+     */
+    public List<InteractorDegree> getMostConnected(Long resourceId, int limit) throws SQLException {
+        List<InteractorDegree> ret = new ArrayList<>();
+        try (PooledConnection pooled = database.getReadConnection()) {
+            boolean degrees = database.hasRows(pooled, "INTERACTOR_DEGREE");
+
+            String query;
+            if (degrees) {
+                query = "SELECT   " + ALL_COLUMNS +
+                        "FROM     INTERACTOR_DEGREE CROSS JOIN INTERACTOR " +
+                        "WHERE    INTERACTOR_DEGREE.INTERACTION_RESOURCE_ID = ? " +
+                        "AND      INTERACTOR.ID = INTERACTOR_DEGREE.INTERACTOR_ID " +
+                        "ORDER BY INTERACTOR_DEGREE.DEGREE DESC " +
+                        "LIMIT    ?";
+            } else {
+                // As POPULATE_INTERACTOR_DEGREE, only for the given resource
+                query = "SELECT   INTERACTOR.ID, INTERACTOR.ACC, DEGREES.INTERACTION_RESOURCE_ID, DEGREES.DEGREE, DEGREES.MAX_SCORE, DEGREES.MEAN_SCORE " +
+                        "FROM     (SELECT INTERACTOR_ID, INTERACTION_RESOURCE_ID, COUNT(*) AS DEGREE, MAX(MISCORE) AS MAX_SCORE, AVG(MISCORE) AS MEAN_SCORE " +
+                                  "FROM   (SELECT INTERACTOR_A AS INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE FROM INTERACTION WHERE INTERACTION_RESOURCE_ID = ? " +
+                                          "UNION ALL " +
+                                          "SELECT INTERACTOR_B AS INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE FROM INTERACTION WHERE INTERACTOR_A <> INTERACTOR_B AND INTERACTION_RESOURCE_ID = ?) " +
+                                  "GROUP BY INTERACTOR_ID, INTERACTION_RESOURCE_ID) DEGREES CROSS JOIN INTERACTOR " +
+                        "WHERE    INTERACTOR.ID = DEGREES.INTERACTOR_ID " +
+                        "ORDER BY DEGREES.DEGREE DESC " +
+                        "LIMIT    ?";
+            }
+
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            int index = 1;
+            pstm.setLong(index++, resourceId);
+            if (!degrees) {
+                pstm.setLong(index++, resourceId);
+            }
+            pstm.setInt(index, limit);
+
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    ret.add(buildInteractorDegree(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("An error has occurred while retrieving the most connected interactors. Please check the following exception.");
+            throw new SQLException(e);
+        }
+
+        return ret;
+    }
+
+    private InteractorDegree buildInteractorDegree(ResultSet rs) throws SQLException {
+        InteractorDegree ret = new InteractorDegree();
+        ret.setInteractorId(rs.getLong("ID"));
+        ret.setAcc(rs.getString("ACC"));
+        ret.setInteractionResourceId(rs.getLong("INTERACTION_RESOURCE_ID"));
+        ret.setDegree(rs.getInt("DEGREE"));
+        ret.setMaxScore(rs.getDouble("MAX_SCORE"));
+        ret.setMeanScore(rs.getDouble("MEAN_SCORE"));
+
+        return ret;
+    }
+}
@@ -2,11 +2,11 @@ package org.reactome.server.interactors.dao.intact;
 
 import org.reactome.server.interactors.dao.InteractorResourceDAO;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.PooledConnection;
 import org.reactome.server.interactors.model.InteractorResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -21,13 +21,13 @@ public class StaticInteractorResource implements InteractorResourceDAO {
 
     private final Logger logger = LoggerFactory.getLogger(StaticInteractorResource.class);
 
-    private Connection connection;
+    private InteractorsDatabase database;
 
     private String ALL_COLUMNS = "NAME, URL";
     private String ALL_COLUMNS_SEL = "ID, ".concat(ALL_COLUMNS);
 
     public StaticInteractorResource(InteractorsDatabase database) {
-        this.connection = database.getConnection();
+        this.database = database;
     }
 
     public List<InteractorResource> getAll() throws SQLException {
@@ -37,11 +37,14 @@ public class StaticInteractorResource implements InteractorResourceDAO {
         String query = "SELECT " + ALL_COLUMNS_SEL +
                         " FROM " + TABLE;
 
-        PreparedStatement pstm = connection.prepareStatement(query);
-        ResultSet rs = pstm.executeQuery();
-        while (rs.next()) {
-            InteractorResource interactorResource = buildInteractorResource(rs);
-            ret.add(interactorResource);
+        try (PooledConnection pooled = database.getReadConnection()) {
+            PreparedStatement pstm = pooled.prepareStatement(query);
+            try (ResultSet rs = pstm.executeQuery()) {
+                while (rs.next()) {
+                    InteractorResource interactorResource = buildInteractorResource(rs);
+                    ret.add(interactorResource);
+                }
+            }
         }
         return ret;
     }
@@ -0,0 +1,112 @@
+package org.reactome.server.interactors.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Read only connections to a database file. They are opened when needed, up to the maximum, and once all of
+ * them are in use the callers wait for one to be given back. SQLite lets any number of connections read the
+ * same file at the same time, so each caller runs its queries in parallel with the others.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    // How long a reader waits for a writer holding the file lock, in milliseconds
+    private static final int BUSY_TIMEOUT = 10000;
+
+    private String url;
+    private Properties properties;
+    private int maxSize;
+
+    private BlockingQueue<PooledConnection> idle = new LinkedBlockingQueue<>();
+    private List<PooledConnection> opened = new ArrayList<>();
+    private boolean closed = false;
+
+    public ConnectionPool(String url, Properties properties, int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("The pool needs at least one connection");
+        this.url = url;
+        this.properties = properties;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return an idle connection, a new one if all are in use and there is room for it, otherwise waits for one.
+     * It has to be closed to give it back.
+     */
+    public PooledConnection borrow() throws SQLException {
+        PooledConnection pooled = idle.poll();
+        if (pooled == null) pooled = openOrWait();
+        pooled.borrow();
+        return pooled;
+    }
+
+    private PooledConnection openOrWait() throws SQLException {
+        PooledConnection pooled;
+        synchronized (this) {
+            if (closed) throw new SQLException("The connection pool of " + url + " is closed");
+            if (opened.size() < maxSize) {
+                Connection connection = DriverManager.getConnection(url, properties);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT);
+                }
+                pooled = new PooledConnection(connection, new StatementCache(connection), this);
+                opened.add(pooled);
+                logger.debug("[{}] read connections opened to {}", opened.size(), url);
+                return pooled;
+            }
+        }
+
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + url, e);
+        }
+    }
+
+    void release(PooledConnection pooled) {
+        synchronized (this) {
+            if (!closed) {
+                idle.offer(pooled);
+                return;
+            }
+        }
+        discard(pooled);
+    }
+
+    public synchronized int size() {
+        return opened.size();
+    }
+
+    /**
+     * Closes the idle connections. The ones in use are closed when they are given back.
+     */
+    public synchronized void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private static void discard(PooledConnection pooled) {
+        try {
+            pooled.discard();
+        } catch (SQLException e) {
+            logger.warn("Read connection could not be closed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.reactome.server.interactors.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Interactors and interactions of a database loaded into columns, numbered from 0 in the order of their IDs, with
+ * the interactions of each interactor (compressed sparse rows) sorted as the database sorts them: resource, score
+ * (highest first) and ID. The interactions of interactor i are EDGES[OFFSETS[i]] to EDGES[OFFSETS[i + 1] - 1].
+ * <p>
+ * Loaded by {@link org.reactome.server.interactors.dao.intact.InMemoryInteraction}, which answers from it, and by
+ * {@link org.reactome.server.interactors.util.SnapshotGenerator}, which writes it into a snapshot. Once loaded it is
+ * not modified, so it can be read by any number of threads.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class InteractionGraph {
+
+    // Interactors
+    private long[] interactorIds;
+    private String[] accs;
+    private String[] aliases;
+    private long[] interactorResourceIds;
+    private String[] intactIds;
+    private int[] taxIds;
+    private String[] synonyms;
+
+    // Interactions
+    private long[] interactionIds;
+    private int[] interactorsA;
+    private int[] interactorsB;
+    private double[] authorScores;
+    private double[] scores;
+    private long[] resourceIds;
+    private String[] pubmedIds;
+
+    private int[] offsets;
+    private int[] edges;
+
+    private InteractionGraph() {
+    }
+
+    public static InteractionGraph load(PooledConnection pooled) throws SQLException {
+        InteractionGraph graph = new InteractionGraph();
+        graph.loadInteractors(pooled);
+        graph.loadInteractions(pooled);
+        graph.buildEdges();
+        return graph;
+    }
+
+    private void loadInteractors(PooledConnection pooled) throws SQLException {
+        int size = count(pooled, "INTERACTOR");
+        interactorIds = new long[size];
+        accs = new String[size];
+        aliases = new String[size];
+        interactorResourceIds = new long[size];
+        intactIds = new String[size];
+        taxIds = new int[size];
+        synonyms = new String[size];
+
+        PreparedStatement pstm = pooled.prepareStatement("SELECT ID, ACC, ALIAS, INTERACTOR_RESOURCE_ID, INTACT_ID, TAXID, SYNONYMS FROM INTERACTOR ORDER BY ID");
+        int loaded = 0;
+        try (ResultSet rs = pstm.executeQuery()) {
+            while (loaded < size && rs.next()) {
+                interactorIds[loaded] = rs.getLong(1);
+                accs[loaded] = rs.getString(2);
+                aliases[loaded] = rs.getString(3);
+                interactorResourceIds[loaded] = rs.getLong(4);
+                intactIds[loaded] = rs.getString(5);
+                taxIds[loaded] = rs.getInt(6);
+                synonyms[loaded] = rs.getString(7);
+                loaded++;
+            }
+        }
+        if (loaded < size) {
+            interactorIds = Arrays.copyOf(interactorIds, loaded);
+            accs = Arrays.copyOf(accs, loaded);
+            aliases = Arrays.copyOf(aliases, loaded);
+            interactorResourceIds = Arrays.copyOf(interactorResourceIds, loaded);
+            intactIds = Arrays.copyOf(intactIds, loaded);
+            taxIds = Arrays.copyOf(taxIds, loaded);
+            synonyms = Arrays.copyOf(synonyms, loaded);
+        }
+    }
+
+    private void loadInteractions(PooledConnection pooled) throws SQLException {
+        int size = count(pooled, "INTERACTION");
+        interactionIds = new long[size];
+        interactorsA = new int[size];
+        interactorsB = new int[size];
+        authorScores = new double[size];
+        scores = new double[size];
+        resourceIds = new long[size];
+        pubmedIds = new String[size];
+
+        PreparedStatement pstm = pooled.prepareStatement("SELECT ID, INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS FROM INTERACTION ORDER BY ID");
+        int loaded = 0;
+        try (ResultSet rs = pstm.executeQuery()) {
+            while (loaded < size && rs.next()) {
+                int a = Arrays.binarySearch(interactorIds, rs.getLong(2));
+                int b = Arrays.binarySearch(interactorIds, rs.getLong(3));
+                if (a < 0 || b < 0) continue; // without its interactors it can't be returned anyway
+
+                interactionIds[loaded] = rs.getLong(1);
+                interactorsA[loaded] = a;
+                interactorsB[loaded] = b;
+                authorScores[loaded] = rs.getDouble(4);
+                scores[loaded] = rs.getDouble(5);
+                resourceIds[loaded] = rs.getLong(6);
+                pubmedIds[loaded] = rs.getString(7);
+                loaded++;
+            }
+        }
+        if (loaded < size) {
+            interactionIds = Arrays.copyOf(interactionIds, loaded);
+            interactorsA = Arrays.copyOf(interactorsA, loaded);
+            interactorsB = Arrays.copyOf(interactorsB, loaded);
+            authorScores = Arrays.copyOf(authorScores, loaded);
+            scores = Arrays.copyOf(scores, loaded);
+            resourceIds = Arrays.copyOf(resourceIds, loaded);
+            pubmedIds = Arrays.copyOf(pubmedIds, loaded);
+        }
+    }
+
+    /**
+     * The interactions are placed in the order of the slices, so each one is sorted
+     */
+    private void buildEdges() {
+        Integer[] order = new Integer[interactionIds.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Long.compare(resourceIds[a], resourceIds[b]);
+            if (cmp == 0) cmp = Double.compare(scores[b], scores[a]);
+            if (cmp == 0) cmp = Long.compare(interactionIds[a], interactionIds[b]);
+            return cmp;
+        });
+
+        offsets = new int[interactorIds.length + 1];
+        for (int e = 0; e < interactionIds.length; e++) {
+            offsets[interactorsA[e] + 1]++;
+            if (interactorsA[e] != interactorsB[e]) offsets[interactorsB[e] + 1]++;
+        }
+        for (int i = 0; i < interactorIds.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        edges = new int[offsets[interactorIds.length]];
+        int[] next = Arrays.copyOf(offsets, interactorIds.length);
+        for (int e : order) {
+            edges[next[interactorsA[e]]++] = e;
+            if (interactorsA[e] != interactorsB[e]) edges[next[interactorsB[e]]++] = e;
+        }
+    }
+
+    private static int count(PooledConnection pooled, String table) throws SQLException {
+        PreparedStatement pstm = pooled.prepareStatement("SELECT COUNT(*) FROM " + table);
+        try (ResultSet rs = pstm.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public int getInteractors() {
+        return interactorIds.length;
+    }
+
+    public int getInteractions() {
+        return interactionIds.length;
+    }
+
+    public int getEdges() {
+        return edges.length;
+    }
+
+    /**
+     * @return position of the interaction with the given ID, -1 if there is none
+     */
+    public int findInteraction(long id) {
+        int interaction = Arrays.binarySearch(interactionIds, id);
+        return interaction < 0 ? -1 : interaction;
+    }
+
+    public long getInteractorId(int interactor) {
+        return interactorIds[interactor];
+    }
+
+    public String getAcc(int interactor) {
+        return accs[interactor];
+    }
+
+    public String getAlias(int interactor) {
+        return aliases[interactor];
+    }
+
+    public long getInteractorResourceId(int interactor) {
+        return interactorResourceIds[interactor];
+    }
+
+    public String getIntactId(int interactor) {
+        return intactIds[interactor];
+    }
+
+    public int getTaxId(int interactor) {
+        return taxIds[interactor];
+    }
+
+    public String getSynonyms(int interactor) {
+        return synonyms[interactor];
+    }
+
+    /**
+     * @return first position in EDGES of the interactions of the interactor
+     */
+    public int getEdgesFrom(int interactor) {
+        return offsets[interactor];
+    }
+
+    /**
+     * @return position in EDGES after the last interaction of the interactor
+     */
+    public int getEdgesTo(int interactor) {
+        return offsets[interactor + 1];
+    }
+
+    /**
+     * @return the interaction at the given position of EDGES
+     */
+    public int getEdge(int position) {
+        return edges[position];
+    }
+
+    public long getInteractionId(int interaction) {
+        return interactionIds[interaction];
+    }
+
+    public int getInteractorA(int interaction) {
+        return interactorsA[interaction];
+    }
+
+    public int getInteractorB(int interaction) {
+        return interactorsB[interaction];
+    }
+
+    public double getAuthorScore(int interaction) {
+        return authorScores[interaction];
+    }
+
+    public double getScore(int interaction) {
+        return scores[interaction];
+    }
+
+    public long getInteractionResourceId(int interaction) {
+        return resourceIds[interaction];
+    }
+
+    public String getPubmedIds(int interaction) {
+        return pubmedIds[interaction];
+    }
+}
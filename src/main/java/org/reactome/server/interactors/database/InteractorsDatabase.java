@@ -4,15 +4,69 @@ import org.sqlite.SQLiteConfig;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * The connection to an interactors database, used to build and update it, plus a pool of read only connections
+ * to the same file for the queries (see {@link #getReadConnection()}). Queries can be run from any number of
+ * threads, whereas building or updating the database is up to a single one.
+ *
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
  */
 public class InteractorsDatabase {
+
+    /**
+     * DEFAULT    - Foreign keys are enforced, everything else is the SQLite default.
+     * BULK_BUILD - Used while the database is being built: WAL journal, fsync only when the WAL is checkpointed,
+     *              a large page cache, temporary structures in memory and foreign keys checked when the transaction
+     *              commits. A crash can lose the last transactions but never leaves the database inconsistent,
+     *              so an interrupted load can be resumed.
+     * READ_ONLY  - For the services of a multi-threaded server. Every connection is opened with SQLITE_OPEN_READONLY,
+     *              hence nothing can be written, and the queries run in parallel on the pooled connections. A database
+     *              still in WAL mode can be read as well, its -wal and -shm files have to be next to it.
+     */
+    public enum Profile {
+        DEFAULT,
+        BULK_BUILD,
+        READ_ONLY
+    }
+
+    // Page cache used by the bulk build, in KiB (the negative value is how SQLite takes it).
+    private static final int BULK_BUILD_CACHE_SIZE = -512 * 1024;
+
+    // Read connections opened at most by default, one per core
+    public static final int DEFAULT_READ_CONNECTIONS = Runtime.getRuntime().availableProcessors();
+
     private Connection connection;
+    private StatementCache statements;
+    // null when the queries share the connection above
+    private ConnectionPool readPool;
+    // Taken by whoever borrows the main connection when there is no pool
+    private ReentrantLock sharedLock = new ReentrantLock();
+    private Profile profile;
+    private String fileName;
+    // Whether each derived table has rows, see hasRows
+    private volatile FilledTables filledTables;
 
     public InteractorsDatabase(String fileName) throws SQLException {
+        this(fileName, Profile.DEFAULT);
+    }
+
+    public InteractorsDatabase(String fileName, Profile profile) throws SQLException {
+        this(fileName, profile, DEFAULT_READ_CONNECTIONS);
+    }
+
+    /**
+     * @param readConnections maximum number of read only connections used by the queries. The bulk build and
+     *                        in-memory databases don't have them, every query goes through the main connection.
+     */
+    public InteractorsDatabase(String fileName, Profile profile, int readConnections) throws SQLException {
         try {
             Class.forName("org.sqlite.JDBC");
         } catch (ClassNotFoundException e) {
@@ -21,10 +75,134 @@ public class InteractorsDatabase {
         // Enabling FK. It is disabled by default in SQLite.
         SQLiteConfig config = new SQLiteConfig();
         config.enforceForeignKeys(true);
+        if (profile == Profile.READ_ONLY) {
+            config.setReadOnly(true);
+        }
+        if (profile == Profile.BULK_BUILD) {
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+            config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+            config.setCacheSize(BULK_BUILD_CACHE_SIZE);
+            config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        }
+        this.profile = profile;
+        this.fileName = fileName;
         this.connection = DriverManager.getConnection("jdbc:sqlite:".concat(fileName), config.toProperties());
+        this.statements = new StatementCache(connection);
+
+        // A new connection to an in-memory database would be a different database
+        boolean memory = fileName.isEmpty() || fileName.startsWith(":memory:") || fileName.contains("mode=memory");
+        if (profile != Profile.BULK_BUILD && !memory && readConnections > 0) {
+            SQLiteConfig readConfig = new SQLiteConfig();
+            readConfig.setReadOnly(true);
+            this.readPool = new ConnectionPool("jdbc:sqlite:".concat(fileName), readConfig.toProperties(), readConnections);
+        }
     }
 
     public Connection getConnection(){
         return connection;
     }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Statements of the main connection are kept open and reused. Only to be used by the thread building or
+     * updating the database, concurrent queries go through {@link #getReadConnection()}.
+     *
+     * @return the statement of the given query, with no parameters set
+     */
+    public PreparedStatement prepareStatement(String query) throws SQLException {
+        return statements.prepare(query);
+    }
+
+    /**
+     * Closes the statements kept by {@link #prepareStatement(String)}, which are prepared again when needed.
+     * An executed statement stays active until it is used again, and SQLite does not VACUUM while any is.
+     */
+    public void closeStatements() {
+        statements.close();
+    }
+
+    /**
+     * Borrows a read only connection, to be closed once its statements and result sets are done.
+     * Committed data only is visible, whatever the main connection has in its current transaction is not.
+     * Without a pool it is the main connection, which is borrowed by one thread at a time.
+     */
+    public PooledConnection getReadConnection() throws SQLException {
+        if (readPool != null) return readPool.borrow();
+
+        sharedLock.lock();
+        PooledConnection pooled = new PooledConnection(connection, statements, sharedLock);
+        pooled.borrow();
+        return pooled;
+    }
+
+    /**
+     * The derived tables (INTERACTOR_DEGREE, INTERACTION_PUBMED, ...) are filled once the database is loaded or
+     * updated, older databases don't have them. The answer is kept, whichever it is, as long as the schema of the
+     * database doesn't change. Building the tables again drops and creates them, which changes it, so they are
+     * checked again after an update, even when it has been made by another connection or process.
+     */
+    public boolean hasRows(PooledConnection pooled, String table) throws SQLException {
+        int version;
+        try (ResultSet rs = pooled.prepareStatement("PRAGMA schema_version").executeQuery()) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        FilledTables filled = filledTables;
+        if (filled == null || filled.schemaVersion != version) {
+            filled = new FilledTables(version);
+            filledTables = filled;
+        }
+
+        Boolean ret = filled.tables.get(table);
+        if (ret == null) {
+            PreparedStatement exists = pooled.prepareStatement("SELECT 1 FROM SQLITE_MASTER WHERE TYPE = 'table' AND NAME = ?");
+            exists.setString(1, table);
+            try (ResultSet rs = exists.executeQuery()) {
+                ret = rs.next();
+            }
+            if (ret) {
+                try (ResultSet rs = pooled.prepareStatement("SELECT 1 FROM " + table + " LIMIT 1").executeQuery()) {
+                    ret = rs.next();
+                }
+            }
+            filled.tables.put(table, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Closes the read connections, the statements and the main connection
+     */
+    public void close() throws SQLException {
+        if (readPool != null) readPool.close();
+        statements.close();
+        connection.close();
+    }
+
+    /**
+     * In the bulk build profile the foreign keys of the current transaction are only checked on commit, so
+     * rows can be written in any order. SQLite switches it off after each commit, hence it has to be called
+     * once the transaction has started (auto-commit off).
+     */
+    public void deferForeignKeys() throws SQLException {
+        if (profile != Profile.BULK_BUILD) return;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA defer_foreign_keys = ON");
+        }
+    }
+
+    private static class FilledTables {
+        private final int schemaVersion;
+        private final Map<String, Boolean> tables = new ConcurrentHashMap<>();
+
+        private FilledTables(int schemaVersion) {
+            this.schemaVersion = schemaVersion;
+        }
+    }
 }
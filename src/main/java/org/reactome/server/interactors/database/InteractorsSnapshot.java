@@ -0,0 +1,345 @@
+package org.reactome.server.interactors.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Read only view of a snapshot written by {@link org.reactome.server.interactors.util.SnapshotGenerator}. The file
+ * is mapped in memory and every value is read from the mapping when it is asked for, nothing is loaded up front.
+ * The pages are the ones of the operating system cache, so opening it takes no time and every JVM of the host
+ * mapping the same file shares them.
+ * <p>
+ * Layout (version 2, big endian). A header with MAGIC, VERSION, the number of interactors, interactions, edges,
+ * details and strings, the fingerprint of the database it was written from and the position of each section,
+ * followed by the sections, each of them starting at a multiple of 8:
+ * <pre>
+ * STRING_OFFSETS       int[strings + 1]     where each string starts in STRING_BYTES, UTF-8
+ * INTERACTOR_*         one column per field, strings as their index in the string table (-1 is null)
+ * ACC_ORDER            int[interactors]     interactors sorted by accession (UTF-8 bytes)
+ * INTERACTION_*        one column per field, interactions sorted by ID
+ * EDGE_OFFSETS, EDGES  the interactions of each interactor (compressed sparse rows) sorted by resource, score
+ *                      (highest first) and ID. The ones of interactor i are EDGES[EDGE_OFFSETS[i]] to
+ *                      EDGES[EDGE_OFFSETS[i + 1] - 1]
+ * DETAIL_OFFSETS       int[interactions + 1] the details of each interaction in DETAIL_ID and DETAIL_AC
+ * </pre>
+ * Interactors and interactions are referred to by their position, from 0. Positions are ints, so a snapshot is
+ * at most 2GB. It is safe to be read from many threads at the same time.
+ * <p>
+ * A snapshot is only opened along with the database it was written from: when the {@link #fingerprint} of the
+ * database is not the one in the header the database has changed since and the snapshot has to be written again.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class InteractorsSnapshot {
+
+    public static final int MAGIC = 0x49585331; // IXS1
+    public static final int VERSION = 2;
+
+    public static final int STRING_OFFSETS = 0;
+    public static final int STRING_BYTES = 1;
+    public static final int INTERACTOR_ID = 2;
+    public static final int INTERACTOR_ACC = 3;
+    public static final int INTERACTOR_ALIAS = 4;
+    public static final int INTERACTOR_RESOURCE_ID = 5;
+    public static final int INTERACTOR_INTACT_ID = 6;
+    public static final int INTERACTOR_TAXID = 7;
+    public static final int INTERACTOR_SYNONYMS = 8;
+    public static final int ACC_ORDER = 9;
+    public static final int INTERACTION_ID = 10;
+    public static final int INTERACTION_A = 11;
+    public static final int INTERACTION_B = 12;
+    public static final int INTERACTION_AUTHOR_SCORE = 13;
+    public static final int INTERACTION_SCORE = 14;
+    public static final int INTERACTION_RESOURCE_ID = 15;
+    public static final int INTERACTION_PUBMEDIDS = 16;
+    public static final int EDGE_OFFSETS = 17;
+    public static final int EDGES = 18;
+    public static final int DETAIL_OFFSETS = 19;
+    public static final int DETAIL_ID = 20;
+    public static final int DETAIL_AC = 21;
+    public static final int SECTIONS = 22;
+
+    // Max ID of INTERACTOR, INTERACTION and INTERACTION_DETAILS, the content stamp and the checkpoint
+    public static final int FINGERPRINT = 5;
+
+    // magic, version, 5 counts, the fingerprint and the sections, rounded up to a multiple of 8
+    public static final int HEADER_SIZE = ((7 + 2 * FINGERPRINT + SECTIONS) * 4 + 7) & ~7;
+
+    private String fileName;
+    private ByteBuffer buffer;
+    private int interactors;
+    private int interactions;
+    private int edges;
+    private int details;
+    private int[] sections = new int[SECTIONS];
+
+    /**
+     * @param database the database the snapshot was written from
+     * @throws IOException if it is not a snapshot or the database has changed since it was written
+     */
+    public InteractorsSnapshot(String fileName, InteractorsDatabase database) throws IOException, SQLException {
+        this.fileName = fileName;
+        try (RandomAccessFile file = new RandomAccessFile(new File(fileName), "r");
+             FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(fileName + " is not an interactors snapshot");
+            }
+            // The mapping stays valid once the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC) throw new IOException(fileName + " is not an interactors snapshot");
+        int version = buffer.getInt(4);
+        if (version != VERSION) throw new IOException(fileName + " is a version " + version + " snapshot, version " + VERSION + " is expected");
+
+        long[] fingerprint = fingerprint(database);
+        for (int i = 0; i < FINGERPRINT; i++) {
+            if (buffer.getLong(28 + i * 8) != fingerprint[i]) {
+                throw new IOException(fileName + " has not been written from the current " + database.getFileName() + ", it has to be written again");
+            }
+        }
+
+        interactors = buffer.getInt(8);
+        interactions = buffer.getInt(12);
+        edges = buffer.getInt(16);
+        details = buffer.getInt(20);
+        for (int i = 0; i < SECTIONS; i++) {
+            sections[i] = buffer.getInt(28 + FINGERPRINT * 8 + i * 4);
+        }
+    }
+
+    /**
+     * Tells whether the database has changed: the max ID of INTERACTOR, INTERACTION and INTERACTION_DETAILS and a
+     * hash of the CONTENT_STAMP row, replaced whenever the database is finished or updated, and of the
+     * INGEST_CHECKPOINT row (0 for a row that is not there). Everything is read from the database, so a copy of
+     * the file opens the snapshots of the original.
+     */
+    public static long[] fingerprint(InteractorsDatabase database) throws SQLException {
+        long[] fingerprint = new long[FINGERPRINT];
+        try (PooledConnection pooled = database.getReadConnection()) {
+            fingerprint[0] = maxId(pooled, "INTERACTOR");
+            fingerprint[1] = maxId(pooled, "INTERACTION");
+            fingerprint[2] = maxId(pooled, "INTERACTION_DETAILS");
+            fingerprint[3] = hashRow(pooled, "CONTENT_STAMP");
+            fingerprint[4] = hashRow(pooled, "INGEST_CHECKPOINT");
+        }
+        return fingerprint;
+    }
+
+    private static long maxId(PooledConnection pooled, String table) throws SQLException {
+        PreparedStatement pstm = pooled.prepareStatement("SELECT MAX(ID) FROM " + table);
+        try (ResultSet rs = pstm.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * FNV-1a over the columns of the single row of the table
+     */
+    private static long hashRow(PooledConnection pooled, String table) throws SQLException {
+        PreparedStatement exists = pooled.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?");
+        exists.setString(1, table);
+        try (ResultSet rs = exists.executeQuery()) {
+            if (!rs.next()) return 0;
+        }
+        PreparedStatement pstm = pooled.prepareStatement("SELECT * FROM " + table);
+        try (ResultSet rs = pstm.executeQuery()) {
+            if (!rs.next()) return 0;
+            long h = 0xCBF29CE484222325L;
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                String value = String.valueOf(rs.getString(i)) + '\t';
+                for (int c = 0; c < value.length(); c++) {
+                    h ^= value.charAt(c);
+                    h *= 0x100000001B3L;
+                }
+            }
+            return h;
+        }
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getInteractors() {
+        return interactors;
+    }
+
+    public int getInteractions() {
+        return interactions;
+    }
+
+    public int getEdges() {
+        return edges;
+    }
+
+    public int getDetails() {
+        return details;
+    }
+
+    /**
+     * @return position of the interactor with the given accession, -1 if there is none
+     */
+    public int findInteractor(String acc) {
+        byte[] key = acc.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = interactors - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int interactor = getInt(ACC_ORDER, mid);
+            int cmp = compare(getInt(INTERACTOR_ACC, interactor), key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return interactor;
+        }
+        return -1;
+    }
+
+    /**
+     * @return position of the interaction with the given ID, -1 if there is none
+     */
+    public int findInteraction(long id) {
+        int low = 0;
+        int high = interactions - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = getLong(INTERACTION_ID, mid);
+            if (midId < id) low = mid + 1;
+            else if (midId > id) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    public long getInteractorId(int interactor) {
+        return getLong(INTERACTOR_ID, interactor);
+    }
+
+    public String getAcc(int interactor) {
+        return getString(getInt(INTERACTOR_ACC, interactor));
+    }
+
+    public String getAlias(int interactor) {
+        return getString(getInt(INTERACTOR_ALIAS, interactor));
+    }
+
+    public long getInteractorResourceId(int interactor) {
+        return getLong(INTERACTOR_RESOURCE_ID, interactor);
+    }
+
+    public String getIntactId(int interactor) {
+        return getString(getInt(INTERACTOR_INTACT_ID, interactor));
+    }
+
+    public int getTaxId(int interactor) {
+        return getInt(INTERACTOR_TAXID, interactor);
+    }
+
+    public String getSynonyms(int interactor) {
+        return getString(getInt(INTERACTOR_SYNONYMS, interactor));
+    }
+
+    /**
+     * @return first position in EDGES of the interactions of the interactor
+     */
+    public int getEdgesFrom(int interactor) {
+        return getInt(EDGE_OFFSETS, interactor);
+    }
+
+    /**
+     * @return position in EDGES after the last interaction of the interactor
+     */
+    public int getEdgesTo(int interactor) {
+        return getInt(EDGE_OFFSETS, interactor + 1);
+    }
+
+    /**
+     * @return the interaction at the given position of EDGES
+     */
+    public int getEdge(int position) {
+        return getInt(EDGES, position);
+    }
+
+    public long getInteractionId(int interaction) {
+        return getLong(INTERACTION_ID, interaction);
+    }
+
+    public int getInteractorA(int interaction) {
+        return getInt(INTERACTION_A, interaction);
+    }
+
+    public int getInteractorB(int interaction) {
+        return getInt(INTERACTION_B, interaction);
+    }
+
+    public double getAuthorScore(int interaction) {
+        return buffer.getDouble(sections[INTERACTION_AUTHOR_SCORE] + interaction * 8);
+    }
+
+    public double getScore(int interaction) {
+        return buffer.getDouble(sections[INTERACTION_SCORE] + interaction * 8);
+    }
+
+    public long getInteractionResourceId(int interaction) {
+        return getLong(INTERACTION_RESOURCE_ID, interaction);
+    }
+
+    public String getPubmedIds(int interaction) {
+        return getString(getInt(INTERACTION_PUBMEDIDS, interaction));
+    }
+
+    public int getDetailsFrom(int interaction) {
+        return getInt(DETAIL_OFFSETS, interaction);
+    }
+
+    public int getDetailsTo(int interaction) {
+        return getInt(DETAIL_OFFSETS, interaction + 1);
+    }
+
+    public long getDetailId(int detail) {
+        return getLong(DETAIL_ID, detail);
+    }
+
+    public String getDetailAc(int detail) {
+        return getString(getInt(DETAIL_AC, detail));
+    }
+
+    private int getInt(int section, int index) {
+        return buffer.getInt(sections[section] + index * 4);
+    }
+
+    private long getLong(int section, int index) {
+        return buffer.getLong(sections[section] + index * 8);
+    }
+
+    private String getString(int string) {
+        if (string < 0) return null;
+        int from = sections[STRING_BYTES] + getInt(STRING_OFFSETS, string);
+        byte[] bytes = new byte[getInt(STRING_OFFSETS, string + 1) - getInt(STRING_OFFSETS, string)];
+        // Absolute gets, the position of the buffer is shared by all the threads
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unsigned comparison of the UTF-8 bytes of a string of the table with the given ones
+     */
+    private int compare(int string, byte[] key) {
+        int from = sections[STRING_BYTES] + getInt(STRING_OFFSETS, string);
+        int length = getInt(STRING_OFFSETS, string + 1) - getInt(STRING_OFFSETS, string);
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int cmp = (buffer.get(from + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return length - key.length;
+    }
+}
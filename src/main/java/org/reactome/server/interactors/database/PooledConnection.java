@@ -0,0 +1,65 @@
+package org.reactome.server.interactors.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A connection borrowed from {@link InteractorsDatabase#getReadConnection()} together with its statement cache.
+ * Closing it gives the connection back, the connection itself stays open. It belongs to the thread that borrowed
+ * it until then.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private Connection connection;
+    private StatementCache statements;
+    private ConnectionPool pool;
+    // Held while a connection that is not pooled (i.e. the one of the database) is borrowed
+    private Lock lock;
+    private boolean borrowed = false;
+
+    PooledConnection(Connection connection, StatementCache statements, ConnectionPool pool) {
+        this.connection = connection;
+        this.statements = statements;
+        this.pool = pool;
+    }
+
+    PooledConnection(Connection connection, StatementCache statements, Lock lock) {
+        this.connection = connection;
+        this.statements = statements;
+        this.lock = lock;
+    }
+
+    void borrow() {
+        borrowed = true;
+    }
+
+    public PreparedStatement prepareStatement(String query) throws SQLException {
+        return statements.prepare(query);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() {
+        // Closing it twice must not give it back twice
+        if (!borrowed) return;
+        borrowed = false;
+
+        if (pool != null) {
+            pool.release(this);
+        } else {
+            lock.unlock();
+        }
+    }
+
+    void discard() throws SQLException {
+        statements.close();
+        connection.close();
+    }
+}
@@ -0,0 +1,81 @@
+package org.reactome.server.interactors.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared statements of a connection, kept by their SQL so each query is compiled once per connection.
+ * The least recently used statement is closed once there are more than the capacity, e.g. the IN queries
+ * whose number of parameters depend on the chunk.
+ * <p>
+ * It is not thread safe, it belongs to whoever holds the connection.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class StatementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private Connection connection;
+    private Map<String, PreparedStatement> statements;
+
+    public StatementCache(Connection connection) {
+        this(connection, DEFAULT_CAPACITY);
+    }
+
+    public StatementCache(Connection connection, final int capacity) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= capacity) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the statement of the given query, with no parameters set
+     */
+    public PreparedStatement prepare(String query) throws SQLException {
+        PreparedStatement pstm = statements.get(query);
+        if (pstm == null || pstm.isClosed()) {
+            pstm = connection.prepareStatement(query);
+            statements.put(query, pstm);
+        } else {
+            pstm.clearParameters();
+        }
+        return pstm;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes every statement, the connection is left open
+     */
+    public void close() {
+        for (PreparedStatement pstm : statements.values()) {
+            closeQuietly(pstm);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement pstm) {
+        try {
+            pstm.close();
+        } catch (SQLException e) {
+            logger.warn("Prepared statement could not be closed: {}", e.getMessage());
+        }
+    }
+}
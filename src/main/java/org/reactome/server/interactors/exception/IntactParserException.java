@@ -0,0 +1,14 @@
+package org.reactome.server.interactors.exception;
+
+/**
+ * Exception thrown when the IntAct parser can't go on with the given arguments or file, e.g. a database that
+ * already exists or an interrupted load that can't be resumed. Nothing has been committed for the current step.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class IntactParserException extends Exception {
+
+    public IntactParserException(String message) {
+        super(message);
+    }
+}
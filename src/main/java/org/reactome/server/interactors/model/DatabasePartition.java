@@ -0,0 +1,74 @@
+package org.reactome.server.interactors.model;
+
+/**
+ * A subset of the interactors database stored in its own file: the interactions of one species (or of all of
+ * them if taxId is null) having at least the given score.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class DatabasePartition {
+
+    private String fileName;
+    private Integer taxId;
+    private Double minScore;
+    private Long interactions;
+
+    public DatabasePartition() {
+    }
+
+    public DatabasePartition(Integer taxId, Double minScore) {
+        this.taxId = taxId;
+        this.minScore = minScore;
+    }
+
+    /**
+     * @return true if every interaction of the given species and score is in this partition
+     */
+    public boolean covers(Integer taxId, Double minScore) {
+        if (this.taxId != null && !this.taxId.equals(taxId)) return false;
+        return minScore != null && minScore >= this.minScore;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Integer getTaxId() {
+        return taxId;
+    }
+
+    public void setTaxId(Integer taxId) {
+        this.taxId = taxId;
+    }
+
+    public Double getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(Double minScore) {
+        this.minScore = minScore;
+    }
+
+    public Long getInteractions() {
+        return interactions;
+    }
+
+    public void setInteractions(Long interactions) {
+        this.interactions = interactions;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabasePartition{" +
+                "fileName='" + fileName + '\'' +
+                ", taxId=" + taxId +
+                ", minScore=" + minScore +
+                ", interactions=" + interactions +
+                '}';
+    }
+}
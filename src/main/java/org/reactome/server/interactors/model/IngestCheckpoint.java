@@ -0,0 +1,93 @@
+package org.reactome.server.interactors.model;
+
+/**
+ * Position of a bulk load in the IntAct file, stored together with each batch of interactions.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class IngestCheckpoint {
+
+    private String source;
+    private Long sourceLength;
+    private long byteOffset;
+    private long lineNumber;
+    private long linesIncluded;
+    private Double minimumScore;
+    private boolean complete;
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    /**
+     * @return the size of the file in bytes or null if it was not known when the load started
+     */
+    public Long getSourceLength() {
+        return sourceLength;
+    }
+
+    public void setSourceLength(Long sourceLength) {
+        this.sourceLength = sourceLength;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLinesIncluded() {
+        return linesIncluded;
+    }
+
+    public void setLinesIncluded(long linesIncluded) {
+        this.linesIncluded = linesIncluded;
+    }
+
+    /**
+     * @return the minimum score of the interactions loaded, null if it was not recorded
+     */
+    public Double getMinimumScore() {
+        return minimumScore;
+    }
+
+    public void setMinimumScore(Double minimumScore) {
+        this.minimumScore = minimumScore;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    @Override
+    public String toString() {
+        return "IngestCheckpoint{" +
+                "source='" + source + '\'' +
+                ", sourceLength=" + sourceLength +
+                ", byteOffset=" + byteOffset +
+                ", lineNumber=" + lineNumber +
+                ", linesIncluded=" + linesIncluded +
+                ", minimumScore=" + minimumScore +
+                ", complete=" + complete +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package org.reactome.server.interactors.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,7 +21,33 @@ public class Interaction implements Comparable<Interaction> {
     private Long interactionResourceId;
 
     private List<InteractionDetails> interactionDetailsList;
-    private List<String> pubmedIdentifiers;
+    private volatile List<String> pubmedIdentifiers;
+    // Comma separated, as they are stored. Split the first time they are asked for, then kept for other threads
+    private String pubmedIds;
+
+    public Interaction() {
+    }
+
+    /**
+     * Copy of the interaction, its interactors and details, which can be modified without changing the original
+     */
+    public Interaction(Interaction interaction) {
+        this.id = interaction.id;
+        this.interactorA = interaction.interactorA != null ? new Interactor(interaction.interactorA) : null;
+        this.interactorB = interaction.interactorB != null ? new Interactor(interaction.interactorB) : null;
+        this.authorScore = interaction.authorScore;
+        this.intactScore = interaction.intactScore;
+        this.interactionResourceId = interaction.interactionResourceId;
+        if (interaction.interactionDetailsList != null) {
+            this.interactionDetailsList = new ArrayList<>();
+            for (InteractionDetails interactionDetails : interaction.interactionDetailsList) {
+                this.interactionDetailsList.add(new InteractionDetails(interactionDetails));
+            }
+        }
+        List<String> pubmedIdentifiers = interaction.pubmedIdentifiers;
+        this.pubmedIdentifiers = pubmedIdentifiers != null ? new ArrayList<>(pubmedIdentifiers) : null;
+        this.pubmedIds = interaction.pubmedIds;
+    }
 
     public Long getId() {
         return id;
@@ -86,16 +113,34 @@ public class Interaction implements Comparable<Interaction> {
     }
 
     public List<String> getPubmedIdentifiers() {
-        return pubmedIdentifiers;
+        List<String> ret = pubmedIdentifiers;
+        String ids = pubmedIds;
+        if (ret == null && ids != null) {
+            // Threads asking at the same time may split them each, into equal lists
+            ret = new ArrayList<>(Arrays.asList(ids.split(",")));
+            pubmedIdentifiers = ret;
+        }
+        return ret;
     }
 
     public void setPubmedIdentifiers(List<String> pubmedIdentifiers) {
         this.pubmedIdentifiers = pubmedIdentifiers;
+        this.pubmedIds = null;
+    }
+
+    /**
+     * @param pubmedIds comma separated, as they are stored in INTERACTION.PUBMEDIDS
+     */
+    public void setPubmedIds(String pubmedIds) {
+        this.pubmedIdentifiers = null;
+        this.pubmedIds = pubmedIds == null || pubmedIds.isEmpty() ? null : pubmedIds;
     }
 
     public void addPubmedIdentifier(String pubmedIdentifier) {
+        List<String> pubmedIdentifiers = getPubmedIdentifiers();
         if (pubmedIdentifiers == null) {
             pubmedIdentifiers = new ArrayList<>();
+            this.pubmedIdentifiers = pubmedIdentifiers;
         }
         pubmedIdentifiers.add(pubmedIdentifier);
     }
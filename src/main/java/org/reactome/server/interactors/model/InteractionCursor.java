@@ -0,0 +1,64 @@
+package org.reactome.server.interactors.model;
+
+/**
+ * Position in the interactions of an accession, sorted by score (highest first) and then by ID. The next page
+ * starts right after it, so it is reached with an index seek however deep it is.
+ * <p>
+ * As a token it is the score and the ID, e.g. "0.56:12345".
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class InteractionCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private Double score;
+    private Long id;
+
+    public InteractionCursor(Double score, Long id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    /**
+     * @return the position of the given interaction
+     */
+    public static InteractionCursor of(Interaction interaction) {
+        return new InteractionCursor(interaction.getIntactScore(), interaction.getId());
+    }
+
+    /**
+     * @param token as given by {@link #getToken()}
+     * @throws IllegalArgumentException if the token is not a valid one
+     */
+    public static InteractionCursor parse(String token) {
+        int separator = token.lastIndexOf(SEPARATOR);
+        if (separator < 1) throw new IllegalArgumentException("Invalid page token [" + token + "]");
+        try {
+            return new InteractionCursor(Double.valueOf(token.substring(0, separator)), Long.valueOf(token.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token [" + token + "]");
+        }
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Double.toString is the shortest text that reads back to the same score, so the seek is exact
+     */
+    public String getToken() {
+        return score + SEPARATOR + id;
+    }
+
+    @Override
+    public String toString() {
+        return getToken();
+    }
+}
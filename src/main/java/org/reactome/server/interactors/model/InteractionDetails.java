@@ -22,6 +22,12 @@ public class InteractionDetails {
         this.interactionAc = interactionAc;
     }
 
+    public InteractionDetails(InteractionDetails interactionDetails) {
+        this.id = interactionDetails.id;
+        this.interactionId = interactionDetails.interactionId;
+        this.interactionAc = interactionDetails.interactionAc;
+    }
+
     public Long getId() {
         return id;
     }
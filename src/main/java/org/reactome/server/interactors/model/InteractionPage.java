@@ -0,0 +1,35 @@
+package org.reactome.server.interactors.model;
+
+import java.util.List;
+
+/**
+ * A page of the interactions of an accession and the token to ask for the next one
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class InteractionPage {
+
+    private List<Interaction> interactions;
+    private InteractionCursor next;
+
+    public InteractionPage(List<Interaction> interactions, InteractionCursor next) {
+        this.interactions = interactions;
+        this.next = next;
+    }
+
+    public List<Interaction> getInteractions() {
+        return interactions;
+    }
+
+    /**
+     * @return the token of the next page, null if this is the last one
+     */
+    public String getNext() {
+        return next == null ? null : next.getToken();
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
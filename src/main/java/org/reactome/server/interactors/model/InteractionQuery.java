@@ -0,0 +1,70 @@
+package org.reactome.server.interactors.model;
+
+import java.util.Objects;
+
+/**
+ * A query for the interactions of an accession in a resource, page and page size included (-1 when it is not
+ * paginated). It is the key of the cached results.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class InteractionQuery {
+
+    private String resource;
+    private String acc;
+    private int page;
+    private int pageSize;
+
+    public InteractionQuery(String resource, String acc) {
+        this(resource, acc, -1, -1);
+    }
+
+    public InteractionQuery(String resource, String acc, Integer page, Integer pageSize) {
+        this.resource = resource;
+        this.acc = acc;
+        // Any page of a query that is not paginated is the same query
+        boolean paginated = page > -1 && pageSize > -1;
+        this.page = paginated ? page : -1;
+        this.pageSize = paginated ? pageSize : -1;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public String getAcc() {
+        return acc;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InteractionQuery that = (InteractionQuery) o;
+        return page == that.page && pageSize == that.pageSize && Objects.equals(resource, that.resource) && Objects.equals(acc, that.acc);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(resource, acc, page, pageSize);
+    }
+
+    @Override
+    public String toString() {
+        return "InteractionQuery{" +
+                "resource='" + resource + '\'' +
+                ", acc='" + acc + '\'' +
+                ", page=" + page +
+                ", pageSize=" + pageSize +
+                '}';
+    }
+}
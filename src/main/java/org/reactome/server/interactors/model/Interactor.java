@@ -31,6 +31,19 @@ public class Interactor {
     // Synonyms list -> remove accession if present and remove the entry that was previously assigned to alias. Unique
     private String synonyms;
 
+    public Interactor() {
+    }
+
+    public Interactor(Interactor interactor) {
+        this.id = interactor.id;
+        this.intactId = interactor.intactId;
+        this.interactorResourceId = interactor.interactorResourceId;
+        this.acc = interactor.acc;
+        this.alias = interactor.alias;
+        this.taxid = interactor.taxid;
+        this.synonyms = interactor.synonyms;
+    }
+
     public Long getId() {
         return id;
     }
@@ -155,7 +168,8 @@ public class Interactor {
 
     public void setSynonyms(String synonyms) {
         if (synonyms != null) {
-            this.synonyms = synonyms.replaceAll("\"", "");
+            // Stored without quotes already, so most of the times there is nothing to replace
+            this.synonyms = synonyms.indexOf('"') < 0 ? synonyms : synonyms.replace("\"", "");
         }
     }
 }
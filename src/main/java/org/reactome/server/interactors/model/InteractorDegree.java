@@ -0,0 +1,79 @@
+package org.reactome.server.interactors.model;
+
+/**
+ * Number of interactions of an interactor in an interaction resource, with their highest and mean score
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+public class InteractorDegree {
+
+    private Long interactorId;
+    private String acc;
+    private Long interactionResourceId;
+    private Integer degree;
+    private Double maxScore;
+    private Double meanScore;
+
+    public InteractorDegree() {
+    }
+
+    public Long getInteractorId() {
+        return interactorId;
+    }
+
+    public void setInteractorId(Long interactorId) {
+        this.interactorId = interactorId;
+    }
+
+    public String getAcc() {
+        return acc;
+    }
+
+    public void setAcc(String acc) {
+        this.acc = acc;
+    }
+
+    public Long getInteractionResourceId() {
+        return interactionResourceId;
+    }
+
+    public void setInteractionResourceId(Long interactionResourceId) {
+        this.interactionResourceId = interactionResourceId;
+    }
+
+    public Integer getDegree() {
+        return degree;
+    }
+
+    public void setDegree(Integer degree) {
+        this.degree = degree;
+    }
+
+    public Double getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(Double maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public Double getMeanScore() {
+        return meanScore;
+    }
+
+    public void setMeanScore(Double meanScore) {
+        this.meanScore = meanScore;
+    }
+
+    @Override
+    public String toString() {
+        return "InteractorDegree{" +
+                "acc='" + acc + '\'' +
+                ", interactionResourceId=" + interactionResourceId +
+                ", degree=" + degree +
+                ", maxScore=" + maxScore +
+                ", meanScore=" + meanScore +
+                '}';
+    }
+}
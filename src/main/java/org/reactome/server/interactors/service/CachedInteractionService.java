@@ -0,0 +1,107 @@
+package org.reactome.server.interactors.service;
+
+import org.reactome.server.interactors.exception.InvalidInteractionResourceException;
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionQuery;
+import org.reactome.server.interactors.util.ResultCache;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Same queries as {@link InteractionService}, answered from a {@link ResultCache} by resource, accession, page and
+ * page size. Hub proteins and popular diagrams ask for the same interactions over and over, so most of them are
+ * not read from the database again. Only the accessions missing in the cache are sent to the service, together,
+ * and concurrent requests for the same ones wait for that single query.
+ * <p>
+ * The cache is bounded by the number of interactions kept. Each resource can have its own time to live. Every
+ * caller gets copies of the cached interactions, so they can be modified and read from any thread.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+@SuppressWarnings("unused")
+public class CachedInteractionService extends CachedService {
+
+    public static final long DEFAULT_MAXIMUM_INTERACTIONS = 1_000_000;
+    public static final long DEFAULT_TIME_TO_LIVE = 60 * 60 * 1000;
+
+    private InteractionService interactionService;
+
+    public CachedInteractionService(InteractionService interactionService) {
+        this(interactionService, DEFAULT_MAXIMUM_INTERACTIONS, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * @param maximumInteractions interactions kept in the cache, a list of interactions weighs its size (at least 1)
+     * @param defaultTimeToLive   milliseconds the results are kept for, unless set for the resource
+     */
+    public CachedInteractionService(InteractionService interactionService, long maximumInteractions, long defaultTimeToLive) {
+        this(interactionService, new ResultCache<>(maximumInteractions, List::size), new ResultCache<>(maximumInteractions, count -> 1), defaultTimeToLive);
+    }
+
+    /**
+     * @param interactions cache of the interactions, it can be shared with other services of the same database
+     * @param counts       cache of the number of interactions
+     */
+    public CachedInteractionService(InteractionService interactionService, ResultCache<InteractionQuery, List<Interaction>> interactions, ResultCache<InteractionQuery, Integer> counts, long defaultTimeToLive) {
+        super(interactions, counts, defaultTimeToLive);
+        this.interactionService = interactionService;
+    }
+
+    public List<Interaction> getInteractions(String acc, String resource) throws InvalidInteractionResourceException, SQLException {
+        return getInteractions(Collections.singletonList(acc), resource, -1, -1).get(acc);
+    }
+
+    public Map<String, List<Interaction>> getInteractions(Collection<String> accs, String resource) throws InvalidInteractionResourceException, SQLException {
+        return getInteractions(accs, resource, -1, -1);
+    }
+
+    public List<Interaction> getInteractions(String acc, String resource, Integer page, Integer pageSize) throws InvalidInteractionResourceException, SQLException {
+        return getInteractions(Collections.singletonList(acc), resource, page, pageSize).get(acc);
+    }
+
+    /**
+     * @return Map of accession as key and its interactions, as {@link InteractionService#getInteractions(Collection, String, Integer, Integer)}
+     */
+    public Map<String, List<Interaction>> getInteractions(Collection<String> accs, String resource, Integer page, Integer pageSize) throws InvalidInteractionResourceException, SQLException {
+        try {
+            return getInteractions(resource, queries(accs, resource, page, pageSize), missing -> interactionService.getInteractions(missing, resource, page, pageSize));
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+
+    public Integer countInteractionsByAccession(String acc, String resource) throws InvalidInteractionResourceException, SQLException {
+        return countInteractionsByAccessions(Collections.singletonList(acc), resource).get(acc);
+    }
+
+    /**
+     * @return Map of accession and count, accessions without interactions are not in it
+     */
+    public Map<String, Integer> countInteractionsByAccessions(Collection<String> accs, String resource) throws InvalidInteractionResourceException, SQLException {
+        try {
+            return getCounts(resource, queries(accs, resource, -1, -1), missing -> interactionService.countInteractionsByAccessions(missing, resource));
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Throws the exceptions of the service as they are, the others are wrapped in the returned one
+     */
+    private static SQLException failure(Exception e) throws InvalidInteractionResourceException, SQLException {
+        if (e instanceof InvalidInteractionResourceException) throw (InvalidInteractionResourceException) e;
+        if (e instanceof SQLException) throw (SQLException) e;
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        return new SQLException(e);
+    }
+
+    private static List<InteractionQuery> queries(Collection<String> accs, String resource, Integer page, Integer pageSize) {
+        List<InteractionQuery> queries = new ArrayList<>();
+        for (String acc : accs) {
+            queries.add(new InteractionQuery(resource, acc, page, pageSize));
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,95 @@
+package org.reactome.server.interactors.service;
+
+import org.hupo.psi.mi.psicquic.registry.client.PsicquicRegistryClientException;
+import org.reactome.server.interactors.exception.PsicquicQueryException;
+import org.reactome.server.interactors.exception.PsicquicResourceNotFoundException;
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionQuery;
+import org.reactome.server.interactors.util.ResultCache;
+import psidev.psi.mi.tab.PsimiTabException;
+
+import java.util.*;
+
+/**
+ * Same queries as {@link PsicquicService}, answered from a {@link ResultCache} by resource and accession. Every
+ * miss is a request to a remote PSICQUIC service, so only the accessions missing in the cache are requested and
+ * concurrent requests for the same ones wait for that single request. Failed requests are not cached.
+ * <p>
+ * The cache is bounded by the number of interactions kept. Each resource can have its own time to live, e.g. a
+ * shorter one for the services updated more often. Every caller gets copies of the cached interactions, so they
+ * can be modified and read from any thread.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+@SuppressWarnings("unused")
+public class CachedPsicquicService extends CachedService {
+
+    public static final long DEFAULT_MAXIMUM_INTERACTIONS = 500_000;
+    public static final long DEFAULT_TIME_TO_LIVE = 24 * 60 * 60 * 1000;
+
+    private PsicquicService psicquicService;
+
+    public CachedPsicquicService(PsicquicService psicquicService) {
+        this(psicquicService, DEFAULT_MAXIMUM_INTERACTIONS, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * @param maximumInteractions interactions kept in the cache, a list of interactions weighs its size (at least 1)
+     * @param defaultTimeToLive   milliseconds the results are kept for, unless set for the resource
+     */
+    public CachedPsicquicService(PsicquicService psicquicService, long maximumInteractions, long defaultTimeToLive) {
+        this(psicquicService, new ResultCache<>(maximumInteractions, List::size), new ResultCache<>(maximumInteractions, count -> 1), defaultTimeToLive);
+    }
+
+    /**
+     * @param interactions cache of the interactions
+     * @param counts       cache of the number of interactions
+     */
+    public CachedPsicquicService(PsicquicService psicquicService, ResultCache<InteractionQuery, List<Interaction>> interactions, ResultCache<InteractionQuery, Integer> counts, long defaultTimeToLive) {
+        super(interactions, counts, defaultTimeToLive);
+        this.psicquicService = psicquicService;
+    }
+
+    /**
+     * @return Map of accession as key and its interactions, accessions the service has nothing for are not in it
+     */
+    public Map<String, List<Interaction>> getInteractions(String resource, Collection<String> accs) throws PsicquicQueryException, PsimiTabException, PsicquicRegistryClientException, PsicquicResourceNotFoundException {
+        try {
+            return getInteractions(resource, queries(resource, accs), missing -> psicquicService.getInteractions(resource, missing));
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * @return Map of accession and count, accessions the service has nothing for are not in it
+     */
+    public Map<String, Integer> countInteraction(String resource, Collection<String> accs) throws PsicquicQueryException, PsimiTabException, PsicquicRegistryClientException, PsicquicResourceNotFoundException {
+        try {
+            return getCounts(resource, queries(resource, accs), missing -> psicquicService.countInteraction(resource, missing));
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Throws the exceptions of the service as they are, the others are wrapped in the returned one
+     */
+    private static PsicquicQueryException failure(Exception e) throws PsicquicQueryException, PsimiTabException, PsicquicRegistryClientException, PsicquicResourceNotFoundException {
+        if (e instanceof PsicquicQueryException) throw (PsicquicQueryException) e;
+        if (e instanceof PsimiTabException) throw (PsimiTabException) e;
+        if (e instanceof PsicquicRegistryClientException) throw (PsicquicRegistryClientException) e;
+        if (e instanceof PsicquicResourceNotFoundException) throw (PsicquicResourceNotFoundException) e;
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        return new PsicquicQueryException(e);
+    }
+
+    private static List<InteractionQuery> queries(String resource, Collection<String> accs) {
+        List<InteractionQuery> queries = new ArrayList<>();
+        for (String acc : accs) {
+            queries.add(new InteractionQuery(resource, acc));
+        }
+        return queries;
+    }
+}
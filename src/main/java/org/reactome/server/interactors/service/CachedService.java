@@ -0,0 +1,106 @@
+package org.reactome.server.interactors.service;
+
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionQuery;
+import org.reactome.server.interactors.util.ResultCache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches of the interactions and of their number shared by {@link CachedInteractionService} and
+ * {@link CachedPsicquicService}, with the time to live of each resource. Only the accessions missing in the cache
+ * are sent to the service, together, and every caller gets copies of the cached interactions.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+abstract class CachedService {
+
+    /**
+     * Loads the results of the given accessions from the service. Accessions without a result can be left out.
+     */
+    interface AccessionLoader<V> {
+        Map<String, V> load(List<String> accs) throws Exception;
+    }
+
+    private ResultCache<InteractionQuery, List<Interaction>> interactions;
+    private ResultCache<InteractionQuery, Integer> counts;
+    private long defaultTimeToLive;
+    private Map<String, Long> timeToLive = new ConcurrentHashMap<>();
+
+    CachedService(ResultCache<InteractionQuery, List<Interaction>> interactions, ResultCache<InteractionQuery, Integer> counts, long defaultTimeToLive) {
+        this.interactions = interactions;
+        this.counts = counts;
+        this.defaultTimeToLive = defaultTimeToLive;
+    }
+
+    /**
+     * @param timeToLive milliseconds the results of the resource are kept for, 0 to not cache them
+     */
+    public void setTimeToLive(String resource, long timeToLive) {
+        this.timeToLive.put(resource, timeToLive);
+    }
+
+    /**
+     * Removes every result, e.g. once the database has been updated
+     */
+    public void invalidateAll() {
+        interactions.invalidateAll();
+        counts.invalidateAll();
+    }
+
+    public ResultCache<InteractionQuery, List<Interaction>> getInteractionsCache() {
+        return interactions;
+    }
+
+    public ResultCache<InteractionQuery, Integer> getCountsCache() {
+        return counts;
+    }
+
+    /**
+     * @return Map of accession as key and copies of its interactions, accessions without interactions are not in it
+     */
+    Map<String, List<Interaction>> getInteractions(String resource, List<InteractionQuery> queries, AccessionLoader<List<Interaction>> loader) throws Exception {
+        Map<String, List<Interaction>> rtn = new HashMap<>();
+        for (Map.Entry<String, List<Interaction>> entry : getAll(interactions, resource, queries, loader).entrySet()) {
+            rtn.put(entry.getKey(), copies(entry.getValue()));
+        }
+        return rtn;
+    }
+
+    /**
+     * @return Map of accession and count, accessions without interactions are not in it
+     */
+    Map<String, Integer> getCounts(String resource, List<InteractionQuery> queries, AccessionLoader<Integer> loader) throws Exception {
+        return getAll(counts, resource, queries, loader);
+    }
+
+    /**
+     * Exceptions thrown by the loader, here or in the thread loading the same accessions, are thrown as they are.
+     * The services throw the ones they declare and wrap the others.
+     */
+    private <V> Map<String, V> getAll(ResultCache<InteractionQuery, V> cache, String resource, List<InteractionQuery> queries, AccessionLoader<V> loader) throws Exception {
+        Map<InteractionQuery, V> cached = cache.getAll(queries, timeToLive.getOrDefault(resource, defaultTimeToLive), missing -> {
+            List<String> accs = new ArrayList<>();
+            for (InteractionQuery query : missing) accs.add(query.getAcc());
+            Map<String, V> loaded = loader.load(accs);
+            Map<InteractionQuery, V> rtn = new HashMap<>();
+            for (InteractionQuery query : missing) rtn.put(query, loaded.get(query.getAcc()));
+            return rtn;
+        });
+
+        Map<String, V> rtn = new HashMap<>();
+        for (Map.Entry<InteractionQuery, V> entry : cached.entrySet()) {
+            rtn.put(entry.getKey().getAcc(), entry.getValue());
+        }
+        return rtn;
+    }
+
+    private static List<Interaction> copies(List<Interaction> interactions) {
+        List<Interaction> copies = new ArrayList<>(interactions.size());
+        for (Interaction interaction : interactions) {
+            copies.add(new Interaction(interaction));
+        }
+        return copies;
+    }
+}
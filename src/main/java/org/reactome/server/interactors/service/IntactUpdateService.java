@@ -0,0 +1,337 @@
+package org.reactome.server.interactors.service;
+
+import org.reactome.server.interactors.dao.InteractionDAO;
+import org.reactome.server.interactors.dao.InteractionDetailsDAO;
+import org.reactome.server.interactors.dao.InteractorDAO;
+import org.reactome.server.interactors.dao.intact.StaticInteraction;
+import org.reactome.server.interactors.dao.intact.StaticInteractionDetails;
+import org.reactome.server.interactors.dao.intact.StaticInteractor;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionDetails;
+import org.reactome.server.interactors.model.Interactor;
+import org.reactome.server.interactors.util.InteractorDatabaseGenerator;
+import org.reactome.server.interactors.util.Toolbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a new IntAct release to an existing interactors database instead of building it again.
+ * <p>
+ * The existing interactions are indexed by their (interactor A, interactor B) pair together with a hash of
+ * their content (scores, publications and interaction details). Parsed interactions are then compared with
+ * that index: new ones are inserted, changed ones are updated and the ones that are no longer in the release
+ * are deleted at the end, as well as the interactors left without interactions.
+ * <p>
+ * Everything happens in a single transaction, which is open from the creation of this service until
+ * {@link #commit()} or {@link #rollback()}. Readers of the database keep seeing the previous release until then.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class IntactUpdateService {
+
+    private final Logger logger = LoggerFactory.getLogger(IntactUpdateService.class);
+
+    // Retracted interactions are deleted in batches of this size
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private InteractionDAO interactionDAO;
+    private InteractorDAO interactorDAO;
+    private InteractionDetailsDAO interactionDetailsDAO;
+    private Connection connection;
+
+    private Map<String, Long> accessionIds;
+    private long interactorSequence = 0;
+    private long interactionSequence = 0;
+    private ExistingInteractions existing;
+    // Interactions stored more than once for the same pair, only the first one is kept
+    private List<Long> storedDuplicates = new ArrayList<>();
+
+    private int insertedInteractors = 0;
+    private int insertedInteractions = 0;
+    private int updatedInteractions = 0;
+    private int unchangedInteractions = 0;
+    private int duplicatedInteractions = 0;
+    private int deletedInteractions = 0;
+    private int deletedInteractors = 0;
+
+    public IntactUpdateService(InteractorsDatabase database, Long interactionResourceId) throws SQLException {
+        interactionDAO = new StaticInteraction(database);
+        interactorDAO = new StaticInteractor(database);
+        interactionDetailsDAO = new StaticInteractionDetails(database);
+        connection = database.getConnection();
+
+        accessionIds = interactorDAO.getAccessionIds();
+        for (Long id : accessionIds.values()) {
+            interactorSequence = Math.max(interactorSequence, id);
+        }
+        interactionSequence = interactionDAO.getMaxId();
+
+        existing = new ExistingInteractions(Math.max(1024, accessionIds.size() * 4));
+        interactionDAO.scan(interactionResourceId, interaction -> {
+            long key = key(interaction.getInteractorA().getId(), interaction.getInteractorB().getId());
+            if (!existing.put(key, interaction.getId(), contentHash(interaction), false)) {
+                storedDuplicates.add(interaction.getId());
+            }
+        });
+        logger.info("Update mode. [{}] interactors and [{}] interactions already present in the Database.", accessionIds.size(), existing.size());
+
+        connection.setAutoCommit(false);
+    }
+
+    /**
+     * Compares the given interactions with the ones in the database and applies the differences.
+     * Nothing is committed here.
+     */
+    public void apply(List<Interaction> interactions) throws SQLException {
+        List<Interactor> newInteractors = new ArrayList<>();
+        List<Interaction> inserts = new ArrayList<>();
+        List<Interaction> updates = new ArrayList<>();
+        List<Long> replacedDetails = new ArrayList<>();
+        List<InteractionDetails> details = new ArrayList<>();
+
+        for (Interaction interaction : interactions) {
+            resolveInteractor(interaction.getInteractorA(), newInteractors);
+            resolveInteractor(interaction.getInteractorB(), newInteractors);
+
+            long key = key(interaction.getInteractorA().getId(), interaction.getInteractorB().getId());
+            long hash = contentHash(interaction);
+            int slot = existing.find(key);
+            if (slot == -1) {
+                interaction.setId(++interactionSequence);
+                existing.put(key, interaction.getId(), hash, true);
+                inserts.add(interaction);
+            } else if (existing.isSeen(slot)) {
+                // Same pair twice in the release, the first one is kept
+                duplicatedInteractions++;
+                continue;
+            } else {
+                existing.setSeen(slot);
+                interaction.setId(existing.getId(slot));
+                if (existing.getHash(slot) == hash) {
+                    unchangedInteractions++;
+                    continue;
+                }
+                updates.add(interaction);
+                replacedDetails.add(interaction.getId());
+            }
+
+            if (interaction.getInteractionDetailsList() == null) continue;
+            for (InteractionDetails interactionDetails : interaction.getInteractionDetailsList()) {
+                interactionDetails.setInteractionId(interaction.getId());
+                details.add(interactionDetails);
+            }
+        }
+
+        interactorDAO.bulkCreate(newInteractors);
+        interactionDAO.bulkCreate(inserts);
+        interactionDAO.bulkUpdate(updates);
+        interactionDetailsDAO.deleteByInteractions(replacedDetails);
+        interactionDetailsDAO.bulkCreate(details);
+
+        insertedInteractors += newInteractors.size();
+        insertedInteractions += inserts.size();
+        updatedInteractions += updates.size();
+    }
+
+    /**
+     * Deletes the interactions that haven't been seen in the release and the interactors left without
+     * interactions, builds the tables derived from the interactions again, then commits the whole update.
+     */
+    public void commit() throws SQLException {
+        try {
+            List<Long> retracted = new ArrayList<>(storedDuplicates);
+            existing.addUnseenIds(retracted);
+            for (int i = 0; i < retracted.size(); i += DELETE_BATCH_SIZE) {
+                List<Long> batch = retracted.subList(i, Math.min(i + DELETE_BATCH_SIZE, retracted.size()));
+                interactionDetailsDAO.deleteByInteractions(batch);
+                interactionDAO.delete(batch);
+            }
+            deletedInteractions = retracted.size();
+            deletedInteractors = interactorDAO.deleteOrphans();
+            InteractorDatabaseGenerator.refreshDerivedTables(connection);
+            InteractorDatabaseGenerator.stampContent(connection);
+
+            connection.commit();
+        } catch (SQLException e) {
+            logger.error("An error has occurred while committing the update. Nothing has been changed.");
+            rollback();
+            throw e;
+        }
+        connection.setAutoCommit(true);
+
+        logger.info("Update committed. Interactions: [{}] inserted, [{}] updated, [{}] unchanged, [{}] deleted, [{}] duplicated in the release. Interactors: [{}] inserted, [{}] deleted.",
+                insertedInteractions, updatedInteractions, unchangedInteractions, deletedInteractions, duplicatedInteractions, insertedInteractors, deletedInteractors);
+    }
+
+    /**
+     * Discards everything applied so far
+     */
+    public void rollback() throws SQLException {
+        connection.rollback();
+        connection.setAutoCommit(true);
+        logger.warn("The update has been rolled back. The database is unchanged.");
+    }
+
+    public int getInsertedInteractors() {
+        return insertedInteractors;
+    }
+
+    public int getInsertedInteractions() {
+        return insertedInteractions;
+    }
+
+    public int getUpdatedInteractions() {
+        return updatedInteractions;
+    }
+
+    public int getUnchangedInteractions() {
+        return unchangedInteractions;
+    }
+
+    public int getDuplicatedInteractions() {
+        return duplicatedInteractions;
+    }
+
+    public int getDeletedInteractions() {
+        return deletedInteractions;
+    }
+
+    public int getDeletedInteractors() {
+        return deletedInteractors;
+    }
+
+    private void resolveInteractor(Interactor interactor, List<Interactor> newInteractors) {
+        Long id = accessionIds.get(interactor.getAcc());
+        if (id == null) {
+            id = ++interactorSequence;
+            accessionIds.put(interactor.getAcc(), id);
+            newInteractors.add(interactor);
+        }
+        interactor.setId(id);
+    }
+
+    private static long key(long interactorA, long interactorB) {
+        return (interactorA << 32) | (interactorB & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 64-bit FNV-1a of everything that is stored for an interaction, except the interactors
+     */
+    private static long contentHash(Interaction interaction) {
+        StringBuilder content = new StringBuilder();
+        content.append(interaction.getAuthorScore()).append('|');
+        content.append(interaction.getIntactScore() == null ? null : Toolbox.roundScore(interaction.getIntactScore())).append('|');
+        if (interaction.getPubmedIdentifiers() != null) {
+            content.append(String.join(",", interaction.getPubmedIdentifiers()));
+        }
+        if (interaction.getInteractionDetailsList() != null) {
+            for (InteractionDetails interactionDetails : interaction.getInteractionDetailsList()) {
+                content.append('|').append(interactionDetails.getInteractionAc());
+            }
+        }
+
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < content.length(); i++) {
+            hash ^= content.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Open addressing table of the existing interactions keyed by their interactors. Keys are never 0 because
+     * the interactor IDs start at 1.
+     */
+    private static class ExistingInteractions {
+        private long[] keys;
+        private long[] ids;
+        private long[] hashes;
+        private boolean[] seen;
+        private int size;
+
+        ExistingInteractions(int expectedSize) {
+            allocate(Integer.highestOneBit(expectedSize * 2 - 1) << 1);
+        }
+
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return slot;
+            }
+            return -1;
+        }
+
+        /**
+         * @return false if the key is already there
+         */
+        boolean put(long key, long id, long hash, boolean isSeen) {
+            if (size * 2 >= keys.length) grow();
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return false;
+            }
+            keys[slot] = key;
+            ids[slot] = id;
+            hashes[slot] = hash;
+            seen[slot] = isSeen;
+            size++;
+            return true;
+        }
+
+        boolean isSeen(int slot) {
+            return seen[slot];
+        }
+
+        void setSeen(int slot) {
+            seen[slot] = true;
+        }
+
+        long getId(int slot) {
+            return ids[slot];
+        }
+
+        long getHash(int slot) {
+            return hashes[slot];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void addUnseenIds(List<Long> target) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && !seen[i]) target.add(ids[i]);
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            ids = new long[capacity];
+            hashes = new long[capacity];
+            seen = new boolean[capacity];
+        }
+
+        private void grow() {
+            long[] oldKeys = keys, oldIds = ids, oldHashes = hashes;
+            boolean[] oldSeen = seen;
+            allocate(keys.length << 1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) put(oldKeys[i], oldIds[i], oldHashes[i], oldSeen[i]);
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -1,21 +1,26 @@
 package org.reactome.server.interactors.service;
 
+import org.reactome.server.interactors.dao.IngestCheckpointDAO;
 import org.reactome.server.interactors.dao.InteractionDAO;
 import org.reactome.server.interactors.dao.InteractionDetailsDAO;
 import org.reactome.server.interactors.dao.InteractorDAO;
+import org.reactome.server.interactors.dao.intact.StaticIngestCheckpoint;
 import org.reactome.server.interactors.dao.intact.StaticInteraction;
 import org.reactome.server.interactors.dao.intact.StaticInteractionDetails;
 import org.reactome.server.interactors.dao.intact.StaticInteractor;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.model.IngestCheckpoint;
 import org.reactome.server.interactors.model.Interaction;
 import org.reactome.server.interactors.model.InteractionDetails;
 import org.reactome.server.interactors.model.Interactor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Facade layer between Parser and Database.
@@ -31,11 +36,40 @@ public class InteractionParserService {
     private InteractionDAO interactionDAO;
     private InteractorDAO interactorDAO;
     private InteractionDetailsDAO interactionDetailsDAO;
+    private IngestCheckpointDAO ingestCheckpointDAO;
+
+    private InteractorsDatabase database;
+
+    /**
+     * Bulk load mode keeps all the accessions and their IDs in memory for the whole run.
+     * Interactor and Interaction IDs are assigned here, so there are no look-ups per interaction
+     * and the inserts can be batched.
+     */
+    private boolean bulkLoad = false;
+    private Map<String, Long> accessionIds;
+    private long interactorSequence = 0;
+    private long interactionSequence = 0;
 
     public InteractionParserService(InteractorsDatabase database) {
+        this.database = database;
         interactionDAO = new StaticInteraction(database);
         interactorDAO = new StaticInteractor(database);
         interactionDetailsDAO = new StaticInteractionDetails(database);
+        ingestCheckpointDAO = new StaticIngestCheckpoint(database);
+    }
+
+    public InteractionParserService(InteractorsDatabase database, boolean bulkLoad) throws SQLException {
+        this(database);
+        this.bulkLoad = bulkLoad;
+        if (bulkLoad) {
+            // Interactors might already be there, e.g. an existing database
+            accessionIds = interactorDAO.getAccessionIds();
+            for (Long id : accessionIds.values()) {
+                interactorSequence = Math.max(interactorSequence, id);
+            }
+            interactionSequence = interactionDAO.getMaxId();
+            logger.info("Bulk load mode. [{}] interactors already present in the Database.", accessionIds.size());
+        }
     }
 
     // Creating a pre-sized list of interactions. Persist a batch of 1000 interactions
@@ -53,8 +87,51 @@ public class InteractionParserService {
      *
      */
     public void save(List<Interaction> interactionList) throws SQLException {
+        save(interactionList, null);
+    }
+
+    /**
+     * In bulk load mode the checkpoint is written in the same transaction as the interactions, so the
+     * recorded position always matches what is in the database. It is ignored otherwise.
+     *
+     * @param checkpoint position in the file right after the last line of this batch, can be null
+     */
+    public void save(List<Interaction> interactionList, IngestCheckpoint checkpoint) throws SQLException {
         logger.debug("Interactions bulk saving");
 
+        if (bulkLoad) {
+            bulkSave(interactionList, checkpoint);
+            return;
+        }
+
+        searchOrCreateInteractors(interactionList);
+
+        // go to db, create and set Ids.
+        interactionDAO.create(interactions);
+
+        for (Interaction interaction : interactions) {
+            List<InteractionDetails> interactionDetailsList = interaction.getInteractionDetailsList();
+            for (InteractionDetails interactionDetails : interactionDetailsList) {
+                interactionDetails.setInteractionId(interaction.getId());
+
+                interactionsDetails.add(interactionDetails);
+            }
+        }
+
+        interactionDetailsDAO.create(interactionsDetails);
+
+        // Clean up list, for next round
+        interactions.clear();
+        interactionsDetails.clear();
+
+        logger.debug("Interactions bulk processor done.");
+
+    }
+
+    /**
+     * Look up InteractorA and InteractorB in the database and create them if they are not there
+     */
+    private void searchOrCreateInteractors(List<Interaction> interactionList) throws SQLException {
         for (Interaction interaction : interactionList) {
             Interactor interactorA = interaction.getInteractorA();
             Interactor interactorB = interaction.getInteractorB();
@@ -79,27 +156,84 @@ public class InteractionParserService {
 
             interactions.add(interaction);
         }
+    }
 
-        // go to db, create and set Ids.
-        interactionDAO.create(interactions);
+    /**
+     * Bulk load version of the save.
+     * 1-Resolve InteractorA and InteractorB against the in-memory accession map. New ones get the next ID.
+     * 2-Assign the Interaction IDs and set them in the InteractionDetails.
+     * 3-Persist interactors (multi-row inserts), interactions and details (one batch per table) and the checkpoint
+     *   in a single transaction.
+     */
+    private void bulkSave(List<Interaction> interactionList, IngestCheckpoint checkpoint) throws SQLException {
+        List<Interactor> newInteractors = new ArrayList<>();
+        for (Interaction interaction : interactionList) {
+            resolveInteractor(interaction.getInteractorA(), newInteractors);
+            resolveInteractor(interaction.getInteractorB(), newInteractors);
 
-        for (Interaction interaction : interactions) {
-            List<InteractionDetails> interactionDetailsList = interaction.getInteractionDetailsList();
-            for (InteractionDetails interactionDetails : interactionDetailsList) {
+            interaction.setId(++interactionSequence);
+            for (InteractionDetails interactionDetails : interaction.getInteractionDetailsList()) {
                 interactionDetails.setInteractionId(interaction.getId());
-
                 interactionsDetails.add(interactionDetails);
             }
+            interactions.add(interaction);
         }
 
-        interactionDetailsDAO.create(interactionsDetails);
+        Connection connection = database.getConnection();
+        connection.setAutoCommit(false);
+        try {
+            database.deferForeignKeys();
+            interactorDAO.bulkCreate(newInteractors);
+            interactionDAO.bulkCreate(interactions);
+            interactionDetailsDAO.bulkCreate(interactionsDetails);
+            if (checkpoint != null) {
+                ingestCheckpointDAO.save(checkpoint);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            logger.error("An error has occurred during the bulk insert. Please check the following exception.");
+            connection.rollback();
+            // IDs have not been persisted, let the next chunk try them again
+            for (Interactor interactor : newInteractors) {
+                accessionIds.remove(interactor.getAcc());
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
 
-        // Clean up list, for next round
-        interactions.clear();
-        interactionsDetails.clear();
+            // Clean up list, for next round
+            interactions.clear();
+            interactionsDetails.clear();
+        }
 
         logger.debug("Interactions bulk processor done.");
+    }
 
+    /**
+     * @return where the last bulk load has got to, or null if it has not recorded any position
+     */
+    public IngestCheckpoint getCheckpoint() throws SQLException {
+        return ingestCheckpointDAO.get();
+    }
+
+    /**
+     * Records the whole file as loaded, there is nothing left to resume.
+     */
+    public void completeCheckpoint(IngestCheckpoint checkpoint) throws SQLException {
+        checkpoint.setComplete(true);
+        ingestCheckpointDAO.save(checkpoint);
+    }
+
+    private void resolveInteractor(Interactor interactor, List<Interactor> newInteractors) {
+        Long id = accessionIds.get(interactor.getAcc());
+        if (id == null) {
+            id = ++interactorSequence;
+            accessionIds.put(interactor.getAcc(), id);
+            interactor.setId(id);
+            newInteractors.add(interactor);
+        } else {
+            interactor.setId(id);
+        }
     }
 
 }
@@ -1,36 +1,67 @@
 package org.reactome.server.interactors.service;
 
-import org.reactome.server.interactors.dao.InteractionDAO;
-import org.reactome.server.interactors.dao.InteractionDetailsDAO;
+import org.reactome.server.interactors.dao.InteractionDetailsLookupDAO;
+import org.reactome.server.interactors.dao.InteractionLookupDAO;
 import org.reactome.server.interactors.dao.InteractionResourceDAO;
+import org.reactome.server.interactors.dao.InteractorDegreeDAO;
+import org.reactome.server.interactors.dao.intact.InMemoryInteraction;
+import org.reactome.server.interactors.dao.intact.SnapshotInteraction;
+import org.reactome.server.interactors.dao.intact.SnapshotInteractionDetails;
 import org.reactome.server.interactors.dao.intact.StaticInteraction;
 import org.reactome.server.interactors.dao.intact.StaticInteractionDetails;
 import org.reactome.server.interactors.dao.intact.StaticInteractionResource;
+import org.reactome.server.interactors.dao.intact.StaticInteractorDegree;
 import org.reactome.server.interactors.database.InteractorsDatabase;
 import org.reactome.server.interactors.exception.InvalidInteractionResourceException;
 import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionCursor;
+import org.reactome.server.interactors.model.InteractionPage;
+import org.reactome.server.interactors.model.InteractionDetails;
 import org.reactome.server.interactors.model.InteractionResource;
+import org.reactome.server.interactors.model.InteractorDegree;
 import org.reactome.server.interactors.util.Toolbox;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 
 /**
+ * Safe to be called from many threads at the same time, the queries run in parallel on the read connections of
+ * the database. Open it with {@link InteractorsDatabase.Profile#READ_ONLY} when nothing else writes to it.
+ *
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
  */
 
 @SuppressWarnings("unused")
 public class InteractionService {
 
-    private InteractionDAO interactionDAO;
-    private InteractionDetailsDAO interactionDetailsDAO;
+    private InteractionLookupDAO interactionDAO;
+    private InteractionDetailsLookupDAO interactionDetailsDAO;
     private InteractionResourceDAO interactionResourceDAO;
+    private InteractorDegreeDAO interactorDegreeDAO;
 
     public InteractionService(InteractorsDatabase database){
-        this.interactionDAO = new StaticInteraction(database);
-        this.interactionDetailsDAO = new StaticInteractionDetails(database);
+        this(database, new StaticInteraction(database));
+    }
+
+    /**
+     * @param interactionDAO where the interactions are read from, e.g. {@link InMemoryInteraction} to keep them
+     *                       in memory. Details and resources are read from the database.
+     */
+    public InteractionService(InteractorsDatabase database, InteractionLookupDAO interactionDAO){
+        this(database, interactionDAO, new StaticInteractionDetails(database));
+    }
+
+    /**
+     * @param interactionDetailsDAO where the details are read from, e.g. {@link SnapshotInteractionDetails} along
+     *                              with {@link SnapshotInteraction}. Resources are read from the database.
+     */
+    public InteractionService(InteractorsDatabase database, InteractionLookupDAO interactionDAO, InteractionDetailsLookupDAO interactionDetailsDAO){
+        this.interactionDAO = interactionDAO;
+        this.interactionDetailsDAO = interactionDetailsDAO;
         this.interactionResourceDAO = new StaticInteractionResource(database);
+        this.interactorDegreeDAO = new StaticInteractorDegree(database);
     }
 
     /**
@@ -77,14 +108,16 @@ public class InteractionService {
             throw new InvalidInteractionResourceException();
         }
 
+        // Without pagination all the accessions are resolved at once
+        Map<String, List<Interaction>> byAccession = null;
+        if (page <= -1 || pageSize <= -1) {
+            byAccession = interactionDAO.getByAccessions(accs, interactionResource.getId());
+        }
+
         Map<String, List<Interaction>> interactionMaps = new HashMap<>();
+        List<Interaction> all = new ArrayList<>();
         for (String acc : accs) {
-            List<Interaction> interactions = interactionDAO.getByAcc(acc, interactionResource.getId(), page, pageSize);
-
-            // Set details
-            for (Interaction interaction : interactions) {
-                interaction.setInteractionDetailsList(interactionDetailsDAO.getByInteraction(interaction.getId()));
-            }
+            List<Interaction> interactions = byAccession != null ? byAccession.get(acc) : interactionDAO.getByAcc(acc, interactionResource.getId(), page, pageSize);
 
             interactions = Toolbox.removeDuplicatedInteractor(interactions);
 
@@ -92,13 +125,109 @@ public class InteractionService {
             Collections.reverse(interactions);
 
             interactionMaps.put(acc, interactions);
-
+            all.addAll(interactions);
         }
 
+        // Set details, all of them at once
+        setInteractionDetails(all);
+
         return interactionMaps;
 
     }
 
+    /**
+     * Get a page of the interactions of a given accession and resource, highest score first and then by ID. Unlike
+     * the page number of getInteractions, the token points at where the previous page finished, so a deep page
+     * costs the same as the first one.
+     * <p>
+     * As in streamInteractions, the interactions are read in that order and only the first one of each partner is
+     * kept, so a page has pageSize interactions unless it is the last one. The token does not carry the partners of
+     * the previous pages though: a partner with several interactions is on a later page again if one of them comes
+     * after the interactions of that page, whereas getInteractions returns it once.
+     *
+     * @param after    token of the page (see {@link InteractionPage#getNext()}), null for the first one
+     * @param pageSize interactions per page
+     * @return the interactions and the token of the next page, which is null after the last one
+     * @throws IllegalArgumentException if the token is not a valid one
+     */
+    public InteractionPage getInteractionPage(String acc, String resource, String after, int pageSize) throws InvalidInteractionResourceException, SQLException {
+        if (pageSize < 1) throw new IllegalArgumentException("The page size has to be at least 1");
+        Long resourceId = getResourceId(resource);
+        InteractionCursor position = after == null ? null : InteractionCursor.parse(after);
+
+        Set<String> partners = new HashSet<>();
+        List<Interaction> interactions = new ArrayList<>();
+        InteractionCursor next = null;
+        boolean more = true;
+        while (more && next == null) {
+            // One more than a page tells whether there is a next one, more are read if partners are repeated
+            List<Interaction> read = interactionDAO.getByAccAfter(acc, resourceId, position, pageSize + 1);
+            more = read.size() > pageSize;
+            for (Interaction interaction : read) {
+                if (interactions.size() == pageSize) {
+                    next = InteractionCursor.of(interactions.get(pageSize - 1));
+                    break;
+                }
+                position = InteractionCursor.of(interaction);
+                if (partners.add(interaction.getInteractorB().getAcc())) interactions.add(interaction);
+            }
+        }
+
+        setInteractionDetails(interactions);
+        return new InteractionPage(interactions, next);
+    }
+
+    /**
+     * Same interactions as getInteractions, handed over to the consumer one accession at a time instead of being
+     * returned all together, e.g. to export every interaction of a species. The interactions of an accession come
+     * from the database highest score first, so the first one of each partner is the one kept and they are already
+     * in order. Only the interactions of the accession being read are in memory.
+     *
+     * @param consumer gets the accession and each of its interactions, with their details
+     */
+    public void streamInteractions(Collection<String> accs, String resource, BiConsumer<String, Interaction> consumer) throws InvalidInteractionResourceException, SQLException {
+        Long resourceId = getResourceId(resource);
+        for (String acc : accs) {
+            Set<String> partners = new HashSet<>();
+            List<Interaction> interactions = new ArrayList<>();
+            interactionDAO.scanByAcc(acc, resourceId, interaction -> {
+                if (partners.add(interaction.getInteractorB().getAcc())) interactions.add(interaction);
+            });
+
+            // Once the accession has been read, the connection is free for the details
+            setInteractionDetails(interactions);
+            for (Interaction interaction : interactions) {
+                consumer.accept(acc, interaction);
+            }
+        }
+    }
+
+    /**
+     * Get the interactions citing a publication, highest score first
+     *
+     * @param pubmedId as in the IntAct file, e.g. 10831611
+     */
+    public List<Interaction> getInteractionsByPubmedId(String pubmedId, String resource) throws InvalidInteractionResourceException, SQLException {
+        List<Interaction> interactions = interactionDAO.getByPubmedId(pubmedId, getResourceId(resource));
+        setInteractionDetails(interactions);
+        return interactions;
+    }
+
+    /**
+     * Retrieves the details of the given interactions in a single pass, instead of one query per interaction
+     */
+    public void setInteractionDetails(List<Interaction> interactions) throws SQLException {
+        List<Long> ids = new ArrayList<>(interactions.size());
+        for (Interaction interaction : interactions) {
+            ids.add(interaction.getId());
+        }
+
+        Map<Long, List<InteractionDetails>> details = interactionDetailsDAO.getByInteractions(ids);
+        for (Interaction interaction : interactions) {
+            interaction.setInteractionDetailsList(new ArrayList<>(details.getOrDefault(interaction.getId(), Collections.emptyList())));
+        }
+    }
+
     /**
      * Count interaction by accession
      * @return Map of accession and count
@@ -126,4 +255,32 @@ public class InteractionService {
 
     }
 
+    /**
+     * Number of interactions, highest and mean score of a given list of accessions, precomputed when the database
+     * is loaded
+     * @return Map of accession and its degree, accessions without interactions are not in it
+     * @throws InvalidInteractionResourceException
+     * @throws SQLException
+     */
+    public Map<String, InteractorDegree> getDegrees(Collection<String> accs, String resource) throws InvalidInteractionResourceException, SQLException {
+        return interactorDegreeDAO.getByAccessions(accs, getResourceId(resource));
+    }
+
+    /**
+     * @return the top interactors with most interactions in the given resource, most connected first
+     * @throws InvalidInteractionResourceException
+     * @throws SQLException
+     */
+    public List<InteractorDegree> getMostConnected(String resource, int limit) throws InvalidInteractionResourceException, SQLException {
+        return interactorDegreeDAO.getMostConnected(getResourceId(resource), limit);
+    }
+
+    private Long getResourceId(String resource) throws InvalidInteractionResourceException, SQLException {
+        InteractionResource interactionResource = interactionResourceDAO.getByName(resource);
+        if(interactionResource == null){
+            throw new InvalidInteractionResourceException();
+        }
+        return interactionResource.getId();
+    }
+
 }
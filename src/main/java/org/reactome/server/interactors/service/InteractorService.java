@@ -9,6 +9,9 @@ import java.sql.SQLException;
 import java.util.List;
 
 /**
+ * Safe to be called from many threads at the same time, the queries run in parallel on the read connections of
+ * the database. Open it with {@link InteractorsDatabase.Profile#READ_ONLY} when nothing else writes to it.
+ *
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
  */
 
@@ -28,5 +31,12 @@ public class InteractorService {
         return interactorDAO.getAllAccessions();
     }
 
+    /**
+     * @return the interactors having exactly the given synonym
+     */
+    public List<Interactor> getBySynonym(String synonym) throws SQLException {
+        return interactorDAO.getBySynonym(synonym);
+    }
+
 
 }
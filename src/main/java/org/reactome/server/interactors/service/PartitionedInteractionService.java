@@ -0,0 +1,136 @@
+package org.reactome.server.interactors.service;
+
+import org.reactome.server.interactors.dao.intact.StaticDatabasePartition;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.exception.InvalidInteractionResourceException;
+import org.reactome.server.interactors.model.DatabasePartition;
+import org.reactome.server.interactors.model.Interaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Same queries as {@link InteractionService}, for a given species and minimum score. Each query goes to the
+ * smallest partition of the database holding every interaction it asks for, so the pages that have to be kept in
+ * cache are only the ones of that partition. Without such a partition the whole database is queried.
+ * <p>
+ * Interactions below the minimum score are filtered out when the database or partition queried also has lower ones.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+
+@SuppressWarnings("unused")
+public class PartitionedInteractionService {
+
+    private final Logger logger = LoggerFactory.getLogger(PartitionedInteractionService.class);
+
+    private InteractionService interactionService;
+    private File folder;
+    private List<DatabasePartition> partitions;
+    // Partitions are opened the first time they are queried
+    private Map<String, InteractionService> partitionServices = new HashMap<>();
+
+    public PartitionedInteractionService(InteractorsDatabase database) throws SQLException {
+        this.interactionService = new InteractionService(database);
+        this.folder = new File(database.getFileName()).getAbsoluteFile().getParentFile();
+
+        this.partitions = new ArrayList<>(new StaticDatabasePartition(database).getAll());
+        // Smallest first, the first one covering a query is the one to use
+        this.partitions.sort(Comparator.comparing(DatabasePartition::getInteractions));
+        logger.info("[{}] partitions available for {}", partitions.size(), database.getFileName());
+    }
+
+    /**
+     * @param taxId    species of the accessions, null if it is not known
+     * @param minScore minimum score of the interactions, null for all of them
+     * @return the smallest partition holding every interaction of the species with the given score, null if none
+     */
+    public DatabasePartition route(Integer taxId, Double minScore) {
+        for (DatabasePartition partition : partitions) {
+            if (partition.covers(taxId, minScore)) return partition;
+        }
+        return null;
+    }
+
+    /**
+     * Get paginated interactions of a given list of accessions, species and minimum score
+     * @return Map of accession as key and its interactions
+     */
+    public Map<String, List<Interaction>> getInteractions(Collection<String> accs, String resource, Integer taxId, Double minScore, Integer page, Integer pageSize) throws InvalidInteractionResourceException, SQLException {
+        DatabasePartition partition = route(taxId, minScore);
+        InteractionService service = getService(partition);
+        if (!needsFiltering(partition, minScore)) {
+            return service.getInteractions(accs, resource, page, pageSize);
+        }
+
+        Map<String, List<Interaction>> interactionMaps = service.getInteractions(accs, resource, -1, -1);
+        for (Map.Entry<String, List<Interaction>> entry : interactionMaps.entrySet()) {
+            List<Interaction> interactions = new ArrayList<>();
+            for (Interaction interaction : entry.getValue()) {
+                if (interaction.getIntactScore() >= minScore) interactions.add(interaction);
+            }
+            entry.setValue(paginate(interactions, page, pageSize));
+        }
+        return interactionMaps;
+    }
+
+    /**
+     * Get interactions of a given list of accessions, species and minimum score
+     * @return Map of accession as key and its interactions
+     */
+    public Map<String, List<Interaction>> getInteractions(Collection<String> accs, String resource, Integer taxId, Double minScore) throws InvalidInteractionResourceException, SQLException {
+        return getInteractions(accs, resource, taxId, minScore, -1, -1);
+    }
+
+    /**
+     * Count interactions by accession list, species and minimum score
+     * @return Map of accession and count
+     */
+    public Map<String, Integer> countInteractionsByAccessions(Collection<String> accs, String resource, Integer taxId, Double minScore) throws InvalidInteractionResourceException, SQLException {
+        DatabasePartition partition = route(taxId, minScore);
+        InteractionService service = getService(partition);
+        if (!needsFiltering(partition, minScore)) {
+            return service.countInteractionsByAccessions(accs, resource);
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, List<Interaction>> entry : getInteractions(accs, resource, taxId, minScore).entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().size());
+        }
+        return counts;
+    }
+
+    public List<DatabasePartition> getPartitions() {
+        return Collections.unmodifiableList(partitions);
+    }
+
+    private synchronized InteractionService getService(DatabasePartition partition) throws SQLException {
+        if (partition == null) return interactionService;
+
+        InteractionService service = partitionServices.get(partition.getFileName());
+        if (service == null) {
+            File file = new File(folder, partition.getFileName());
+            logger.info("Opening partition [{}]", file.getAbsolutePath());
+            service = new InteractionService(new InteractorsDatabase(file.getPath(), InteractorsDatabase.Profile.READ_ONLY));
+            partitionServices.put(partition.getFileName(), service);
+        }
+        return service;
+    }
+
+    private static boolean needsFiltering(DatabasePartition partition, Double minScore) {
+        if (minScore == null) return false;
+        return partition == null || minScore > partition.getMinScore();
+    }
+
+    private static List<Interaction> paginate(List<Interaction> interactions, Integer page, Integer pageSize) {
+        // Both are greater than -1, paginated is enabled
+        if (page > -1 && pageSize > -1) {
+            int from = Math.min(Math.max(pageSize * page - pageSize, 0), interactions.size());
+            return new ArrayList<>(interactions.subList(from, Math.min(from + pageSize, interactions.size())));
+        }
+        return interactions;
+    }
+}
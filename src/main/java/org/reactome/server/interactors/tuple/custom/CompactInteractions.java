@@ -0,0 +1,260 @@
+package org.reactome.server.interactors.tuple.custom;
+
+import com.googlecode.concurrenttrees.radix.RadixTree;
+import org.reactome.server.interactors.tuple.model.CustomInteraction;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Read only form of the interactions of a {@link CustomResource}, once the file has been parsed. Instead of an
+ * object per interaction, with its own list of evidences, inside a set per identifier:
+ * <pre>
+ * identifiers          every identifier and alias once, sorted, so its position is its ID (binary search)
+ * evidences            every evidence once, interactions point at them
+ * ID_A .. ALIAS_B      int[interactions]  the identifiers of each interaction (-1 for no alias)
+ * EVIDENCE_OFFSETS     int[interactions + 1] the evidences of interaction i are EVIDENCE[EVIDENCE_OFFSETS[i]] to
+ *                      EVIDENCE[EVIDENCE_OFFSETS[i + 1] - 1]
+ * EDGE_OFFSETS, EDGES  the interactions of each identifier, same layout
+ * scores               double[interactions]
+ * </pre>
+ * The int columns and the scores are on the heap or, with {@link #offHeap()}, in a direct buffer outside of it.
+ * Either way nothing is modified once built, so it can be read by any number of threads.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+class CompactInteractions {
+
+    static final int ID_A = 0;
+    static final int ALIAS_A = 1;
+    static final int ID_B = 2;
+    static final int ALIAS_B = 3;
+    static final int EVIDENCE_OFFSETS = 4;
+    static final int EVIDENCE = 5;
+    static final int EDGE_OFFSETS = 6;
+    static final int EDGES = 7;
+    static final int SECTIONS = 8;
+
+    private String[] identifiers;
+    private String[] evidences;
+    private int size;
+
+    // As CustomResource counts them: interactions are the same if they have the same pair of identifiers
+    private int interactions;
+    private int interactors;
+
+    // On the heap
+    private int[][] columns;
+    private double[] scores;
+
+    // Off the heap, position of each section and then of the scores
+    private ByteBuffer buffer;
+    private int[] positions;
+
+    CompactInteractions(String[] identifiers, String[] evidences, int[][] columns, double[] scores, int interactions, int interactors) {
+        this.identifiers = identifiers;
+        this.evidences = evidences;
+        this.columns = columns;
+        this.scores = scores;
+        this.size = scores.length;
+        this.interactions = interactions;
+        this.interactors = interactors;
+    }
+
+    private CompactInteractions(String[] identifiers, String[] evidences, ByteBuffer buffer, int[] positions, int size, int interactions, int interactors) {
+        this.identifiers = identifiers;
+        this.evidences = evidences;
+        this.buffer = buffer;
+        this.positions = positions;
+        this.size = size;
+        this.interactions = interactions;
+        this.interactors = interactors;
+    }
+
+    /**
+     * Interactions are numbered in the order they are found walking the identifiers, so the ones of the same
+     * identifier are mostly next to each other
+     */
+    static CompactInteractions of(RadixTree<Set<TreeInteraction>> tree) {
+        List<String> keys = new ArrayList<>();
+        for (CharSequence key : tree.getKeysStartingWith("")) {
+            keys.add(key.toString());
+        }
+        String[] identifiers = keys.toArray(new String[0]);
+        Arrays.sort(identifiers);
+
+        Map<TreeInteraction, Integer> rows = new IdentityHashMap<>();
+        List<TreeInteraction> order = new ArrayList<>();
+        int[] edgeOffsets = new int[identifiers.length + 1];
+        int[] edges = new int[16];
+        int position = 0;
+        for (int i = 0; i < identifiers.length; i++) {
+            for (TreeInteraction interaction : tree.getValueForExactKey(identifiers[i])) {
+                Integer row = rows.get(interaction);
+                if (row == null) {
+                    row = order.size();
+                    rows.put(interaction, row);
+                    order.add(interaction);
+                }
+                if (position == edges.length) edges = Arrays.copyOf(edges, position * 2);
+                edges[position++] = row;
+            }
+            edgeOffsets[i + 1] = position;
+        }
+
+        int size = order.size();
+        int[][] columns = new int[SECTIONS][];
+        columns[ID_A] = new int[size];
+        columns[ALIAS_A] = new int[size];
+        columns[ID_B] = new int[size];
+        columns[ALIAS_B] = new int[size];
+        columns[EVIDENCE_OFFSETS] = new int[size + 1];
+        columns[EDGE_OFFSETS] = edgeOffsets;
+        columns[EDGES] = Arrays.copyOf(edges, position);
+        double[] scores = new double[size];
+
+        Map<String, Integer> pool = new HashMap<>();
+        List<String> evidences = new ArrayList<>();
+        int[] evidence = new int[size];
+        int evidenceSize = 0;
+        Set<String> interactors = new HashSet<>();
+        for (int row = 0; row < size; row++) {
+            TreeInteraction interaction = order.get(row);
+            columns[ID_A][row] = find(identifiers, interaction.getIdA());
+            columns[ALIAS_A][row] = find(identifiers, interaction.getAliasA());
+            columns[ID_B][row] = find(identifiers, interaction.getIdB());
+            columns[ALIAS_B][row] = find(identifiers, interaction.getAliasB());
+            scores[row] = interaction.getScore();
+            interactors.add(interaction.getIdA());
+            interactors.add(interaction.getIdB());
+
+            if (interaction.getEvidence() != null) {
+                for (String value : interaction.getEvidence()) {
+                    Integer index = pool.get(value);
+                    if (index == null) {
+                        index = evidences.size();
+                        pool.put(value, index);
+                        evidences.add(value);
+                    }
+                    if (evidenceSize == evidence.length) evidence = Arrays.copyOf(evidence, Math.max(16, evidenceSize * 2));
+                    evidence[evidenceSize++] = index;
+                }
+            }
+            columns[EVIDENCE_OFFSETS][row + 1] = evidenceSize;
+        }
+        columns[EVIDENCE] = Arrays.copyOf(evidence, evidenceSize);
+
+        return new CompactInteractions(identifiers, evidences.toArray(new String[0]), columns, scores, new HashSet<>(order).size(), interactors.size());
+    }
+
+    /**
+     * @return the same interactions, with the int columns and the scores in a direct buffer
+     */
+    CompactInteractions offHeap() {
+        if (buffer != null) return this;
+
+        int[] positions = new int[SECTIONS + 1];
+        long position = 0;
+        for (int section = 0; section < SECTIONS; section++) {
+            positions[section] = (int) position;
+            position += 4L * columns[section].length;
+        }
+        position = (position + 7) & ~7L;
+        positions[SECTIONS] = (int) position;
+        position += 8L * size;
+        if (position > Integer.MAX_VALUE) throw new IllegalStateException("Too many interactions to be kept off the heap");
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) position).order(ByteOrder.nativeOrder());
+        for (int section = 0; section < SECTIONS; section++) {
+            for (int i = 0; i < columns[section].length; i++) {
+                buffer.putInt(positions[section] + i * 4, columns[section][i]);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(positions[SECTIONS] + i * 8, scores[i]);
+        }
+
+        return new CompactInteractions(identifiers, evidences, buffer, positions, size, interactions, interactors);
+    }
+
+    boolean isOffHeap() {
+        return buffer != null;
+    }
+
+    Set<CustomInteraction> get(String identifier) {
+        Set<CustomInteraction> rtn = new HashSet<>();
+        int id = find(identifiers, identifier);
+        if (id < 0) return rtn;
+
+        for (int edge = get(EDGE_OFFSETS, id); edge < get(EDGE_OFFSETS, id + 1); edge++) {
+            int row = get(EDGES, edge);
+            CustomInteraction i = new CustomInteraction();
+            i.setInteractorIdA(getIdentifier(get(ID_A, row)));
+            i.setInteractorAliasA(getIdentifier(get(ALIAS_A, row)));
+
+            i.setInteractorIdB(getIdentifier(get(ID_B, row)));
+            i.setInteractorAliasB(getIdentifier(get(ALIAS_B, row)));
+
+            i.setConfidenceValue(getScore(row));
+            i.setEvidence(getEvidence(row));
+
+            rtn.add(i);
+        }
+        return rtn;
+    }
+
+    int getInteractions() {
+        return interactions;
+    }
+
+    int getInteractors() {
+        return interactors;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String[] getIdentifiers() {
+        return identifiers;
+    }
+
+    String[] getEvidences() {
+        return evidences;
+    }
+
+    int get(int section, int index) {
+        if (buffer != null) return buffer.getInt(positions[section] + index * 4);
+        return columns[section][index];
+    }
+
+    double getScore(int row) {
+        if (buffer != null) return buffer.getDouble(positions[SECTIONS] + row * 8);
+        return scores[row];
+    }
+
+    /**
+     * @return the evidences of the interaction, null if it has none (as TreeInteraction)
+     */
+    private List<String> getEvidence(int row) {
+        int from = get(EVIDENCE_OFFSETS, row);
+        int to = get(EVIDENCE_OFFSETS, row + 1);
+        if (from == to) return null;
+        List<String> rtn = new LinkedList<>();
+        for (int i = from; i < to; i++) {
+            rtn.add(evidences[get(EVIDENCE, i)]);
+        }
+        return rtn;
+    }
+
+    private String getIdentifier(int id) {
+        return id < 0 ? null : identifiers[id];
+    }
+
+    private static int find(String[] identifiers, String identifier) {
+        if (identifier == null) return -1;
+        int id = Arrays.binarySearch(identifiers, identifier);
+        return id < 0 ? -1 : id;
+    }
+}
@@ -17,12 +17,20 @@ public class CustomResource {
 
     private RadixTree<Set<TreeInteraction>> tree;
 
+    /** Once compacted the tree is dropped and the interactions are read from here **/
+    private CompactInteractions compact;
+
     public CustomResource() {
         NodeFactory nodeFactory = new DefaultCharSequenceNodeFactory();
         this.tree = new ConcurrentRadixTree<>(nodeFactory);
     }
 
+    CustomResource(CompactInteractions compact) {
+        this.compact = compact;
+    }
+
     public TreeInteraction add(CustomInteraction customInteraction) {
+        checkNotCompact();
         TreeInteraction interaction = new TreeInteraction();
         interaction.setScore(customInteraction.getConfidenceValue());
 
@@ -63,6 +71,7 @@ public class CustomResource {
     }
 
     public Set<CustomInteraction> get(String identifier) {
+        if (compact != null) return compact.get(identifier);
         Set<TreeInteraction> aux = tree.getValueForExactKey(identifier);
         if (aux == null) return new HashSet<>();
         Set<CustomInteraction> rtn = new HashSet<>();
@@ -83,6 +92,7 @@ public class CustomResource {
     }
 
     public int getInteractions() {
+        if (compact != null) return compact.getInteractions();
         Set<TreeInteraction> interactions = new HashSet<>();
         for (CharSequence charSequence : tree.getKeysStartingWith("")) {
             interactions.addAll(tree.getValueForExactKey(charSequence));
@@ -91,6 +101,7 @@ public class CustomResource {
     }
 
     public int getInteractors() {
+        if (compact != null) return compact.getInteractors();
         Set<String> interactors = new HashSet<>();
         for (CharSequence charSequence : tree.getKeysStartingWith("")) {
             for (TreeInteraction interaction : tree.getValueForExactKey(charSequence)) {
@@ -109,6 +120,7 @@ public class CustomResource {
      * @return true if duplicate has found
      */
     public boolean checkForDuplicates(CustomInteraction interaction) {
+        checkNotCompact();
         boolean hasDuplicate = false;
 
         /** Do not consider as duplicate if we just added a new evidence **/
@@ -181,6 +193,45 @@ public class CustomResource {
         return hasDuplicate;
     }
 
+    /**
+     * Replaces the tree by a {@link CompactInteractions}, once every interaction has been added. Identifiers become
+     * int IDs, each evidence is kept once and the interactions are arrays of ints instead of objects, so the
+     * resource takes a fraction of the heap and counting its interactions and interactors is immediate.
+     * get(identifier) returns the same interactions as before.
+     * <p>
+     * No interaction can be added or checked for duplicates afterwards.
+     *
+     * @param offHeap true to keep the arrays in a direct buffer, out of the heap
+     */
+    public synchronized void compact(boolean offHeap) {
+        if (compact == null) {
+            compact = CompactInteractions.of(tree);
+            tree = null;
+        }
+        if (offHeap) compact = compact.offHeap();
+    }
+
+    public void compact() {
+        compact(false);
+    }
+
+    public boolean isCompact() {
+        return compact != null;
+    }
+
+    /**
+     * The interactions as {@link CompactInteractions}, for {@link CustomResourceSerializer}. The resource is not
+     * compacted if it was not already.
+     */
+    CompactInteractions getCompactInteractions() {
+        CompactInteractions compact = this.compact;
+        return compact != null ? compact : CompactInteractions.of(tree);
+    }
+
+    private void checkNotCompact() {
+        if (compact != null) throw new IllegalStateException("The resource has been compacted, it can't be modified");
+    }
+
     private Set<TreeInteraction> getOrCreateInteractions(String identifier) {
         Set<TreeInteraction> interactions = tree.getValueForExactKey(identifier);
         if (interactions == null) {
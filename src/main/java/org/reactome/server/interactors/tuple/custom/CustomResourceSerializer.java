@@ -0,0 +1,152 @@
+package org.reactome.server.interactors.tuple.custom;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.reactome.server.interactors.tuple.model.Summary;
+import org.reactome.server.interactors.tuple.model.TupleResult;
+
+import java.util.*;
+
+/**
+ * Kryo serializer of a {@link CustomResource}. Instead of the radix tree, nodes and all, it writes its
+ * {@link CompactInteractions}: the identifiers and the evidences once each, and then each interaction with its
+ * identifiers and evidences as indexes, and each identifier with the indexes of its interactions. Indexes are
+ * variable length, so most of them take one or two bytes.
+ * <p>
+ * Resources are read compacted (on the heap), with the same interactions under the same identifiers.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class CustomResourceSerializer extends Serializer<CustomResource> {
+
+    private static final int VERSION = 2;
+
+    /**
+     * Registers the classes of a {@link TupleResult}, so Kryo writes an ID instead of the name of each class.
+     * The order matters, files are read with the IDs they were written with.
+     */
+    public static void register(Kryo kryo) {
+        kryo.setRegistrationRequired(true);
+        kryo.register(TupleResult.class, 20);
+        kryo.register(Summary.class, 21);
+        kryo.register(CustomResource.class, new CustomResourceSerializer(), 22);
+        kryo.register(ArrayList.class, 23);
+        kryo.register(LinkedList.class, 24);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, CustomResource resource) {
+        CompactInteractions compact = resource.getCompactInteractions();
+
+        output.writeVarInt(VERSION, true);
+        writeStrings(output, compact.getIdentifiers());
+        writeStrings(output, compact.getEvidences());
+        output.writeVarInt(compact.getInteractions(), true);
+        output.writeVarInt(compact.getInteractors(), true);
+
+        output.writeVarInt(compact.size(), true);
+        for (int row = 0; row < compact.size(); row++) {
+            output.writeDouble(compact.getScore(row));
+            // Aliases are optional, -1 is written as 0
+            output.writeVarInt(compact.get(CompactInteractions.ID_A, row), true);
+            output.writeVarInt(compact.get(CompactInteractions.ALIAS_A, row) + 1, true);
+            output.writeVarInt(compact.get(CompactInteractions.ID_B, row), true);
+            output.writeVarInt(compact.get(CompactInteractions.ALIAS_B, row) + 1, true);
+            writeRange(output, compact, CompactInteractions.EVIDENCE_OFFSETS, CompactInteractions.EVIDENCE, row);
+        }
+
+        for (int id = 0; id < compact.getIdentifiers().length; id++) {
+            writeRange(output, compact, CompactInteractions.EDGE_OFFSETS, CompactInteractions.EDGES, id);
+        }
+    }
+
+    @Override
+    public CustomResource read(Kryo kryo, Input input, Class<CustomResource> type) {
+        int version = input.readVarInt(true);
+        if (version != VERSION) {
+            throw new KryoException("Custom resource version " + version + " can't be read, version " + VERSION + " is expected");
+        }
+
+        String[] identifiers = readStrings(input);
+        String[] evidences = readStrings(input);
+        int interactions = input.readVarInt(true);
+        int interactors = input.readVarInt(true);
+
+        int size = input.readVarInt(true);
+        int[][] columns = new int[CompactInteractions.SECTIONS][];
+        columns[CompactInteractions.ID_A] = new int[size];
+        columns[CompactInteractions.ALIAS_A] = new int[size];
+        columns[CompactInteractions.ID_B] = new int[size];
+        columns[CompactInteractions.ALIAS_B] = new int[size];
+        double[] scores = new double[size];
+        List<int[]> evidence = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            scores[row] = input.readDouble();
+            columns[CompactInteractions.ID_A][row] = input.readVarInt(true);
+            columns[CompactInteractions.ALIAS_A][row] = input.readVarInt(true) - 1;
+            columns[CompactInteractions.ID_B][row] = input.readVarInt(true);
+            columns[CompactInteractions.ALIAS_B][row] = input.readVarInt(true) - 1;
+            evidence.add(readRange(input));
+        }
+        readRanges(evidence, columns, CompactInteractions.EVIDENCE_OFFSETS, CompactInteractions.EVIDENCE);
+
+        List<int[]> edges = new ArrayList<>(identifiers.length);
+        for (int id = 0; id < identifiers.length; id++) {
+            edges.add(readRange(input));
+        }
+        readRanges(edges, columns, CompactInteractions.EDGE_OFFSETS, CompactInteractions.EDGES);
+
+        return new CustomResource(new CompactInteractions(identifiers, evidences, columns, scores, interactions, interactors));
+    }
+
+    private static void writeStrings(Output output, String[] strings) {
+        output.writeVarInt(strings.length, true);
+        for (String string : strings) {
+            output.writeString(string);
+        }
+    }
+
+    private static String[] readStrings(Input input) {
+        String[] strings = new String[input.readVarInt(true)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readString();
+        }
+        return strings;
+    }
+
+    /**
+     * Writes the values of the given section from offsets[index] to offsets[index + 1], preceded by their number
+     */
+    private static void writeRange(Output output, CompactInteractions compact, int offsets, int section, int index) {
+        int from = compact.get(offsets, index);
+        int to = compact.get(offsets, index + 1);
+        output.writeVarInt(to - from, true);
+        for (int i = from; i < to; i++) {
+            output.writeVarInt(compact.get(section, i), true);
+        }
+    }
+
+    private static int[] readRange(Input input) {
+        int[] range = new int[input.readVarInt(true)];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = input.readVarInt(true);
+        }
+        return range;
+    }
+
+    private static void readRanges(List<int[]> ranges, int[][] columns, int offsets, int section) {
+        int[] positions = new int[ranges.size() + 1];
+        for (int i = 0; i < ranges.size(); i++) {
+            positions[i + 1] = positions[i] + ranges.get(i).length;
+        }
+        int[] values = new int[positions[ranges.size()]];
+        for (int i = 0; i < ranges.size(); i++) {
+            System.arraycopy(ranges.get(i), 0, values, positions[i], ranges.get(i).length);
+        }
+        columns[offsets] = positions;
+        columns[section] = values;
+    }
+}
@@ -0,0 +1,153 @@
+package org.reactome.server.interactors.tuple.custom;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.reactome.server.interactors.tuple.model.TupleResult;
+import org.reactome.server.interactors.util.InteractorConstant;
+import org.reactome.server.interactors.util.ResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Uploaded tuple and PSI-MITAB files, parsed, kept on disk by their token (e.g. PSI-12345) with
+ * {@link CustomResourceSerializer}. Only the most used ones stay in the heap, up to a number of interactions, and
+ * the rest are read again from disk when they are asked for, which takes a few milliseconds instead of parsing the
+ * file again.
+ * <p>
+ * It is thread safe. Concurrent requests for a token that is not in the heap read its file once.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class CustomResourceStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomResourceStore.class);
+
+    public static final long DEFAULT_MAXIMUM_INTERACTIONS = 2_000_000;
+    public static final long DEFAULT_TIME_TO_LIVE = 60 * 60 * 1000;
+
+    private static final int MAGIC = 0x43525331; // CRS1
+    private static final String EXTENSION = ".bin";
+    // Tokens become file names, nothing but the prefix, letters, digits, - and _
+    private static final Pattern TOKEN = Pattern.compile(Pattern.quote(InteractorConstant.TUPLE_PREFIX) + "[A-Za-z0-9_-]+");
+
+    private static final ThreadLocal<Kryo> kryos = ThreadLocal.withInitial(() -> {
+        Kryo kryo = new Kryo();
+        CustomResourceSerializer.register(kryo);
+        return kryo;
+    });
+
+    private File folder;
+    private long timeToLive;
+    private ResultCache<String, TupleResult> heap;
+
+    public CustomResourceStore(File folder) throws IOException {
+        this(folder, DEFAULT_MAXIMUM_INTERACTIONS, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * @param maximumInteractions interactions of the uploads kept in the heap
+     * @param timeToLive          milliseconds an upload stays in the heap once read
+     */
+    public CustomResourceStore(File folder, long maximumInteractions, long timeToLive) throws IOException {
+        this.folder = folder;
+        this.timeToLive = timeToLive;
+        this.heap = new ResultCache<>(maximumInteractions, result -> {
+            Integer interactions = result.getSummary() == null ? null : result.getSummary().getInteractions();
+            return interactions == null ? 1 : interactions;
+        });
+        Files.createDirectories(folder.toPath());
+    }
+
+    /**
+     * Writes the upload to disk under the token of its summary, replacing the previous one with the same token
+     */
+    public void save(TupleResult result) throws IOException {
+        String token = result.getSummary() == null ? null : result.getSummary().getToken();
+        File file = getFile(token);
+        File temporary = new File(folder, file.getName() + ".tmp");
+
+        long start = System.currentTimeMillis();
+        try (Output output = new Output(new FileOutputStream(temporary), 1 << 16)) {
+            output.writeInt(MAGIC);
+            kryos.get().writeObject(output, result);
+        } catch (KryoException e) {
+            Files.deleteIfExists(temporary.toPath());
+            throw new IOException("Upload [" + token + "] could not be written", e);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        heap.invalidate(token);
+        logger.debug("Upload [{}] written in [{}.ms], [{} KB]", token, System.currentTimeMillis() - start, file.length() / 1024);
+    }
+
+    /**
+     * @return the upload of the given token, null if there is none
+     */
+    public TupleResult get(String token) throws IOException {
+        File file = getFile(token);
+        try {
+            return heap.getAll(Collections.singletonList(token), timeToLive, tokens -> read(token, file)).get(token);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    public boolean contains(String token) {
+        return token != null && TOKEN.matcher(token).matches() && getFile(token).exists();
+    }
+
+    /**
+     * Removes the upload from the heap, it is read from disk again next time
+     */
+    public void evict(String token) {
+        heap.invalidate(token);
+    }
+
+    /**
+     * Removes the upload from the heap and from disk
+     *
+     * @return true if there was an upload with the given token
+     */
+    public boolean delete(String token) throws IOException {
+        heap.invalidate(token);
+        return Files.deleteIfExists(getFile(token).toPath());
+    }
+
+    public ResultCache<String, TupleResult> getHeap() {
+        return heap;
+    }
+
+    private Map<String, TupleResult> read(String token, File file) throws IOException {
+        if (!file.exists()) return Collections.emptyMap();
+
+        long start = System.currentTimeMillis();
+        try (Input input = new Input(new FileInputStream(file), 1 << 16)) {
+            if (input.readInt() != MAGIC) throw new IOException(file.getPath() + " is not an upload");
+            TupleResult result = kryos.get().readObject(input, TupleResult.class);
+            logger.debug("Upload [{}] read in [{}.ms]", token, System.currentTimeMillis() - start);
+            return Collections.singletonMap(token, result);
+        } catch (KryoException e) {
+            throw new IOException("Upload [" + token + "] could not be read", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is not a valid one
+     */
+    private File getFile(String token) {
+        if (token == null || !TOKEN.matcher(token).matches()) {
+            throw new IllegalArgumentException("Invalid token [" + token + "]");
+        }
+        return new File(folder, token + EXTENSION);
+    }
+}
@@ -13,6 +13,7 @@ import org.reactome.server.interactors.tuple.model.TupleResult;
 import org.reactome.server.interactors.tuple.parser.response.Response;
 import org.reactome.server.interactors.tuple.util.FileDefinition;
 import org.reactome.server.interactors.util.InteractorConstant;
+import org.reactome.server.interactors.util.MitabLine;
 import psidev.psi.mi.tab.PsimiTabException;
 import psidev.psi.mi.tab.PsimiTabReader;
 import uk.ac.ebi.enfin.mi.cluster.ClusterServiceException;
@@ -29,17 +30,24 @@ import java.util.Map;
  */
 public class PsimiTabParser extends CommonParser {
 
+    /** PSI-MITAB 2.5 has 15 columns, later versions add columns to it **/
+    private static final int MITAB_MIN_COLUMNS = 15;
+
     @Override
     public TupleResult parse(List<String> input) throws ParserException {
         int avoidedByScore = 0;
 
         /** This is a work-around because the PSI-MITAB reader didn't work fine with the iterator **/
-        String file = "";
+        int length = 0;
+        for (String line : input) {
+            length += line.length() + 1;
+        }
+        StringBuilder file = new StringBuilder(length);
         for (String line : input) {
-            file += line + "\n";
+            file.append(line).append('\n');
         }
 
-        InputStream is = new ByteArrayInputStream(file.getBytes());
+        InputStream is = new ByteArrayInputStream(file.toString().getBytes());
 
         /** Run cluster using list of binary interactions as input **/
         String mappingIdDbNames = "uniprotkb,chebi,intact,irefindex,ddbj/embl/genbank,refseq,unknown";
@@ -96,6 +104,8 @@ public class PsimiTabParser extends CommonParser {
             warningResponses.add(Response.getMessage(Response.AVOIDED_SCORE, avoidedByScore, InteractorConstant.MINIMUM_VALID_SCORE));
         }
 
+        customResource.compact();
+
         Summary summary = new Summary();
         summary.setInteractions(customResource.getInteractions());
         summary.setInteractors(customResource.getInteractors());
@@ -110,13 +120,20 @@ public class PsimiTabParser extends CommonParser {
 
     @Override
     public FileDefinition getParserDefinition(List<String> lines) {
+        /** Every line is checked with the tokenizer first, so other formats are discarded without the PSI-MITAB reader.
+         *  The ones that pass are still validated by the reader, all of them **/
+        MitabLine mitabLine = new MitabLine();
+        for (String line : lines) {
+            if (isCommentOrBlank(line)) continue;
+            if (!isMitabLine(mitabLine.parse(line))) return null;
+        }
+
         PsimiTabReader mitabReader = new PsimiTabReader();
         try {
             for (String line : lines) {
                 mitabReader.readLine(line);
             }
 
-            // TODO try stopping parse after some lines. Summary can provide more details
             return FileDefinition.PSIMITAB_DATA;
 
         } catch (PsimiTabException e) {
@@ -124,6 +141,24 @@ public class PsimiTabParser extends CommonParser {
         }
     }
 
+    private boolean isCommentOrBlank(String line) {
+        return line.isEmpty() || line.charAt(0) == '#' || line.trim().isEmpty();
+    }
+
+    /**
+     * Enough columns and the interactor identifiers are either empty or a xref, e.g. uniprotkb:P12345
+     */
+    private boolean isMitabLine(MitabLine line) {
+        if (line.size() < MITAB_MIN_COLUMNS) return false;
+        for (int field = 0; field < 2; field++) {
+            if (line.isEmpty(field)) continue;
+            int start = line.start(field);
+            int prefixEnd = MitabLine.prefixEnd(line.getLine(), start, line.end(field));
+            if (prefixEnd <= start) return false;
+        }
+        return true;
+    }
+
     /**
      * Prepare the CustomInteraction to be stored based on the EncoreInteraction
      *
@@ -68,6 +68,8 @@ public class TupleParser extends CommonParser {
             throw new TupleParserException("Error parsing your interactors overlay", errorResponses);
         }
 
+        customResource.compact();
+
         Summary summary = new Summary();
         summary.setInteractions(customResource.getInteractions());
         summary.setInteractors(customResource.getInteractors());
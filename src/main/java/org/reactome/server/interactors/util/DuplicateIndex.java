@@ -0,0 +1,141 @@
+package org.reactome.server.interactors.util;
+
+/**
+ * Set of (accession A, accession B) pairs used to find duplicate interactions while parsing.
+ * By default the pairs are not kept, only a 64-bit hash of each pair in a primitive open addressing table,
+ * so the memory used is 8 bytes per slot no matter how big the interactions are. With 64 bits a false
+ * duplicate is very unlikely, though possible.
+ * <p>
+ * In exact mode the pair itself is kept next to its hash and compared when the hashes match, so two
+ * different pairs are never taken for the same one. It costs the memory of the pairs.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class DuplicateIndex {
+
+    private static final float LOAD_FACTOR = 0.6f;
+    // 0 means empty slot, a pair hashing to 0 is stored as this value
+    private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+    private final boolean exact;
+    private long[] keys;
+    // Only in exact mode, the pair in each slot
+    private String[] pairs;
+    private int size;
+    private int threshold;
+
+    public DuplicateIndex(int expectedSize, boolean exact) {
+        this.exact = exact;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @return true if the pair has been added, false if it was already there (duplicate)
+     */
+    public boolean add(String accA, String accB) {
+        long key = nonZero(hash(accA, accB));
+        String pair = exact ? pair(accA, accB) : null;
+
+        int slot = find(key, pair);
+        if (keys[slot] != 0) return false;
+
+        keys[slot] = key;
+        if (exact) pairs[slot] = pair;
+        if (++size > threshold) grow();
+        return true;
+    }
+
+    public boolean contains(String accA, String accB) {
+        long key = nonZero(hash(accA, accB));
+        return keys[find(key, exact ? pair(accA, accB) : null)] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * 64-bit hash of the pair, the slot is taken from its low bits
+     */
+    protected long hash(String accA, String accB) {
+        long hashA = hash(accA, 0xCBF29CE484222325L);
+        long hashB = hash(accB, 0xCBF29CE484222325L);
+        return mix(hashA * 0x9E3779B97F4A7C15L + hashB);
+    }
+
+    /**
+     * @return the slot of the pair or, if it is not there, the empty slot where it goes
+     */
+    private int find(long key, String pair) {
+        int mask = keys.length - 1;
+        int slot = (int) key & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key && (!exact || pairs[slot].equals(pair))) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        pairs = exact ? new String[capacity] : null;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        String[] oldPairs = pairs;
+        allocate(keys.length << 1);
+
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            int slot = (int) oldKeys[i] & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            if (exact) pairs[slot] = oldPairs[i];
+        }
+    }
+
+    /**
+     * Accessions have no tabs, so it can't be the same for two different pairs
+     */
+    private static String pair(String accA, String accB) {
+        return accA + '\t' + accB;
+    }
+
+    /**
+     * FNV-1a over the chars of the accession
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Final mixing step of MurmurHash3, spreads the bits so the low ones can be used as slot
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long nonZero(long key) {
+        return key == 0 ? ZERO_REPLACEMENT : key;
+    }
+}
@@ -4,8 +4,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.UUID;
 
 /**
  * @author Guilherme S Viteri (gviteri@ebi.ac.uk)
@@ -20,11 +23,16 @@ public class InteractorDatabaseGenerator {
     }
 
     public static void create(Connection connection, boolean close) {
-        logger.info("Creating interactors database.");
+        create(connection, close, true);
+    }
 
-        try {
-            Statement statement = connection.createStatement();
+    /**
+     * @param createIndexes false when the indexes are built after loading the data, see {@link #finishBulkBuild(Connection, boolean)}
+     */
+    public static void create(Connection connection, boolean close, boolean createIndexes) {
+        logger.info("Creating interactors database.");
 
+        try (Statement statement = connection.createStatement()) {
             // Create our tables
             logger.info("Creating table Interactor_Resource.");
             statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTOR_RESOURCE);
@@ -41,12 +49,24 @@ public class InteractorDatabaseGenerator {
             logger.info("Creating participants");
             statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTION_DETAILS);
 
+            logger.info("Creating ingest checkpoint");
+            statement.executeUpdate(QueryStatement.CREATE_TABLE_INGEST_CHECKPOINT);
+
+            logger.info("Creating content stamp");
+            statement.executeUpdate(QueryStatement.CREATE_TABLE_CONTENT_STAMP);
+
+            logger.info("Creating partition registry");
+            statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTOR_PARTITION);
+
+            logger.info("Creating interactor degree");
+            statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTOR_DEGREE);
+
             // Create indexes
-            logger.info("Creating indexes");
-            statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_ACC_INDEX);
-            statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_A_INDEX);
-            statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_B_INDEX);
-            statement.executeUpdate(QueryStatement.CREATE_INTERACTION_DETAILS_ID_INDEX);
+            if (createIndexes) {
+                createIndexes(statement);
+            } else {
+                logger.info("Indexes will be created once the data is loaded");
+            }
 
             // Pre-populate tables
             logger.info("Populate table interaction resource");
@@ -76,5 +96,113 @@ public class InteractorDatabaseGenerator {
             }
         }
     }
-}
 
+    /**
+     * Finishes a database built with the bulk build profile: creates the indexes if they have been deferred,
+     * counts the interactions of each interactor, splits the publications and synonyms into their tables,
+     * switches the journal back to a single file, which is what the read-only consumers want, and refreshes
+     * the query planner statistics before compacting the file.
+     *
+     * @param createIndexes true if the indexes were not created with the tables
+     */
+    public static void finishBulkBuild(Connection connection, boolean createIndexes) throws SQLException {
+        finishBulkBuild(connection, createIndexes, false);
+    }
+
+    /**
+     * @param createIndexes true if the indexes were not created with the tables
+     * @param adjacency     true to build INTERACTION_ADJACENCY as well
+     */
+    public static void finishBulkBuild(Connection connection, boolean createIndexes, boolean adjacency) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (createIndexes) {
+                createIndexes(statement);
+            }
+
+            refreshDegrees(statement);
+            refreshReferences(statement);
+            if (adjacency) {
+                refreshAdjacency(statement);
+            }
+            stampContent(connection);
+
+            logger.info("Switching the database to the read-optimised configuration");
+            statement.execute("PRAGMA journal_mode = DELETE");
+            statement.execute("PRAGMA synchronous = FULL");
+
+            logger.info("Analysing the database");
+            statement.executeUpdate("ANALYZE");
+
+            logger.info("Vacuuming the database");
+            statement.executeUpdate("VACUUM");
+        }
+    }
+
+    /**
+     * Replaces the CONTENT_STAMP by a new one once the content has been loaded or updated, so the snapshots written
+     * before are not taken for this content. It is kept in the database, a copy of the file has the same one.
+     * Transaction handling is up to the caller.
+     */
+    public static void stampContent(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(QueryStatement.CREATE_TABLE_CONTENT_STAMP);
+        }
+        try (PreparedStatement pstm = connection.prepareStatement(QueryStatement.UPDATE_CONTENT_STAMP)) {
+            pstm.setString(1, UUID.randomUUID().toString());
+            pstm.executeUpdate();
+        }
+    }
+
+    /**
+     * Builds again the tables derived from INTERACTION and INTERACTOR once they have changed: INTERACTOR_DEGREE,
+     * INTERACTION_PUBMED, INTERACTOR_SYNONYM and INTERACTION_ADJACENCY if the database has it. They are built
+     * from scratch, which also brings them to the current definition in databases that predate it. Transaction
+     * handling is up to the caller.
+     */
+    public static void refreshDerivedTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            refreshDegrees(statement);
+            refreshReferences(statement);
+
+            ResultSet rs = statement.executeQuery("SELECT 1 FROM SQLITE_MASTER WHERE TYPE = 'table' AND NAME = 'INTERACTION_ADJACENCY'");
+            boolean adjacency = rs.next();
+            rs.close();
+            if (adjacency) {
+                refreshAdjacency(statement);
+            }
+        }
+    }
+
+    private static void refreshDegrees(Statement statement) throws SQLException {
+        logger.info("Counting the interactions of each interactor");
+        statement.executeUpdate("DROP TABLE IF EXISTS INTERACTOR_DEGREE");
+        statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTOR_DEGREE);
+        statement.executeUpdate(QueryStatement.POPULATE_INTERACTOR_DEGREE);
+        statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_DEGREE_INDEX);
+    }
+
+    private static void refreshReferences(Statement statement) throws SQLException {
+        logger.info("Splitting the publications and synonyms");
+        statement.executeUpdate("DROP TABLE IF EXISTS INTERACTION_PUBMED");
+        statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTION_PUBMED);
+        statement.executeUpdate(QueryStatement.POPULATE_INTERACTION_PUBMED);
+        statement.executeUpdate("DROP TABLE IF EXISTS INTERACTOR_SYNONYM");
+        statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTOR_SYNONYM);
+        statement.executeUpdate(QueryStatement.POPULATE_INTERACTOR_SYNONYM);
+    }
+
+    private static void refreshAdjacency(Statement statement) throws SQLException {
+        logger.info("Building the interaction adjacency");
+        statement.executeUpdate("DROP TABLE IF EXISTS INTERACTION_ADJACENCY");
+        statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTION_ADJACENCY);
+        statement.executeUpdate(QueryStatement.POPULATE_INTERACTION_ADJACENCY);
+    }
+
+    private static void createIndexes(Statement statement) throws SQLException {
+        logger.info("Creating indexes");
+        statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_ACC_INDEX);
+        statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_A_INDEX);
+        statement.executeUpdate(QueryStatement.CREATE_INTERACTOR_B_INDEX);
+        statement.executeUpdate(QueryStatement.CREATE_INTERACTION_DETAILS_ID_INDEX);
+    }
+}
@@ -0,0 +1,187 @@
+package org.reactome.server.interactors.util;
+
+/**
+ * Index based tokenizer for PSI-MITAB lines. The line is scanned once for the tab separators and the
+ * fields are given as [start, end) positions in the line, so nothing is allocated until a value is
+ * actually needed. An instance is meant to be reused for every line read by the same thread.
+ * <p>
+ * Within a field, entries are separated by "|" and each entry is a xref like "uniprotkb:P12345". The
+ * static helpers below walk entries, prefixes and values using positions as well.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class MitabLine {
+
+    public static final char FIELD_SEPARATOR = '\t';
+    public static final char ENTRY_SEPARATOR = '|';
+    public static final char PREFIX_SEPARATOR = ':';
+    public static final String EMPTY = "-";
+
+    private CharSequence line;
+    // starts[i] is where field i begins. Field i ends one position before starts[i + 1]
+    private int[] starts = new int[48];
+    private int size;
+
+    public MitabLine parse(CharSequence line) {
+        this.line = line;
+        size = 0;
+        starts[size++] = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == FIELD_SEPARATOR) {
+                if (size == starts.length - 1) {
+                    int[] aux = new int[starts.length * 2];
+                    System.arraycopy(starts, 0, aux, 0, size);
+                    starts = aux;
+                }
+                starts[size++] = i + 1;
+            }
+        }
+        starts[size] = line.length() + 1;
+        return this;
+    }
+
+    public CharSequence getLine() {
+        return line;
+    }
+
+    /**
+     * @return the number of fields in the line
+     */
+    public int size() {
+        return size;
+    }
+
+    public int start(int field) {
+        checkField(field);
+        return starts[field];
+    }
+
+    public int end(int field) {
+        checkField(field);
+        return starts[field + 1] - 1;
+    }
+
+    public String field(int field) {
+        return substring(line, start(field), end(field));
+    }
+
+    /**
+     * @return true if the field is the MITAB empty value "-"
+     */
+    public boolean isEmpty(int field) {
+        int start = start(field);
+        return end(field) - start == 1 && line.charAt(start) == '-';
+    }
+
+    /**
+     * @return the first n fields separated by a space, e.g. for reporting
+     */
+    public String head(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n && i < size; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(line, start(i), end(i));
+        }
+        return sb.toString();
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= size) {
+            throw new ArrayIndexOutOfBoundsException("Field " + field + " is not present. The line has " + size + " fields");
+        }
+    }
+
+    /**
+     * @return the end of the entry starting at from, that is the next "|" or end. If quoteAware is set,
+     * separators between double quotes are part of the entry, e.g. psi-mi:"a|b"(display_short).
+     */
+    public static int entryEnd(CharSequence s, int from, int end, boolean quoteAware) {
+        boolean quoted = false;
+        for (int i = from; i < end; i++) {
+            char c = s.charAt(i);
+            if (quoteAware && c == '"') {
+                quoted = !quoted;
+            } else if (c == ENTRY_SEPARATOR && !quoted) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return position of the first ":" in [start, end) or -1 if the entry has no prefix
+     */
+    public static int prefixEnd(CharSequence s, int start, int end) {
+        return indexOf(s, PREFIX_SEPARATOR, start, end);
+    }
+
+    /**
+     * @return the end of the value starting at from, e.g. for "taxid:9606(human)" or "psi-mi:MI:0326" the value
+     * goes up to the next ":" or end
+     */
+    public static int valueEnd(CharSequence s, int from, int end) {
+        int i = indexOf(s, PREFIX_SEPARATOR, from, end);
+        return i == -1 ? end : i;
+    }
+
+    public static int indexOf(CharSequence s, char c, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (s.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    public static boolean equalsIgnoreCase(CharSequence s, int start, int end, String other) {
+        if (other == null || other.length() != end - start) return false;
+        for (int i = 0; i < other.length(); i++) {
+            char a = s.charAt(start + i);
+            char b = other.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b) && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the first run of digits in [start, end) as an int, or -1 if there are none. e.g. 9606 for "9606(human)"
+     */
+    public static int firstNumber(CharSequence s, int start, int end) {
+        int i = start;
+        while (i < end && !isDigit(s.charAt(i))) i++;
+        if (i == end) return -1;
+
+        int value = 0;
+        for (; i < end && isDigit(s.charAt(i)); i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Same as matching "-?\\d+(\\.\\d+)?" without a regular expression
+     */
+    public static boolean isNumeric(CharSequence s, int start, int end) {
+        int i = start;
+        if (i < end && s.charAt(i) == '-') i++;
+
+        int digits = i;
+        while (i < end && isDigit(s.charAt(i))) i++;
+        if (i == digits) return false;
+        if (i == end) return true;
+
+        if (s.charAt(i++) != '.') return false;
+        int decimals = i;
+        while (i < end && isDigit(s.charAt(i))) i++;
+        return i > decimals && i == end;
+    }
+
+    public static String substring(CharSequence s, int start, int end) {
+        if (s instanceof String) return ((String) s).substring(start, end);
+        return s.subSequence(start, end).toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,142 @@
+package org.reactome.server.interactors.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads UTF-8 lines keeping track of the position in bytes of the content, so the position after any line
+ * can be recorded and a later run can continue reading from there. Lines end with "\n", a "\r" right before
+ * it is removed as well. For gzip files the position refers to the decompressed content.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class OffsetLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final InputStream is;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    // Lines that do not fit in what is left of the buffer are put together here
+    private byte[] pending = new byte[1024];
+    private long offset;
+    private long lineNumber;
+
+    public OffsetLineReader(InputStream is) {
+        this(is, 0, 0);
+    }
+
+    /**
+     * @param offset     bytes of the content that have already been consumed from the stream
+     * @param lineNumber lines within those bytes
+     */
+    private OffsetLineReader(InputStream is, long offset, long lineNumber) {
+        this.is = is;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Opens the file, decompressing it if it is a gzip file, and moves to the given position.
+     *
+     * @param offset     a position previously given by {@link #getOffset()} for the same file
+     * @param lineNumber the {@link #getLineNumber()} at that position
+     */
+    public static OffsetLineReader open(File file, long offset, long lineNumber) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            if (!file.getName().endsWith(".gz")) {
+                fis.getChannel().position(offset);
+                return new OffsetLineReader(fis, offset, lineNumber);
+            }
+
+            // No way to seek in the compressed file, the content before the position is decompressed and skipped
+            InputStream is = new GZIPInputStream(fis, BUFFER_SIZE);
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = is.skip(remaining);
+                if (skipped <= 0) throw new EOFException(file + " is shorter than the position [" + offset + "]");
+                remaining -= skipped;
+            }
+            return new OffsetLineReader(is, offset, lineNumber);
+        } catch (IOException e) {
+            fis.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next line without its terminator or null at the end of the content
+     */
+    public String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (length == 0) return null;
+                lineNumber++;
+                return decode(pending, 0, length);
+            }
+
+            int start = position;
+            int end = start;
+            while (end < limit && buffer[end] != '\n') end++;
+
+            offset += (end < limit ? end + 1 : end) - start;
+            if (end < limit) {
+                position = end + 1;
+                lineNumber++;
+                if (length == 0) return decode(buffer, start, end - start);
+
+                length = append(length, start, end);
+                return decode(pending, 0, length);
+            }
+
+            position = limit;
+            length = append(length, start, end);
+        }
+    }
+
+    /**
+     * @return the position in bytes right after the last line read
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the number of lines read so far, including the ones before the position the reader was opened at
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        is.close();
+    }
+
+    private boolean fill() throws IOException {
+        int read = is.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private int append(int length, int start, int end) {
+        int count = end - start;
+        if (length + count > pending.length) {
+            byte[] aux = new byte[Math.max(pending.length * 2, length + count)];
+            System.arraycopy(pending, 0, aux, 0, length);
+            pending = aux;
+        }
+        System.arraycopy(buffer, start, pending, length, count);
+        return length + count;
+    }
+
+    private static String decode(byte[] bytes, int start, int length) {
+        if (length > 0 && bytes[start + length - 1] == '\r') length--;
+        return new String(bytes, start, length, StandardCharsets.UTF_8);
+    }
+}
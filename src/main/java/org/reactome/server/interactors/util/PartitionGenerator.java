@@ -0,0 +1,169 @@
+package org.reactome.server.interactors.util;
+
+import org.reactome.server.interactors.dao.DatabasePartitionDAO;
+import org.reactome.server.interactors.dao.intact.StaticDatabasePartition;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.model.DatabasePartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Derives partitions from a complete interactors database. A partition is a database of its own with the same
+ * schema and IDs, holding the interactions where any of the interactors belongs to the species (or all of them)
+ * and the score is at least the given one, plus their interactors and details.
+ * <p>
+ * Partitions are written next to the source database, into a temporary file that replaces the previous version
+ * once it is complete.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class PartitionGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionGenerator.class);
+
+    private static final String SOURCE = "SOURCE";
+
+    /**
+     * Derives the given partitions from the source database and registers them in it, replacing the ones
+     * registered before.
+     */
+    public static void create(String source, List<DatabasePartition> partitions) throws SQLException, IOException {
+        List<DatabasePartition> created = new ArrayList<>();
+        for (DatabasePartition partition : partitions) {
+            created.add(create(source, partition.getTaxId(), partition.getMinScore()));
+        }
+
+        InteractorsDatabase database = new InteractorsDatabase(source);
+        try {
+            DatabasePartitionDAO registry = new StaticDatabasePartition(database);
+            registry.replaceAll(created);
+        } finally {
+            database.close();
+        }
+    }
+
+    /**
+     * Derives again the partitions registered in the source database, e.g. once it has been updated
+     */
+    public static void refresh(String source) throws SQLException, IOException {
+        List<DatabasePartition> partitions;
+        InteractorsDatabase database = new InteractorsDatabase(source);
+        try {
+            DatabasePartitionDAO registry = new StaticDatabasePartition(database);
+            partitions = registry.getAll();
+        } finally {
+            database.close();
+        }
+
+        if (!partitions.isEmpty()) {
+            create(source, partitions);
+        }
+    }
+
+    /**
+     * @param taxId    species of the partition, null for all of them
+     * @param minScore minimum score of the interactions
+     * @return the partition, to be registered in the source database
+     */
+    public static DatabasePartition create(String source, Integer taxId, double minScore) throws SQLException, IOException {
+        File sourceFile = new File(source);
+        DatabasePartition partition = new DatabasePartition(taxId, minScore);
+        partition.setFileName(getFileName(sourceFile, taxId, minScore));
+
+        File target = new File(sourceFile.getAbsoluteFile().getParentFile(), partition.getFileName());
+        File temporary = new File(target.getParentFile(), target.getName() + ".tmp");
+        Files.deleteIfExists(temporary.toPath());
+        logger.info("Creating partition [{}] for taxId [{}] and minimum score [{}]", target.getName(), taxId == null ? "all" : taxId, minScore);
+
+        InteractorsDatabase database = new InteractorsDatabase(temporary.getPath(), InteractorsDatabase.Profile.BULK_BUILD);
+        Connection connection = database.getConnection();
+        try {
+            InteractorDatabaseGenerator.create(connection, false, false);
+            copy(database, sourceFile, partition);
+            InteractorDatabaseGenerator.finishBulkBuild(connection, true);
+        } finally {
+            database.close();
+        }
+
+        Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Partition [{}] has [{}] interactions", target.getName(), partition.getInteractions());
+        return partition;
+    }
+
+    /**
+     * e.g. interactors-9606-0.6.db or interactors-all-0.8.db
+     */
+    public static String getFileName(File source, Integer taxId, double minScore) {
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return String.format(Locale.ROOT, "%s-%s-%s.db", base, taxId == null ? "all" : taxId, Toolbox.roundScore(minScore));
+    }
+
+    private static void copy(InteractorsDatabase database, File source, DatabasePartition partition) throws SQLException {
+        Connection connection = database.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ATTACH DATABASE '" + source.getAbsolutePath().replace("'", "''") + "' AS " + SOURCE);
+
+            connection.setAutoCommit(false);
+            try {
+                database.deferForeignKeys();
+
+                // Resources are the same in every partition, including the ones inserted by the generator
+                statement.executeUpdate("DELETE FROM INTERACTOR_RESOURCE");
+                statement.executeUpdate("INSERT INTO INTERACTOR_RESOURCE (ID, NAME, URL) SELECT ID, NAME, URL FROM " + SOURCE + ".INTERACTOR_RESOURCE");
+                statement.executeUpdate("DELETE FROM INTERACTION_RESOURCE");
+                statement.executeUpdate("INSERT INTO INTERACTION_RESOURCE (ID, NAME, URL) SELECT ID, NAME, URL FROM " + SOURCE + ".INTERACTION_RESOURCE");
+
+                String interactions = "INSERT INTO INTERACTION (ID, INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS) " +
+                                      "SELECT ID, INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS " +
+                                      "FROM   " + SOURCE + ".INTERACTION " +
+                                      "WHERE  MISCORE >= ?";
+                if (partition.getTaxId() != null) {
+                    String species = "(SELECT ID FROM " + SOURCE + ".INTERACTOR WHERE TAXID = ?)";
+                    interactions += " AND (INTERACTOR_A IN " + species + " OR INTERACTOR_B IN " + species + ")";
+                }
+                try (PreparedStatement pstm = connection.prepareStatement(interactions)) {
+                    pstm.setDouble(1, partition.getMinScore());
+                    if (partition.getTaxId() != null) {
+                        pstm.setInt(2, partition.getTaxId());
+                        pstm.setInt(3, partition.getTaxId());
+                    }
+                    partition.setInteractions((long) pstm.executeUpdate());
+                }
+
+                statement.executeUpdate("INSERT INTO INTERACTOR (ID, ACC, INTACT_ID, INTERACTOR_RESOURCE_ID, CREATE_DATE, ALIAS, SYNONYMS, TAXID) " +
+                                        "SELECT ID, ACC, INTACT_ID, INTERACTOR_RESOURCE_ID, CREATE_DATE, ALIAS, SYNONYMS, TAXID " +
+                                        "FROM   " + SOURCE + ".INTERACTOR " +
+                                        "WHERE  ID IN (SELECT INTERACTOR_A FROM INTERACTION UNION SELECT INTERACTOR_B FROM INTERACTION)");
+
+                statement.executeUpdate("INSERT INTO INTERACTION_DETAILS (ID, INTERACTION_ID, INTERACTION_AC) " +
+                                        "SELECT ID, INTERACTION_ID, INTERACTION_AC " +
+                                        "FROM   " + SOURCE + ".INTERACTION_DETAILS " +
+                                        "WHERE  INTERACTION_ID IN (SELECT ID FROM INTERACTION)");
+
+                connection.commit();
+            } catch (SQLException e) {
+                logger.error("An error has occurred while copying the partition. Please check the following exception.");
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+            statement.execute("DETACH DATABASE " + SOURCE);
+        }
+    }
+}
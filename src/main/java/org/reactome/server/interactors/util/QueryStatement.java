@@ -45,6 +45,87 @@ public class QueryStatement {
                     "FOREIGN KEY(INTERACTION_ID) REFERENCES INTERACTION(ID) " +
              ")";
 
+    /** Single row (ID = 1) with the position of the bulk load in the IntAct file **/
+    public static String CREATE_TABLE_INGEST_CHECKPOINT =
+            "CREATE TABLE INGEST_CHECKPOINT ( " +
+                    "ID INTEGER PRIMARY KEY CHECK (ID = 1), " +
+                    "SOURCE VARCHAR NOT NULL, " +
+                    "SOURCE_LENGTH INTEGER, " +
+                    "BYTE_OFFSET INTEGER NOT NULL, " +
+                    "LINE_NUMBER INTEGER NOT NULL, " +
+                    "LINES_INCLUDED INTEGER NOT NULL, " +
+                    "MIN_SCORE NUMERIC, " +
+                    "COMPLETE INTEGER NOT NULL DEFAULT 0, " +
+                    "UPDATE_DATE DEFAULT CURRENT_TIMESTAMP " +
+             ")";
+
+    /** A single row, replaced every time the content is finished or updated. Snapshots keep it, see InteractorsSnapshot **/
+    public static String CREATE_TABLE_CONTENT_STAMP =
+            "CREATE TABLE IF NOT EXISTS CONTENT_STAMP ( " +
+                    "ID INTEGER PRIMARY KEY CHECK (ID = 1), " +
+                    "STAMP VARCHAR NOT NULL, " +
+                    "UPDATE_DATE DEFAULT CURRENT_TIMESTAMP " +
+             ")";
+
+    public static String UPDATE_CONTENT_STAMP = "INSERT OR REPLACE INTO CONTENT_STAMP (ID, STAMP, UPDATE_DATE) VALUES (1, ?, CURRENT_TIMESTAMP)";
+
+    /** Partitions derived from this database, see PartitionGenerator. FILE_NAME is relative to the folder of this database **/
+    public static String CREATE_TABLE_INTERACTOR_PARTITION =
+            "CREATE TABLE IF NOT EXISTS INTERACTOR_PARTITION ( " +
+                    "FILE_NAME VARCHAR PRIMARY KEY, " +
+                    "TAXID INTEGER, " +
+                    "MIN_SCORE NUMERIC NOT NULL, " +
+                    "INTERACTIONS INTEGER NOT NULL, " +
+                    "CREATE_DATE DEFAULT CURRENT_TIMESTAMP " +
+             ")";
+
+    /**
+     * Number of interactions of each interactor per interaction resource, with their highest and mean score.
+     * Derived from INTERACTION once it is loaded or updated, see InteractorDatabaseGenerator.refreshDegrees
+     **/
+    public static String CREATE_TABLE_INTERACTOR_DEGREE =
+            "CREATE TABLE INTERACTOR_DEGREE ( " +
+                    "INTERACTOR_ID INTEGER NOT NULL, " +
+                    "INTERACTION_RESOURCE_ID INTEGER NOT NULL, " +
+                    "DEGREE INTEGER NOT NULL, " +
+                    "MAX_SCORE NUMERIC, " +
+                    "MEAN_SCORE NUMERIC, " +
+                    "PRIMARY KEY (INTERACTOR_ID, INTERACTION_RESOURCE_ID) " +
+             ") WITHOUT ROWID";
+
+    /**
+     * Optional (IntactParser -a). Each interaction once per side, in the order it is queried: interactor, resource
+     * and score, highest first. The interactions of an accession are then a single range of the primary key.
+     **/
+    public static String CREATE_TABLE_INTERACTION_ADJACENCY =
+            "CREATE TABLE INTERACTION_ADJACENCY ( " +
+                    "INTERACTOR_ID INTEGER NOT NULL, " +
+                    "INTERACTION_RESOURCE_ID INTEGER NOT NULL, " +
+                    "MISCORE NUMERIC NOT NULL, " +
+                    "INTERACTION_ID INTEGER NOT NULL, " +
+                    "PARTNER_ID INTEGER NOT NULL, " +
+                    "PRIMARY KEY (INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE DESC, INTERACTION_ID) " +
+             ") WITHOUT ROWID";
+
+    /**
+     * Publications of each interaction, one row per PubMed ID. Derived from INTERACTION.PUBMEDIDS, see
+     * InteractorDatabaseGenerator.refreshDerivedTables. The key is also the index to look interactions up by PubMed ID.
+     **/
+    public static String CREATE_TABLE_INTERACTION_PUBMED =
+            "CREATE TABLE INTERACTION_PUBMED ( " +
+                    "PUBMED_ID VARCHAR NOT NULL, " +
+                    "INTERACTION_ID INTEGER NOT NULL, " +
+                    "PRIMARY KEY (PUBMED_ID, INTERACTION_ID) " +
+             ") WITHOUT ROWID";
+
+    /** Synonyms of each interactor, one row per synonym. Derived from INTERACTOR.SYNONYMS as INTERACTION_PUBMED **/
+    public static String CREATE_TABLE_INTERACTOR_SYNONYM =
+            "CREATE TABLE INTERACTOR_SYNONYM ( " +
+                    "SYNONYM VARCHAR NOT NULL, " +
+                    "INTERACTOR_ID INTEGER NOT NULL, " +
+                    "PRIMARY KEY (SYNONYM, INTERACTOR_ID) " +
+             ") WITHOUT ROWID";
+
     /** INSERTS **/
     /** Example:EBI-7121639 **/
     public static String INSERT_INTERACTOR_RESOURCE_UNDEFINED = "INSERT OR REPLACE INTO INTERACTOR_RESOURCE (NAME, URL) VALUES ('undefined','do-not-have-url')";
@@ -56,11 +137,190 @@ public class QueryStatement {
 
     public static String INSERT_INTERACTION_RESOURCE_STATIC = "INSERT OR REPLACE INTO INTERACTION_RESOURCE (NAME, URL) VALUES ('static','http://www.ebi.ac.uk/intact/interaction/##ID##')";
 
+    /**
+     * Same count as StaticInteraction.countByAccessions: interactions on both sides, an interactor with itself once.
+     * Only interactions above the minimum score of the load are persisted (MINIMUM_VALID_SCORE by default).
+     **/
+    public static String POPULATE_INTERACTOR_DEGREE =
+            "INSERT INTO INTERACTOR_DEGREE (INTERACTOR_ID, INTERACTION_RESOURCE_ID, DEGREE, MAX_SCORE, MEAN_SCORE) " +
+            "SELECT   INTERACTOR_ID, INTERACTION_RESOURCE_ID, COUNT(*), MAX(MISCORE), AVG(MISCORE) " +
+            "FROM     (SELECT INTERACTOR_A AS INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE FROM INTERACTION " +
+                      "UNION ALL " +
+                      "SELECT INTERACTOR_B AS INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE FROM INTERACTION WHERE INTERACTOR_A <> INTERACTOR_B) " +
+            "GROUP BY INTERACTOR_ID, INTERACTION_RESOURCE_ID";
+
+    public static String POPULATE_INTERACTION_ADJACENCY =
+            "INSERT INTO INTERACTION_ADJACENCY (INTERACTOR_ID, INTERACTION_RESOURCE_ID, MISCORE, INTERACTION_ID, PARTNER_ID) " +
+            "SELECT INTERACTOR_A, INTERACTION_RESOURCE_ID, MISCORE, ID, INTERACTOR_B FROM INTERACTION " +
+            "UNION ALL " +
+            "SELECT INTERACTOR_B, INTERACTION_RESOURCE_ID, MISCORE, ID, INTERACTOR_A FROM INTERACTION WHERE INTERACTOR_A <> INTERACTOR_B";
+
+    /** Splits the comma separated PUBMEDIDS, one ID at a time **/
+    public static String POPULATE_INTERACTION_PUBMED =
+            "INSERT OR IGNORE INTO INTERACTION_PUBMED (PUBMED_ID, INTERACTION_ID) " +
+            "WITH RECURSIVE SPLIT (INTERACTION_ID, PUBMED_ID, REST) AS ( " +
+                    "SELECT ID, '', PUBMEDIDS || ',' FROM INTERACTION WHERE PUBMEDIDS <> '' " +
+                    "UNION ALL " +
+                    "SELECT INTERACTION_ID, SUBSTR(REST, 1, INSTR(REST, ',') - 1), SUBSTR(REST, INSTR(REST, ',') + 1) FROM SPLIT WHERE REST <> '' " +
+            ") " +
+            "SELECT PUBMED_ID, INTERACTION_ID FROM SPLIT WHERE PUBMED_ID <> ''";
+
+    /** Splits the '$' separated SYNONYMS, as POPULATE_INTERACTION_PUBMED **/
+    public static String POPULATE_INTERACTOR_SYNONYM =
+            "INSERT OR IGNORE INTO INTERACTOR_SYNONYM (SYNONYM, INTERACTOR_ID) " +
+            "WITH RECURSIVE SPLIT (INTERACTOR_ID, SYNONYM, REST) AS ( " +
+                    "SELECT ID, '', SYNONYMS || '$' FROM INTERACTOR WHERE SYNONYMS <> '' " +
+                    "UNION ALL " +
+                    "SELECT INTERACTOR_ID, SUBSTR(REST, 1, INSTR(REST, '$') - 1), SUBSTR(REST, INSTR(REST, '$') + 1) FROM SPLIT WHERE REST <> '' " +
+            ") " +
+            "SELECT SYNONYM, INTERACTOR_ID FROM SPLIT WHERE SYNONYM <> ''";
+
+    /** SELECTS **/
+    /** Interaction and both interactors, see StaticInteraction.buildInteraction **/
+    public static String INTERACTION_COLUMNS =
+            "INTERACTION.ID AS 'INTERACTION_ID', " +
+            "INTERACTORA.ID AS 'ID_A', INTERACTORA.ACC AS 'ACC_A', INTERACTORA.ALIAS AS 'ALIAS_A', INTERACTORA.INTERACTOR_RESOURCE_ID AS 'INTERACTOR_RESOURCE_A_ID', INTERACTORA.INTACT_ID AS 'INTACT_IDA', INTERACTORA.TAXID AS 'TAX_IDA', INTERACTORA.SYNONYMS AS 'SYNONYMSA', " +
+            "INTERACTORB.ID AS 'ID_B', INTERACTORB.ACC AS 'ACC_B', INTERACTORB.ALIAS AS 'ALIAS_B', INTERACTORB.INTERACTOR_RESOURCE_ID AS 'INTERACTOR_RESOURCE_B_ID', INTERACTORB.INTACT_ID AS 'INTACT_IDB', INTERACTORB.TAXID AS 'TAX_IDB', INTERACTORB.SYNONYMS AS 'SYNONYMSB', " +
+            "INTERACTION.AUTHOR_SCORE, " +
+            "INTERACTION.MISCORE, " +
+            "INTERACTION.PUBMEDIDS, " +
+            "INTERACTION.INTERACTION_RESOURCE_ID ";
+
+    /**
+     * Interactions of an accession (twice) and resource (twice), highest score first and then by ID. Each side comes
+     * sorted from its (interactor, resource, score) index, which ends with the ID, and both are merged, so a page
+     * ("LIMIT ?, ?") is read without sorting all the interactions of the accession.
+     **/
+    public static String SELECT_INTERACTIONS_BY_ACCESSION =
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION.INTERACTOR_A = (SELECT ID FROM INTERACTOR WHERE ACC = ?) " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "UNION ALL " +
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION.INTERACTOR_B = (SELECT ID FROM INTERACTOR WHERE ACC = ?) " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTION.INTERACTOR_A <> INTERACTION.INTERACTOR_B " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "ORDER BY MISCORE DESC, INTERACTION_ID";
+
+    /**
+     * Same as SELECT_INTERACTIONS_BY_ACCESSION, starting after an interaction (score, score and ID on each side).
+     * The index is entered at the score of the interaction, so every page ("LIMIT ?") costs the same.
+     **/
+    public static String SELECT_INTERACTIONS_BY_ACCESSION_AFTER =
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION.INTERACTOR_A = (SELECT ID FROM INTERACTOR WHERE ACC = ?) " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTION.MISCORE <= ? AND (INTERACTION.MISCORE < ? OR INTERACTION.ID > ?) " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "UNION ALL " +
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION.INTERACTOR_B = (SELECT ID FROM INTERACTOR WHERE ACC = ?) " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTION.INTERACTOR_A <> INTERACTION.INTERACTOR_B " +
+            "AND      INTERACTION.MISCORE <= ? AND (INTERACTION.MISCORE < ? OR INTERACTION.ID > ?) " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "ORDER BY MISCORE DESC, INTERACTION_ID";
+
+    /** Same as SELECT_INTERACTIONS_BY_ACCESSION, for an accession and resource, through INTERACTION_ADJACENCY **/
+    public static String SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY =
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION_ADJACENCY CROSS JOIN INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION_ADJACENCY.INTERACTOR_ID = (SELECT ID FROM INTERACTOR WHERE ACC = ?) " +
+            "AND      INTERACTION_ADJACENCY.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTION.ID = INTERACTION_ADJACENCY.INTERACTION_ID " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "ORDER BY INTERACTION_ADJACENCY.MISCORE DESC, INTERACTION_ADJACENCY.INTERACTION_ID";
+
+    /** Same as SELECT_INTERACTIONS_BY_ACCESSION_AFTER, through INTERACTION_ADJACENCY **/
+    public static String SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY_AFTER =
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION_ADJACENCY CROSS JOIN INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION_ADJACENCY.INTERACTOR_ID = (SELECT ID FROM INTERACTOR WHERE ACC = ?) " +
+            "AND      INTERACTION_ADJACENCY.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTION_ADJACENCY.MISCORE <= ? AND (INTERACTION_ADJACENCY.MISCORE < ? OR INTERACTION_ADJACENCY.INTERACTION_ID > ?) " +
+            "AND      INTERACTION.ID = INTERACTION_ADJACENCY.INTERACTION_ID " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "ORDER BY INTERACTION_ADJACENCY.MISCORE DESC, INTERACTION_ADJACENCY.INTERACTION_ID";
+
+    /**
+     * Interactions of many accessions and a resource (twice), grouped by accession, highest score first and then by
+     * ID. ##ACCESSIONS## is replaced by the "?" of the accessions, padded with Toolbox.parameters so there are few
+     * different statements.
+     **/
+    public static String SELECT_INTERACTIONS_BY_ACCESSIONS =
+            "WITH     QUERY AS (SELECT ID, ACC FROM INTERACTOR WHERE ACC IN (##ACCESSIONS##)) " +
+            "SELECT   QUERY.ACC AS 'QUERY_ACC', " + INTERACTION_COLUMNS +
+            "FROM     QUERY CROSS JOIN INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION.INTERACTOR_A = QUERY.ID " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "UNION ALL " +
+            "SELECT   QUERY.ACC AS 'QUERY_ACC', " + INTERACTION_COLUMNS +
+            "FROM     QUERY CROSS JOIN INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION.INTERACTOR_B = QUERY.ID " +
+            "AND      INTERACTION.INTERACTOR_A <> INTERACTION.INTERACTOR_B " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "ORDER BY QUERY_ACC, MISCORE DESC, INTERACTION_ID";
+
+    /** Interactions citing a PubMed ID, in a resource, through INTERACTION_PUBMED **/
+    public static String SELECT_INTERACTIONS_BY_PUBMED_ID =
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION_PUBMED CROSS JOIN INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INTERACTION_PUBMED.PUBMED_ID = ? " +
+            "AND      INTERACTION.ID = INTERACTION_PUBMED.INTERACTION_ID " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "ORDER BY INTERACTION.MISCORE DESC, INTERACTION.ID";
+
+    /** Same as SELECT_INTERACTIONS_BY_PUBMED_ID for databases without INTERACTION_PUBMED. It reads every interaction **/
+    public static String SELECT_INTERACTIONS_BY_PUBMED_ID_SCAN =
+            "SELECT   " + INTERACTION_COLUMNS +
+            "FROM     INTERACTION CROSS JOIN INTERACTOR AS INTERACTORA CROSS JOIN INTERACTOR AS INTERACTORB " +
+            "WHERE    INSTR(',' || INTERACTION.PUBMEDIDS || ',', ',' || ? || ',') > 0 " +
+            "AND      INTERACTION.INTERACTION_RESOURCE_ID = ? " +
+            "AND      INTERACTORA.ID = INTERACTION.INTERACTOR_A " +
+            "AND      INTERACTORB.ID = INTERACTION.INTERACTOR_B " +
+            "ORDER BY INTERACTION.MISCORE DESC, INTERACTION.ID";
+
+    /** Interactors with a synonym, through INTERACTOR_SYNONYM **/
+    public static String SELECT_INTERACTORS_BY_SYNONYM =
+            "SELECT   INTERACTOR.ID, INTERACTOR.CREATE_DATE, INTERACTOR.ACC, INTERACTOR.INTACT_ID, INTERACTOR.INTERACTOR_RESOURCE_ID, INTERACTOR.ALIAS, INTERACTOR.TAXID, INTERACTOR.SYNONYMS " +
+            "FROM     INTERACTOR_SYNONYM CROSS JOIN INTERACTOR " +
+            "WHERE    INTERACTOR_SYNONYM.SYNONYM = ? " +
+            "AND      INTERACTOR.ID = INTERACTOR_SYNONYM.INTERACTOR_ID " +
+            "ORDER BY INTERACTOR.ACC";
+
+    /** Same as SELECT_INTERACTORS_BY_SYNONYM for databases without INTERACTOR_SYNONYM. It reads every interactor **/
+    public static String SELECT_INTERACTORS_BY_SYNONYM_SCAN =
+            "SELECT   ID, CREATE_DATE, ACC, INTACT_ID, INTERACTOR_RESOURCE_ID, ALIAS, TAXID, SYNONYMS " +
+            "FROM     INTERACTOR " +
+            "WHERE    INSTR('$' || SYNONYMS || '$', '$' || ? || '$') > 0 " +
+            "ORDER BY ACC";
+
     /** CREATE INDEX STATEMENTS **/
-    public static String CREATE_INTERACTOR_ACC_INDEX = "CREATE INDEX INTERACTOR_ACC_IDX ON INTERACTOR (ACC)";
-    public static String CREATE_INTERACTOR_A_INDEX = "CREATE INDEX INTERACTION_INTERACTOR_A_IDX ON INTERACTION (INTERACTOR_A)";
-    public static String CREATE_INTERACTOR_B_INDEX = "CREATE INDEX INTERACTION_INTERACTOR_B_IDX ON INTERACTION (INTERACTOR_B)";
-    public static String CREATE_INTERACTION_DETAILS_ID_INDEX = "CREATE INDEX INTERACTION_DETAILS_INTERACTION_ID_IDX ON INTERACTION_DETAILS (INTERACTION_ID)";
+    public static String CREATE_INTERACTOR_ACC_INDEX = "CREATE INDEX IF NOT EXISTS INTERACTOR_ACC_IDX ON INTERACTOR (ACC)";
+    /** The interactions of an interactor in a resource, by score. They also serve the lookups by interactor alone **/
+    public static String CREATE_INTERACTOR_A_INDEX = "CREATE INDEX IF NOT EXISTS INTERACTION_A_RESOURCE_SCORE_IDX ON INTERACTION (INTERACTOR_A, INTERACTION_RESOURCE_ID, MISCORE DESC)";
+    public static String CREATE_INTERACTOR_B_INDEX = "CREATE INDEX IF NOT EXISTS INTERACTION_B_RESOURCE_SCORE_IDX ON INTERACTION (INTERACTOR_B, INTERACTION_RESOURCE_ID, MISCORE DESC)";
+    public static String CREATE_INTERACTION_DETAILS_ID_INDEX = "CREATE INDEX IF NOT EXISTS INTERACTION_DETAILS_INTERACTION_ID_IDX ON INTERACTION_DETAILS (INTERACTION_ID)";
+    /** Most connected interactors first, see StaticInteractorDegree.getMostConnected **/
+    public static String CREATE_INTERACTOR_DEGREE_INDEX = "CREATE INDEX INTERACTOR_DEGREE_RESOURCE_IDX ON INTERACTOR_DEGREE (INTERACTION_RESOURCE_ID, DEGREE DESC)";
 
     /** CREATE FOREIGN KEYS RELATIONSHIP **/
 
@@ -0,0 +1,248 @@
+package org.reactome.server.interactors.util;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Results of queries kept in memory by their key. The cache is bounded by the total weight of the results (e.g. the
+ * number of interactions) and the least recently used ones are evicted first. Each result expires after the time to
+ * live it was loaded with.
+ * <p>
+ * Keys missing in the cache are loaded together, in a single call to the loader. While they are being loaded, other
+ * threads asking for any of them wait for that load instead of starting another one. A key whose result is null is
+ * kept as well, so a query without results is not repeated either.
+ * <p>
+ * It is thread safe. Loads run outside the lock, hits are served while another thread is loading.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class ResultCache<K, V> {
+
+    /**
+     * Loads the results of the given keys. Keys without a result can be left out of the map.
+     */
+    public interface Loader<K, V> {
+        Map<K, V> load(Collection<K> keys) throws Exception;
+    }
+
+    private static class Entry<V> {
+        V value;
+        int weight;
+        long expires;
+
+        Entry(V value, int weight, long expires) {
+            this.value = value;
+            this.weight = weight;
+            this.expires = expires;
+        }
+    }
+
+    private final long maximumWeight;
+    private final ToIntFunction<V> weigher;
+
+    // Access ordered, the eldest entry is the least recently used one
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // The load of each key. Its future is the generation of the key: invalidate(key) and invalidateAll() drop it,
+    // so a load whose future is no longer here does not keep its result and nobody else waits for it
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+    private long weight = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long loads = 0;
+    private long evictions = 0;
+
+    /**
+     * @param maximumWeight total weight of the results kept
+     * @param weigher       weight of a result (null results are not passed to it and weigh 1)
+     */
+    public ResultCache(long maximumWeight, ToIntFunction<V> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @param timeToLive milliseconds the loaded results are kept for, 0 to not keep them
+     * @return results of the given keys, keys without a result are not in the map
+     * @throws Exception the one thrown by the loader, in this or in the thread loading the same keys
+     */
+    public Map<K, V> getAll(Collection<K> keys, long timeToLive, Loader<K, V> loader) throws Exception {
+        Map<K, V> values = new HashMap<>();
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> waiting = new HashMap<>();
+
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (K key : new LinkedHashSet<>(keys)) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.expires - now > 0) {
+                    hits++;
+                    if (entry.value != null) values.put(key, entry.value);
+                    continue;
+                }
+                if (entry != null) remove(key);
+
+                misses++;
+                CompletableFuture<V> future = loading.get(key);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    loading.put(key, future);
+                    owned.put(key, future);
+                } else {
+                    waiting.put(key, future);
+                }
+            }
+        }
+
+        if (!owned.isEmpty()) values.putAll(load(owned, timeToLive, loader));
+
+        for (Map.Entry<K, CompletableFuture<V>> entry : waiting.entrySet()) {
+            V value = await(entry.getValue());
+            if (value != null) values.put(entry.getKey(), value);
+        }
+        return values;
+    }
+
+    /**
+     * Removes every result, e.g. once the database has been updated. Loads running at the time return their results
+     * but they are not kept, the next requests for their keys load them again.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        loading.clear();
+        weight = 0;
+    }
+
+    /**
+     * Removes the result of the given key. A load of it running at the time returns its result but it is not kept,
+     * the next request for the key loads it again.
+     */
+    public synchronized void invalidate(K key) {
+        remove(key);
+        loading.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * @return keys found in the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return keys not found in the cache, either loaded or waited for
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return calls made to the loaders
+     */
+    public synchronized long getLoads() {
+        return loads;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : hits / (double) (hits + misses);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache{" +
+                "size=" + entries.size() +
+                ", weight=" + weight + "/" + maximumWeight +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", loads=" + loads +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    private Map<K, V> load(Map<K, CompletableFuture<V>> owned, long timeToLive, Loader<K, V> loader) throws Exception {
+        Map<K, V> loaded;
+        try {
+            synchronized (this) {
+                loads++;
+            }
+            loaded = loader.load(Collections.unmodifiableSet(owned.keySet()));
+        } catch (Exception | Error e) {
+            synchronized (this) {
+                for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) loading.remove(entry.getKey(), entry.getValue());
+            }
+            for (CompletableFuture<V> future : owned.values()) future.completeExceptionally(e);
+            throw e;
+        }
+
+        Map<K, V> values = new HashMap<>();
+        long expires = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive);
+        synchronized (this) {
+            for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+                K key = entry.getKey();
+                V value = loaded == null ? null : loaded.get(key);
+                // Not kept if the key has been invalidated while loading, a newer load may be running for it
+                boolean current = loading.remove(key, entry.getValue());
+                if (timeToLive > 0 && current) put(key, value, expires);
+                if (value != null) values.put(key, value);
+            }
+        }
+        // Outside the lock, the waiting threads go on straight away
+        for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+            entry.getValue().complete(values.get(entry.getKey()));
+        }
+        return values;
+    }
+
+    private V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) throw (Error) cause;
+            throw (Exception) cause;
+        }
+    }
+
+    private void put(K key, V value, long expires) {
+        int weight = value == null ? 1 : Math.max(1, weigher.applyAsInt(value));
+        if (weight > maximumWeight) return;
+
+        remove(key);
+        entries.put(key, new Entry<>(value, weight, expires));
+        this.weight += weight;
+
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (this.weight > maximumWeight && eldest.hasNext()) {
+            this.weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) weight -= entry.weight;
+    }
+}
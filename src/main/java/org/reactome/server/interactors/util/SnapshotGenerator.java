@@ -0,0 +1,285 @@
+package org.reactome.server.interactors.util;
+
+import org.reactome.server.interactors.database.InteractionGraph;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.InteractorsSnapshot;
+import org.reactome.server.interactors.database.PooledConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Writes the interactors, interactions and details of a database into a snapshot, see {@link InteractorsSnapshot}
+ * for the layout. The snapshot is written into a temporary file next to the target, which replaces the previous
+ * version once it is complete.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class SnapshotGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotGenerator.class);
+
+    private static final Comparator<byte[]> UNSIGNED = (a, b) -> {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return a.length - b.length;
+    };
+
+    private InteractionGraph graph;
+    private long[] fingerprint;
+
+    // Strings of the graph, as their index in the string table
+    private int[] accs;
+    private int[] aliases;
+    private int[] intactIds;
+    private int[] synonyms;
+    private int[] pubmedIds;
+    private int[] accOrder;
+
+    private int[] detailOffsets;
+    private long[] detailIds;
+    private int[] detailAcs;
+
+    // String table
+    private Map<String, Integer> stringIndex = new HashMap<>();
+    private List<Integer> stringOffsets = new ArrayList<>();
+    private ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+
+    private SnapshotGenerator() {
+        stringOffsets.add(0);
+    }
+
+    /**
+     * @param target file of the snapshot, replaced if it exists
+     */
+    public static void create(InteractorsDatabase database, String target) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        SnapshotGenerator generator = new SnapshotGenerator();
+        // Taken before and after loading, the content read in between has to be the one of the stamp
+        generator.fingerprint = InteractorsSnapshot.fingerprint(database);
+        try (PooledConnection pooled = database.getReadConnection()) {
+            generator.graph = InteractionGraph.load(pooled);
+            generator.loadDetails(pooled);
+        }
+        if (!Arrays.equals(generator.fingerprint, InteractorsSnapshot.fingerprint(database))) {
+            throw new IOException("The database has changed while the snapshot was written, it has to be written again");
+        }
+        generator.buildStrings();
+
+        File file = new File(target);
+        File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        generator.write(temporary);
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Snapshot [{}] of [{}] interactions written in [{}.ms]. The size is [{} MB]", file.getPath(),
+                generator.graph.getInteractions(), System.currentTimeMillis() - start, file.length() / (1024L * 1024L));
+    }
+
+    private void loadDetails(PooledConnection pooled) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        List<Integer> acs = new ArrayList<>();
+        detailOffsets = new int[graph.getInteractions() + 1];
+
+        PreparedStatement pstm = pooled.prepareStatement("SELECT ID, INTERACTION_ID, INTERACTION_AC FROM INTERACTION_DETAILS ORDER BY INTERACTION_ID, ID");
+        try (ResultSet rs = pstm.executeQuery()) {
+            while (rs.next()) {
+                int interaction = graph.findInteraction(rs.getLong(2));
+                if (interaction < 0) continue;
+                ids.add(rs.getLong(1));
+                acs.add(string(rs.getString(3)));
+                detailOffsets[interaction + 1]++;
+            }
+        }
+        for (int i = 0; i < graph.getInteractions(); i++) {
+            detailOffsets[i + 1] += detailOffsets[i];
+        }
+
+        detailIds = new long[ids.size()];
+        detailAcs = new int[acs.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            detailIds[i] = ids.get(i);
+            detailAcs[i] = acs.get(i);
+        }
+    }
+
+    /**
+     * Every string goes into the table before it is written. Interactors are looked up by accession with a
+     * binary search over the UTF-8 bytes, as InteractorsSnapshot compares them.
+     */
+    private void buildStrings() {
+        int interactors = graph.getInteractors();
+        accs = new int[interactors];
+        aliases = new int[interactors];
+        intactIds = new int[interactors];
+        synonyms = new int[interactors];
+        byte[][] keys = new byte[interactors][];
+        for (int i = 0; i < interactors; i++) {
+            String acc = graph.getAcc(i);
+            accs[i] = string(acc);
+            keys[i] = acc == null ? new byte[0] : acc.getBytes(StandardCharsets.UTF_8);
+            aliases[i] = string(graph.getAlias(i));
+            intactIds[i] = string(graph.getIntactId(i));
+            synonyms[i] = string(graph.getSynonyms(i));
+        }
+
+        pubmedIds = new int[graph.getInteractions()];
+        for (int i = 0; i < pubmedIds.length; i++) {
+            pubmedIds[i] = string(graph.getPubmedIds(i));
+        }
+
+        Integer[] order = new Integer[interactors];
+        for (int i = 0; i < interactors; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> UNSIGNED.compare(keys[a], keys[b]));
+        accOrder = new int[interactors];
+        for (int i = 0; i < interactors; i++) {
+            accOrder[i] = order[i];
+        }
+    }
+
+    private void write(File file) throws IOException {
+        int strings = stringOffsets.size() - 1;
+        long[] sizes = new long[InteractorsSnapshot.SECTIONS];
+        sizes[InteractorsSnapshot.STRING_OFFSETS] = 4L * stringOffsets.size();
+        sizes[InteractorsSnapshot.STRING_BYTES] = stringBytes.size();
+        int interactors = graph.getInteractors();
+        int interactions = graph.getInteractions();
+        sizes[InteractorsSnapshot.INTERACTOR_ID] = 8L * interactors;
+        sizes[InteractorsSnapshot.INTERACTOR_ACC] = 4L * interactors;
+        sizes[InteractorsSnapshot.INTERACTOR_ALIAS] = 4L * interactors;
+        sizes[InteractorsSnapshot.INTERACTOR_RESOURCE_ID] = 8L * interactors;
+        sizes[InteractorsSnapshot.INTERACTOR_INTACT_ID] = 4L * interactors;
+        sizes[InteractorsSnapshot.INTERACTOR_TAXID] = 4L * interactors;
+        sizes[InteractorsSnapshot.INTERACTOR_SYNONYMS] = 4L * interactors;
+        sizes[InteractorsSnapshot.ACC_ORDER] = 4L * interactors;
+        sizes[InteractorsSnapshot.INTERACTION_ID] = 8L * interactions;
+        sizes[InteractorsSnapshot.INTERACTION_A] = 4L * interactions;
+        sizes[InteractorsSnapshot.INTERACTION_B] = 4L * interactions;
+        sizes[InteractorsSnapshot.INTERACTION_AUTHOR_SCORE] = 8L * interactions;
+        sizes[InteractorsSnapshot.INTERACTION_SCORE] = 8L * interactions;
+        sizes[InteractorsSnapshot.INTERACTION_RESOURCE_ID] = 8L * interactions;
+        sizes[InteractorsSnapshot.INTERACTION_PUBMEDIDS] = 4L * interactions;
+        sizes[InteractorsSnapshot.EDGE_OFFSETS] = 4L * (interactors + 1);
+        sizes[InteractorsSnapshot.EDGES] = 4L * graph.getEdges();
+        sizes[InteractorsSnapshot.DETAIL_OFFSETS] = 4L * detailOffsets.length;
+        sizes[InteractorsSnapshot.DETAIL_ID] = 8L * detailIds.length;
+        sizes[InteractorsSnapshot.DETAIL_AC] = 4L * detailAcs.length;
+
+        long[] offsets = new long[InteractorsSnapshot.SECTIONS];
+        long position = InteractorsSnapshot.HEADER_SIZE;
+        for (int i = 0; i < InteractorsSnapshot.SECTIONS; i++) {
+            offsets[i] = position;
+            position = (position + sizes[i] + 7) & ~7L;
+        }
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("The snapshot would be " + position + " bytes, it can't be more than " + Integer.MAX_VALUE);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(InteractorsSnapshot.MAGIC);
+            out.writeInt(InteractorsSnapshot.VERSION);
+            out.writeInt(interactors);
+            out.writeInt(interactions);
+            out.writeInt(graph.getEdges());
+            out.writeInt(detailIds.length);
+            out.writeInt(strings);
+            for (long value : fingerprint) {
+                out.writeLong(value);
+            }
+            for (long offset : offsets) {
+                out.writeInt((int) offset);
+            }
+            pad(out);
+
+            for (Integer offset : stringOffsets) out.writeInt(offset);
+            pad(out);
+            stringBytes.writeTo(out);
+            pad(out);
+            writeLongs(out, interactors, graph::getInteractorId);
+            writeInts(out, accs);
+            writeInts(out, aliases);
+            writeLongs(out, interactors, graph::getInteractorResourceId);
+            writeInts(out, intactIds);
+            writeInts(out, interactors, graph::getTaxId);
+            writeInts(out, synonyms);
+            writeInts(out, accOrder);
+            writeLongs(out, interactions, graph::getInteractionId);
+            writeInts(out, interactions, graph::getInteractorA);
+            writeInts(out, interactions, graph::getInteractorB);
+            writeDoubles(out, interactions, graph::getAuthorScore);
+            writeDoubles(out, interactions, graph::getScore);
+            writeLongs(out, interactions, graph::getInteractionResourceId);
+            writeInts(out, pubmedIds);
+            writeInts(out, interactors + 1, i -> i < interactors ? graph.getEdgesFrom(i) : graph.getEdgesTo(interactors - 1));
+            writeInts(out, graph.getEdges(), graph::getEdge);
+            writeInts(out, detailOffsets);
+            writeLongs(out, detailIds);
+            writeInts(out, detailAcs);
+
+            if (out.size() != position) {
+                throw new IOException("The snapshot has been written with " + out.size() + " bytes instead of " + position);
+            }
+        }
+    }
+
+    /**
+     * @return index of the string in the table, -1 for null. Every distinct string is stored once.
+     */
+    private int string(String value) {
+        if (value == null) return -1;
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            stringBytes.write(bytes, 0, bytes.length);
+            index = stringOffsets.size() - 1;
+            stringOffsets.add(stringBytes.size());
+            stringIndex.put(value, index);
+        }
+        return index;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        writeInts(out, values.length, i -> values[i]);
+    }
+
+    private static void writeInts(DataOutputStream out, int size, IntUnaryOperator values) throws IOException {
+        for (int i = 0; i < size; i++) out.writeInt(values.applyAsInt(i));
+        pad(out);
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        writeLongs(out, values.length, i -> values[i]);
+    }
+
+    private static void writeLongs(DataOutputStream out, int size, IntToLongFunction values) throws IOException {
+        for (int i = 0; i < size; i++) out.writeLong(values.applyAsLong(i));
+        pad(out);
+    }
+
+    private static void writeDoubles(DataOutputStream out, int size, IntToDoubleFunction values) throws IOException {
+        for (int i = 0; i < size; i++) out.writeDouble(values.applyAsDouble(i));
+        pad(out);
+    }
+
+    private static void pad(DataOutputStream out) throws IOException {
+        while (out.size() % 8 != 0) out.writeByte(0);
+    }
+}
@@ -0,0 +1,264 @@
+package org.reactome.server.interactors.util;
+
+import org.apache.commons.io.input.TeeInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a remote file while it is being downloaded. The bytes are copied to disk as they arrive
+ * and a SHA-256 checksum is computed on the fly. Once the download is complete the checksum and
+ * the remote length and modification date are stored next to the file, so a later run can skip
+ * the download and read the local copy when the remote content has not changed.
+ * <p>
+ * Whether the remote file has changed is told by its length and modification date only, asked with a HEAD request
+ * over HTTP(S) so nothing is transferred when the local copy is used. The FTP connections of the JDK do not report
+ * the date, so over FTP the file is always downloaded; ftp.ebi.ac.uk serves the same files over HTTPS. The checksum
+ * does not say anything about the remote file, it makes sure the local copy is still the one that was downloaded.
+ * <p>
+ * The download is only kept once {@link #finish()} has been called, after the content has been read. Closing it
+ * before that, e.g. when the parse fails, aborts the transfer and removes the partial file.
+ * <p>
+ * Files ending in ".gz" are decompressed on the fly. They are kept compressed on disk.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class StreamingDownload implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingDownload.class);
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+    private static final String CHECKSUM_SUFFIX = ".checksum";
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final File target;
+    private final boolean cached;
+    private DigestInputStream digestStream;
+    private InputStream tee;
+    private File partial;
+    private long remoteLength;
+    private long remoteLastModified;
+    private String url;
+    private InputStream content;
+    private BufferedReader reader;
+    private boolean finished = false;
+
+    private StreamingDownload(File target, boolean cached) {
+        this.target = target;
+        this.cached = cached;
+    }
+
+    /**
+     * Opens the given URL. If the file in the target location has been fully downloaded before and the remote
+     * length and modification date haven't changed (and the local checksum still matches), the content is
+     * read from disk. Otherwise any previous copy is archived and the remote content is streamed.
+     */
+    public static StreamingDownload open(URL url, File target) throws IOException {
+        URLConnection connection = url.openConnection();
+        boolean http = connection instanceof HttpURLConnection;
+        if (http) ((HttpURLConnection) connection).setRequestMethod("HEAD");
+        long remoteLength = connection.getContentLengthLong();
+        long remoteLastModified = connection.getLastModified();
+
+        if (isUnchanged(url.toString(), target, remoteLength, remoteLastModified)) {
+            logger.info("[{}] has not changed since the last download. Reading [{}]", url, target.getAbsolutePath());
+            // Over HTTP only the headers have been asked for. A local file has been opened to tell its length
+            if (!http) connection.getInputStream().close();
+            StreamingDownload download = new StreamingDownload(target, true);
+            download.remoteLength = remoteLength;
+            download.content = download.decompress(new FileInputStream(target));
+            return download;
+        }
+
+        if (http) {
+            ((HttpURLConnection) connection).disconnect();
+            connection = url.openConnection();
+            remoteLength = connection.getContentLengthLong();
+            remoteLastModified = connection.getLastModified();
+        }
+
+        archive(target);
+
+        StreamingDownload download = new StreamingDownload(target, false);
+        download.url = url.toString();
+        download.remoteLength = remoteLength;
+        download.remoteLastModified = remoteLastModified;
+        download.partial = new File(target.getParentFile(), target.getName() + PARTIAL_SUFFIX);
+        download.digestStream = new DigestInputStream(connection.getInputStream(), newDigest());
+        download.tee = new TeeInputStream(download.digestStream, new BufferedOutputStream(new FileOutputStream(download.partial)), true);
+        download.content = download.decompress(download.tee);
+        return download;
+    }
+
+    /**
+     * Renames an existing file adding a timestamp to its name, so it is not overwritten.
+     */
+    public static void archive(File file) {
+        if (!file.exists()) return;
+
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(file.lastModified()));
+        String name = file.getName();
+        int dot = name.indexOf('.');
+        String archived = dot > 0 ? name.substring(0, dot) + "-" + timestamp + name.substring(dot) : name + "-" + timestamp;
+        if (!file.renameTo(new File(file.getParentFile(), archived))) {
+            logger.warn("[{}] has not been renamed properly", file.getAbsolutePath());
+        }
+        new File(file.getParentFile(), name + CHECKSUM_SUFFIX).delete();
+    }
+
+    /**
+     * @return the content, decompressed if needed. Lines are available as soon as the bytes arrive.
+     */
+    public BufferedReader getReader() {
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8), 65536);
+        }
+        return reader;
+    }
+
+    /**
+     * @return the content as bytes, decompressed if needed. Use either this or {@link #getReader()}
+     */
+    public InputStream getInputStream() {
+        return content;
+    }
+
+    /**
+     * @return the size of the file in bytes as announced by the server or -1 if it is not known
+     */
+    public long getLength() {
+        return remoteLength;
+    }
+
+    /**
+     * @return true if the content is read from a previous download
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public File getTarget() {
+        return target;
+    }
+
+    /**
+     * Completes the download once the content has been read, even if not to the end (e.g. the gzip trailer), and
+     * stores the checksum. If the download can't be completed the partial file is removed.
+     */
+    public void finish() throws IOException {
+        if (cached || finished) return;
+        finished = true;
+
+        try {
+            byte[] buffer = new byte[8192];
+            while (tee.read(buffer) != -1) {
+                // draining
+            }
+            content.close();
+        } catch (IOException e) {
+            content.close();
+            partial.delete();
+            throw e;
+        }
+
+        // A connection closed too early looks like the end of the file to the reader
+        if (remoteLength >= 0 && partial.length() != remoteLength) {
+            partial.delete();
+            throw new IOException("Incomplete download of " + url + ". Expected [" + remoteLength + "] bytes but got [" + partial.length() + "]");
+        }
+
+        if (!partial.renameTo(target)) {
+            throw new IOException("Could not move the downloaded file to " + target.getAbsolutePath());
+        }
+
+        String checksum = toHex(digestStream.getMessageDigest().digest());
+        Properties properties = new Properties();
+        properties.setProperty("url", url);
+        properties.setProperty("length", String.valueOf(remoteLength));
+        properties.setProperty("lastModified", String.valueOf(remoteLastModified));
+        properties.setProperty("sha256", checksum);
+        try (OutputStream os = new FileOutputStream(checksumFile(target))) {
+            properties.store(os, "Written by " + StreamingDownload.class.getSimpleName());
+        }
+        logger.info("Download of [{}] is complete. SHA-256 [{}]", target.getAbsolutePath(), checksum);
+    }
+
+    /**
+     * Without {@link #finish()} the transfer is aborted and the partial file removed, nothing is kept
+     */
+    @Override
+    public void close() throws IOException {
+        if (cached || finished) {
+            content.close();
+            return;
+        }
+
+        finished = true;
+        try {
+            content.close();
+        } finally {
+            if (partial.delete()) logger.warn("Download of [{}] has been aborted, [{}] is removed", url, partial.getAbsolutePath());
+        }
+    }
+
+    private InputStream decompress(InputStream is) throws IOException {
+        return target.getName().endsWith(".gz") ? new GZIPInputStream(is, 65536) : is;
+    }
+
+    private static boolean isUnchanged(String url, File target, long remoteLength, long remoteLastModified) throws IOException {
+        File checksumFile = checksumFile(target);
+        if (!target.exists() || !checksumFile.exists()) return false;
+        // Without length and date there is nothing to compare to
+        if (remoteLength < 0 || remoteLastModified <= 0) return false;
+
+        Properties properties = new Properties();
+        try (InputStream is = new FileInputStream(checksumFile)) {
+            properties.load(is);
+        }
+        if (!url.equals(properties.getProperty("url"))) return false;
+        if (!String.valueOf(remoteLength).equals(properties.getProperty("length"))) return false;
+        if (!String.valueOf(remoteLastModified).equals(properties.getProperty("lastModified"))) return false;
+
+        // Make sure the local copy is still the one we downloaded
+        MessageDigest digest = newDigest();
+        try (InputStream is = new DigestInputStream(new BufferedInputStream(new FileInputStream(target)), digest)) {
+            byte[] buffer = new byte[65536];
+            while (is.read(buffer) != -1) {
+                // reading
+            }
+        }
+        return toHex(digest.digest()).equals(properties.getProperty("sha256"));
+    }
+
+    private static File checksumFile(File target) {
+        return new File(target.getParentFile(), target.getName() + CHECKSUM_SUFFIX);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CHECKSUM_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -21,12 +21,12 @@ public class Toolbox {
      * not being a number then performance of this mechanism will not be great, since you're relying upon
      * exceptions being thrown for each failure, which is a fairly expensive operation.
      * <p/>
-     * An alternative approach may be to use a regular expression to check for validity of being a number:
+     * The characters are checked against "-?\\d+(\\.\\d+)?" in a single scan, without compiling a regular expression.
      *
      * @return true if is Number
      */
     public static boolean isNumeric(String str) {
-        return str != null && str.matches("-?\\d+(\\.\\d+)?");
+        return str != null && MitabLine.isNumeric(str, 0, str.length());
     }
 
     /**
@@ -60,6 +60,20 @@ public class Toolbox {
         return Math.round(score * 1000d) / 1000d;
     }
 
+    /**
+     * Size of the IN list of a query bound chunk by chunk. Chunks are padded up to a power of two, so there are not
+     * many different queries to be prepared, repeating the last value.
+     *
+     * @param size values in the chunk
+     * @param max  values per chunk
+     * @return the smallest power of two holding the given number of values, up to max
+     */
+    public static int parameters(int size, int max) {
+        int ret = Integer.highestOneBit(Math.max(size, 1));
+        if (ret < size) ret <<= 1;
+        return Math.min(ret, max);
+    }
+
     /**
      * For the same Accession retrieve the list of interactors. If the interactors are the same we will
      * remove the duplicates and keep the one of highest score.
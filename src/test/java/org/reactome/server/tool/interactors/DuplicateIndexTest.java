@@ -0,0 +1,73 @@
+package org.reactome.server.tool.interactors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.util.DuplicateIndex;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class DuplicateIndexTest {
+
+    @Test
+    public void testAddAndContains() {
+        for (boolean exact : new boolean[]{false, true}) {
+            DuplicateIndex index = new DuplicateIndex(16, exact);
+            Assertions.assertFalse(index.contains("P12345", "Q12345"));
+            Assertions.assertTrue(index.add("P12345", "Q12345"), "New pair has not been added");
+            Assertions.assertTrue(index.contains("P12345", "Q12345"));
+            Assertions.assertFalse(index.add("P12345", "Q12345"), "Same pair has to be a duplicate");
+            Assertions.assertFalse(index.contains("Q12345", "P12345"), "Pairs are ordered");
+            Assertions.assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    public void testResize() {
+        for (boolean exact : new boolean[]{false, true}) {
+            // Well beyond the initial capacity, so the table grows a few times
+            DuplicateIndex index = new DuplicateIndex(16, exact);
+            for (int i = 0; i < 10000; i++) {
+                Assertions.assertTrue(index.add("P" + i, "Q" + i));
+            }
+            Assertions.assertEquals(10000, index.size());
+            for (int i = 0; i < 10000; i++) {
+                Assertions.assertTrue(index.contains("P" + i, "Q" + i), "P" + i + " has been lost resizing");
+                Assertions.assertFalse(index.add("P" + i, "Q" + i));
+                Assertions.assertFalse(index.contains("Q" + i, "P" + i));
+            }
+            Assertions.assertEquals(10000, index.size());
+        }
+    }
+
+    @Test
+    public void testHashCollision() {
+        // Every pair gets the same hash
+        DuplicateIndex index = new CollidingIndex(false);
+        Assertions.assertTrue(index.add("P12345", "Q12345"));
+        Assertions.assertFalse(index.add("P54321", "Q54321"), "Only the hash is compared, a collision is a duplicate");
+
+        DuplicateIndex exact = new CollidingIndex(true);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(exact.add("P" + i, "Q" + i), "Pairs are compared in exact mode, a collision is not a duplicate");
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(exact.contains("P" + i, "Q" + i));
+            Assertions.assertFalse(exact.add("P" + i, "Q" + i));
+        }
+        Assertions.assertFalse(exact.contains("P100", "Q100"));
+        Assertions.assertEquals(100, exact.size());
+    }
+
+    private static class CollidingIndex extends DuplicateIndex {
+
+        CollidingIndex(boolean exact) {
+            super(16, exact);
+        }
+
+        @Override
+        protected long hash(String accA, String accB) {
+            return 42;
+        }
+    }
+}
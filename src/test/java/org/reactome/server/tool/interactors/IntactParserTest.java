@@ -0,0 +1,303 @@
+package org.reactome.server.tool.interactors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.IntactParser;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.exception.IntactParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads small IntAct files into temporary databases
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class IntactParserTest {
+
+    static final String INTACT_FILE = "/intact.samples/intact-micluster.txt";
+
+    // Everything the parser writes, except the creation dates
+    static final String[] TABLES = {
+            "SELECT ID, ACC, INTACT_ID, INTERACTOR_RESOURCE_ID, ALIAS, SYNONYMS, TAXID FROM INTERACTOR ORDER BY ID",
+            "SELECT ID, INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS FROM INTERACTION ORDER BY ID",
+            "SELECT ID, INTERACTION_ID, INTERACTION_AC FROM INTERACTION_DETAILS ORDER BY ID"
+    };
+
+    // Interactor A and B, score and details of every interaction
+    static final String INTERACTIONS = "SELECT A.ACC, B.ACC, I.MISCORE, GROUP_CONCAT(D.INTERACTION_AC) " +
+            "FROM INTERACTION I " +
+            "INNER JOIN INTERACTOR A ON A.ID = I.INTERACTOR_A " +
+            "INNER JOIN INTERACTOR B ON B.ID = I.INTERACTOR_B " +
+            "LEFT JOIN INTERACTION_DETAILS D ON D.INTERACTION_ID = I.ID " +
+            "GROUP BY I.ID ORDER BY A.ACC, B.ACC";
+
+    static final List<String> RELEASE_1 = Arrays.asList(
+            line("EBI-1", "EBI-2", "P1", "P2", 9606, 9606, "pubmed:1001", "intact:EBI-101", 0.8),
+            line("EBI-1", "EBI-3", "P1", "P3", 9606, 9606, "pubmed:1002", "intact:EBI-102", 0.6),
+            line("EBI-2", "EBI-4", "P2", "P4", 9606, 9606, "pubmed:1003", "intact:EBI-103", 0.5),
+            line("EBI-4", "EBI-5", "P4", "P5", 9606, 9606, "pubmed:1004", "intact:EBI-104", 0.9),
+            line("EBI-5", "EBI-6", "P5", "P6", 9606, 9606, "pubmed:1005", "intact:EBI-105", 0.7),
+            line("EBI-6", "EBI-3", "P6", "P3", 9606, 9606, "pubmed:1006", "intact:EBI-106", 0.55));
+
+    private File folder;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("intact").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FileUtils.deleteQuietly(folder);
+    }
+
+    @Test
+    public void testPipelinedIsSameAsSequential() throws Exception {
+        // Several chunks, so the writer has to put them back in order
+        List<String> lines = new ArrayList<>();
+        lines.add(FileUtils.readLines(getIntactFile(), StandardCharsets.UTF_8).get(0));
+        for (int i = 0; i < 3500; i++) {
+            int a = i % 700, b = (i * 7) % 900;
+            lines.add(line("EBI-" + a, "EBI-" + (1000 + b), "P" + (10000 + a), "Q" + (10000 + b), a % 2 == 0 ? 9606 : 10090, 9606,
+                    "pubmed:" + (i % 50) + "|pubmed:" + (100 + i % 13), "intact:EBI-" + (100000 + i), (i % 100) / 100.0));
+        }
+        File file = new File(folder, "intact-micluster.txt");
+        FileUtils.writeLines(file, StandardCharsets.UTF_8.name(), lines, "\n");
+
+        for (String bulkLoad : new String[]{"", "-b"}) {
+            String sequential = new File(folder, "sequential" + bulkLoad + ".db").getPath();
+            String pipelined = new File(folder, "pipelined" + bulkLoad + ".db").getPath();
+            IntactParser.run(args("-g", sequential, "-f", file.getPath(), bulkLoad));
+            IntactParser.run(args("-g", pipelined, "-f", file.getPath(), "-w", "4", bulkLoad));
+
+            Assertions.assertTrue(count(sequential, "INTERACTION") > 1000, "Lines above the minimum score have not been loaded");
+            for (String table : TABLES) {
+                Assertions.assertEquals(dump(sequential, table), dump(pipelined, table), "Pipelined differs from the sequential parser " + bulkLoad + " in " + table);
+            }
+        }
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        String database = new File(folder, "bulk.db").getPath();
+        IntactParser.run("-g", database, "-f", getIntactFile().getPath(), "-b");
+
+        // The line under the minimum score and the one without interactor B are not there
+        Assertions.assertEquals(6, count(database, "INTERACTOR"));
+        Assertions.assertEquals(6, count(database, "INTERACTION"));
+        Assertions.assertEquals(8, count(database, "INTERACTION_DETAILS"));
+
+        List<String> expected = Arrays.asList(
+                "EBI-101\tUniProt:P11111\tUniProt:P22222\t0.8\t",
+                "EBI-102\tUniProt:P11111\tUniProt:P33333\t0.6\t",
+                "EBI-103\tUniProt:P11111\tUniProt:P33333\t0.6\t",
+                "EBI-104\tUniProt:P22222\tUniProt:P44444\t0.5\t",
+                "EBI-105\tUniProt:P44444\tUniProt:P55555\t0.9\t",
+                "EBI-106\tUniProt:P55555\tChEBI:15377\t0.7\t",
+                "EBI-109\tChEBI:15377\tUniProt:P33333\t0.55\t",
+                "IM-1-1\tUniProt:P11111\tUniProt:P22222\t0.8\t");
+        Assertions.assertEquals(expected, dump(database,
+                "SELECT D.INTERACTION_AC, A.ACC, B.ACC, I.MISCORE " +
+                "FROM INTERACTION_DETAILS D " +
+                "INNER JOIN INTERACTION I ON I.ID = D.INTERACTION_ID " +
+                "INNER JOIN INTERACTOR A ON A.ID = I.INTERACTOR_A " +
+                "INNER JOIN INTERACTOR B ON B.ID = I.INTERACTOR_B " +
+                "ORDER BY D.INTERACTION_AC"));
+
+        // Deferred while loading, created by finishBulkBuild
+        List<String> indexes = dump(database, "SELECT NAME FROM SQLITE_MASTER WHERE TYPE = 'index' AND NAME LIKE '%_IDX'");
+        for (String index : new String[]{"INTERACTOR_ACC_IDX", "INTERACTION_A_RESOURCE_SCORE_IDX", "INTERACTION_B_RESOURCE_SCORE_IDX",
+                "INTERACTION_DETAILS_INTERACTION_ID_IDX", "INTERACTOR_DEGREE_RESOURCE_IDX"}) {
+            Assertions.assertTrue(indexes.contains(index + "\t"), index + " has not been created");
+        }
+        Assertions.assertEquals(Collections.singletonList("1\t"), dump(database, "SELECT COMPLETE FROM INGEST_CHECKPOINT"));
+    }
+
+    @Test
+    public void testResumeUnfinishedBulkLoad() throws Exception {
+        String database = new File(folder, "bulk.db").getPath();
+        IntactParser.run("-g", database, "-f", getIntactFile().getPath(), "-b");
+        List<List<String>> loaded = new ArrayList<>();
+        for (String table : TABLES) loaded.add(dump(database, table));
+
+        // The whole file is in but the database was not finished
+        execute(database, "UPDATE INGEST_CHECKPOINT SET COMPLETE = 0");
+        IntactParser.run("-g", database, "-b", "-r");
+
+        for (int i = 0; i < TABLES.length; i++) {
+            Assertions.assertEquals(loaded.get(i), dump(database, TABLES[i]), "Resumed load has changed " + TABLES[i]);
+        }
+        Assertions.assertEquals(Collections.singletonList("1\t"), dump(database, "SELECT COMPLETE FROM INGEST_CHECKPOINT"));
+    }
+
+    @Test
+    public void testResumeKeepsMinimumScore() throws Exception {
+        File file = getIntactFile();
+        String database = new File(folder, "bulk.db").getPath();
+        // 2-4 (0.5) is not loaded
+        IntactParser.run("-g", database, "-f", file.getPath(), "-b", "-m", "0.52");
+        List<String> loaded = dump(database, INTERACTIONS);
+        Assertions.assertEquals(5, loaded.size());
+
+        // As if it had stopped after the first two lines
+        long offset = 0;
+        for (String line : FileUtils.readLines(file, StandardCharsets.UTF_8).subList(0, 3)) {
+            offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        execute(database, "DELETE FROM INTERACTION_DETAILS WHERE INTERACTION_ID > 2");
+        execute(database, "DELETE FROM INTERACTION WHERE ID > 2");
+        execute(database, "UPDATE INGEST_CHECKPOINT SET BYTE_OFFSET = " + offset + ", LINE_NUMBER = 3, LINES_INCLUDED = 2, COMPLETE = 0");
+
+        Assertions.assertThrows(IntactParserException.class, () -> IntactParser.run("-g", database, "-b", "-r", "-m", "0.45"));
+        IntactParser.run("-g", database, "-b", "-r");
+
+        Assertions.assertEquals(loaded, dump(database, INTERACTIONS), "Resumed load has not used the minimum score it started with");
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        String database = new File(folder, "update.db").getPath();
+        IntactParser.run("-g", database, "-f", write("release1.txt", RELEASE_1).getPath());
+        String interactionId = dump(database, "SELECT I.ID FROM INTERACTION I INNER JOIN INTERACTOR A ON A.ID = I.INTERACTOR_A " +
+                "INNER JOIN INTERACTOR B ON B.ID = I.INTERACTOR_B WHERE A.ACC = 'UniProt:P1' AND B.ACC = 'UniProt:P3'").get(0);
+
+        List<String> release2 = Arrays.asList(
+                RELEASE_1.get(0),                                                                          // unchanged
+                line("EBI-1", "EBI-3", "P1", "P3", 9606, 9606, "pubmed:1002", "intact:EBI-102", 0.65),    // score
+                line("EBI-2", "EBI-4", "P2", "P4", 9606, 9606, "pubmed:1003", "intact:EBI-203", 0.5),     // details
+                RELEASE_1.get(5),                                                                          // unchanged
+                line("EBI-2", "EBI-3", "P2", "P3", 9606, 9606, "pubmed:1007", "intact:EBI-107", 0.85),    // new
+                line("EBI-1", "EBI-7", "P1", "P7", 9606, 10090, "pubmed:1008", "intact:EBI-108", 0.7));   // new, new interactor
+        // 4-5 and 5-6 have been retracted, so P5 has no interactions left
+        IntactParser.run("-g", database, "-f", write("release2.txt", release2).getPath(), "-i");
+
+        Assertions.assertEquals(Arrays.asList(
+                "UniProt:P1\tUniProt:P2\t0.8\tEBI-101\t",
+                "UniProt:P1\tUniProt:P3\t0.65\tEBI-102\t",
+                "UniProt:P1\tUniProt:P7\t0.7\tEBI-108\t",
+                "UniProt:P2\tUniProt:P3\t0.85\tEBI-107\t",
+                "UniProt:P2\tUniProt:P4\t0.5\tEBI-203\t",
+                "UniProt:P6\tUniProt:P3\t0.55\tEBI-106\t"), dump(database, INTERACTIONS));
+        Assertions.assertEquals(interactionId, dump(database, "SELECT I.ID FROM INTERACTION I INNER JOIN INTERACTOR A ON A.ID = I.INTERACTOR_A " +
+                "INNER JOIN INTERACTOR B ON B.ID = I.INTERACTOR_B WHERE A.ACC = 'UniProt:P1' AND B.ACC = 'UniProt:P3'").get(0), "Updated interaction has a new ID");
+        Assertions.assertEquals(6, count(database, "INTERACTION_DETAILS"), "Details of the retracted or changed interactions are still there");
+        Assertions.assertEquals(Arrays.asList("UniProt:P1\t", "UniProt:P2\t", "UniProt:P3\t", "UniProt:P4\t", "UniProt:P6\t", "UniProt:P7\t"),
+                dump(database, "SELECT ACC FROM INTERACTOR ORDER BY ACC"));
+    }
+
+    @Test
+    public void testIncompleteUpdateIsNotApplied() throws Exception {
+        String database = new File(folder, "update.db").getPath();
+        IntactParser.run("-g", database, "-f", write("release1.txt", RELEASE_1).getPath());
+        List<List<String>> before = new ArrayList<>();
+        for (String table : TABLES) before.add(dump(database, table));
+
+        // More than one batch of new interactions is applied before the line that can't be parsed
+        List<String> release2 = new ArrayList<>(RELEASE_1.subList(0, 3));
+        for (int i = 0; i < 1500; i++) {
+            release2.add(line("EBI-" + (1000 + i), "EBI-3", "Q" + i, "P3", 9606, 9606, "pubmed:1007", "intact:EBI-" + (10000 + i), 0.85));
+        }
+        release2.add(line("EBI-1", "EBI-7", "P1", "P7", 9606, 10090, "pubmed:1008", "intact:EBI-108", 0.7).replace("uniprotkb:P7", "P7"));
+        String file = write("release2.txt", release2).getPath();
+        Assertions.assertThrows(IntactParserException.class, () -> IntactParser.run("-g", database, "-f", file, "-i"));
+
+        for (int i = 0; i < TABLES.length; i++) {
+            Assertions.assertEquals(before.get(i), dump(database, TABLES[i]), "Database has changed with an incomplete update");
+        }
+    }
+
+    static File getIntactFile() throws URISyntaxException {
+        return new File(IntactParserTest.class.getResource(INTACT_FILE).toURI());
+    }
+
+    /**
+     * @return the sample IntAct file loaded into a new database in the given folder
+     */
+    static String loadSample(File folder) throws Exception {
+        String database = new File(folder, "interactors.db").getPath();
+        IntactParser.run("-g", database, "-f", getIntactFile().getPath());
+        return database;
+    }
+
+    /**
+     * An IntAct file with the header of the sample file and the given lines
+     */
+    File write(String name, List<String> lines) throws IOException, URISyntaxException {
+        List<String> content = new ArrayList<>();
+        content.add(FileUtils.readLines(getIntactFile(), StandardCharsets.UTF_8).get(0));
+        content.addAll(lines);
+        File file = new File(folder, name);
+        FileUtils.writeLines(file, StandardCharsets.UTF_8.name(), content, "\n");
+        return file;
+    }
+
+    static String[] args(String... args) {
+        List<String> rtn = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.isEmpty()) rtn.add(arg);
+        }
+        return rtn.toArray(new String[0]);
+    }
+
+    /**
+     * A line of intact-micluster.txt with the given interactors, publications, interaction IDs and score
+     */
+    static String line(String intactA, String intactB, String accA, String accB, int taxIdA, int taxIdB, String pubmed, String interactionIds, double score) {
+        return String.join("\t",
+                "intact:" + intactA, "intact:" + intactB,
+                "uniprotkb:" + accA, "uniprotkb:" + accB,
+                "psi-mi:" + accA.toLowerCase() + "(display_long)|uniprotkb:G" + accA + "(gene name)",
+                "psi-mi:" + accB.toLowerCase() + "(display_long)|uniprotkb:G" + accB + "(gene name)",
+                "psi-mi:\"MI:0018\"(two hybrid)", "Smith et al. (2010)", pubmed,
+                "taxid:" + taxIdA + "(organism)", "taxid:" + taxIdB + "(organism)",
+                "psi-mi:\"MI:0915\"(physical association)", "psi-mi:\"MI:0469\"(IntAct)",
+                interactionIds, "intact-miscore:" + score);
+    }
+
+    static List<String> dump(String database, String query) throws SQLException {
+        InteractorsDatabase interactors = new InteractorsDatabase(database);
+        try (Statement statement = interactors.getConnection().createStatement(); ResultSet rs = statement.executeQuery(query)) {
+            List<String> rtn = new ArrayList<>();
+            ResultSetMetaData metaData = rs.getMetaData();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    row.append(rs.getString(i)).append('\t');
+                }
+                rtn.add(row.toString());
+            }
+            return rtn;
+        } finally {
+            interactors.close();
+        }
+    }
+
+    static void execute(String database, String query) throws SQLException {
+        InteractorsDatabase interactors = new InteractorsDatabase(database);
+        try (Statement statement = interactors.getConnection().createStatement()) {
+            statement.executeUpdate(query);
+        } finally {
+            interactors.close();
+        }
+    }
+
+    static int count(String database, String table) throws SQLException {
+        return Integer.parseInt(dump(database, "SELECT COUNT(*) FROM " + table).get(0).trim());
+    }
+}
@@ -1,42 +1,85 @@
 package org.reactome.server.tool.interactors;
 
 
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.reactome.server.interactors.dao.InteractionDAO;
+import org.reactome.server.interactors.dao.InteractionDetailsDAO;
+import org.reactome.server.interactors.dao.InteractionDetailsLookupDAO;
+import org.reactome.server.interactors.dao.InteractionLookupDAO;
+import org.reactome.server.interactors.dao.intact.InMemoryInteraction;
+import org.reactome.server.interactors.dao.intact.SnapshotInteraction;
+import org.reactome.server.interactors.dao.intact.SnapshotInteractionDetails;
 import org.reactome.server.interactors.dao.intact.StaticInteraction;
+import org.reactome.server.interactors.dao.intact.StaticInteractionDetails;
 import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.database.InteractorsSnapshot;
 import org.reactome.server.interactors.exception.InvalidInteractionResourceException;
 import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.model.InteractionCursor;
+import org.reactome.server.interactors.model.InteractionDetails;
+import org.reactome.server.interactors.model.InteractionPage;
+import org.reactome.server.interactors.model.InteractorDegree;
+import org.reactome.server.interactors.service.CachedInteractionService;
 import org.reactome.server.interactors.service.InteractionService;
 import org.reactome.server.interactors.util.InteractorConstant;
+import org.reactome.server.interactors.util.InteractorDatabaseGenerator;
+import org.reactome.server.interactors.util.QueryStatement;
+import org.reactome.server.interactors.util.SnapshotGenerator;
 import org.reactome.server.interactors.util.Toolbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
  */
 public class InteractionImplTest {
 
+    private Logger logger = LoggerFactory.getLogger(InteractionImplTest.class);
+
     private InteractionDAO interactionDAO;
 
+    private InteractionDetailsDAO interactionDetailsDAO;
+
     private InteractionService interactionService;
 
+    private InteractorsDatabase interactors;
+
+    // Copies of the sample database and the snapshots of a test, see SampleDatabase
+    @TempDir
+    File folder;
+
     private final String ACCESSION = "UniProt:Q13501";
     private final Long RESOURCE_ID = 1L;
 
     @BeforeEach
     public void setUp() throws IOException {
         Properties prop = new Properties();
-        InteractorsDatabase interactors = null;
         try {
             InputStream is = InteractionImplTest.class.getResourceAsStream("/db.properties");
             prop.load(is);
@@ -46,6 +89,7 @@ public class InteractionImplTest {
         }
 
         interactionDAO = new StaticInteraction(interactors);
+        interactionDetailsDAO = new StaticInteractionDetails(interactors);
         interactionService = new InteractionService(interactors);
     }
 
@@ -60,6 +104,119 @@ public class InteractionImplTest {
         Assertions.assertTrue(count > 0);
     }
 
+    @Test
+    public void testCountMatchesInteractions() throws SQLException {
+        List<String> accessions = new ArrayList<>(interactionDAO.getByAccessions(Collections.singletonList(ACCESSION), RESOURCE_ID).keySet());
+        for (Interaction interaction : interactionDAO.getByAcc(ACCESSION, RESOURCE_ID, -1, -1)) {
+            accessions.add(interaction.getInteractorB().getAcc());
+        }
+        accessions.add("UniProt:NOT_AN_ACCESSION");
+
+        Map<String, List<Interaction>> interactions = interactionDAO.getByAccessions(accessions, RESOURCE_ID);
+        Map<String, Integer> counts = interactionDAO.countByAccessions(accessions, RESOURCE_ID);
+        for (Map.Entry<String, List<Interaction>> entry : interactions.entrySet()) {
+            Integer count = counts.get(entry.getKey());
+            Assertions.assertEquals(entry.getValue().size(), count == null ? 0 : count, "Wrong count for " + entry.getKey());
+        }
+        Assertions.assertFalse(counts.containsKey("UniProt:NOT_AN_ACCESSION"));
+    }
+
+    @Test
+    public void testDegrees() throws Exception {
+        // The sample IntAct file in a database of its own, so the degrees do not depend on how old the test database is
+        String main = SampleDatabase.copyTo(folder);
+        List<String> accessions = Arrays.asList("UniProt:P11111", "UniProt:P22222", "UniProt:P33333", "UniProt:P44444", "UniProt:P55555", "ChEBI:15377");
+
+        Map<String, InteractorDegree> degrees = getDegrees(main, accessions);
+        List<InteractorDegree> top = getMostConnected(main);
+        Assertions.assertEquals(accessions.size(), degrees.size());
+        // 1-2 (0.8) and 1-3 (0.6), the interaction without interactor B is not loaded
+        InteractorDegree degree = degrees.get("UniProt:P11111");
+        Assertions.assertEquals(2, (int) degree.getDegree());
+        Assertions.assertEquals(0.8, degree.getMaxScore(), 0.001);
+        Assertions.assertEquals(0.7, degree.getMeanScore(), 0.001);
+        Assertions.assertFalse(top.isEmpty());
+        for (int i = 1; i < top.size(); i++) {
+            Assertions.assertTrue(top.get(i - 1).getDegree() >= top.get(i).getDegree(), "Not sorted by degree");
+        }
+
+        // Databases that predate INTERACTOR_DEGREE get the same degrees from INTERACTION
+        IntactParserTest.execute(main, "DROP TABLE INTERACTOR_DEGREE");
+        Map<String, InteractorDegree> grouped = getDegrees(main, accessions);
+        Assertions.assertEquals(degrees.keySet(), grouped.keySet());
+        for (String accession : accessions) {
+            assertSameDegree(degrees.get(accession), grouped.get(accession));
+        }
+        List<InteractorDegree> groupedTop = getMostConnected(main);
+        Assertions.assertEquals(top.size(), groupedTop.size());
+        for (int i = 0; i < top.size(); i++) {
+            Assertions.assertEquals(top.get(i).getDegree(), groupedTop.get(i).getDegree());
+            assertSameDegree(degrees.get(groupedTop.get(i).getAcc()), groupedTop.get(i));
+        }
+    }
+
+    @Test
+    public void testDerivedTablesAreCheckedAgain() throws Exception {
+        String main = SampleDatabase.copyTo(folder);
+
+        // Opened once, as a server does, while the database is changed by another connection
+        InteractorsDatabase interactors = new InteractorsDatabase(main, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            InteractionService service = new InteractionService(interactors);
+            List<String> accessions = Collections.singletonList("UniProt:P11111");
+            Assertions.assertEquals(0.7, service.getDegrees(accessions, InteractorConstant.STATIC).get("UniProt:P11111").getMeanScore(), 0.001);
+
+            IntactParserTest.execute(main, "DROP TABLE INTERACTOR_DEGREE");
+            Assertions.assertEquals(0.7, service.getDegrees(accessions, InteractorConstant.STATIC).get("UniProt:P11111").getMeanScore(), 0.001);
+
+            // Built again, the table is read instead of INTERACTION
+            InteractorsDatabase writer = new InteractorsDatabase(main);
+            try {
+                InteractorDatabaseGenerator.refreshDerivedTables(writer.getConnection());
+            } finally {
+                writer.close();
+            }
+            IntactParserTest.execute(main, "UPDATE INTERACTOR_DEGREE SET MEAN_SCORE = 0.5");
+            Assertions.assertEquals(0.5, service.getDegrees(accessions, InteractorConstant.STATIC).get("UniProt:P11111").getMeanScore(), 0.001);
+        } finally {
+            interactors.close();
+        }
+    }
+
+    private Map<String, InteractorDegree> getDegrees(String database, List<String> accessions) throws Exception {
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            InteractionService service = new InteractionService(interactors);
+            Map<String, Integer> counts = service.countInteractionsByAccessions(accessions, InteractorConstant.STATIC);
+            Map<String, InteractorDegree> degrees = service.getDegrees(accessions, InteractorConstant.STATIC);
+            for (InteractorDegree degree : degrees.values()) {
+                Assertions.assertEquals(counts.get(degree.getAcc()), degree.getDegree(), "Wrong degree for " + degree.getAcc());
+                Assertions.assertTrue(degree.getMaxScore() >= degree.getMeanScore());
+            }
+            return degrees;
+        } finally {
+            interactors.close();
+        }
+    }
+
+    private List<InteractorDegree> getMostConnected(String database) throws Exception {
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            return new InteractionService(interactors).getMostConnected(InteractorConstant.STATIC, 10);
+        } finally {
+            interactors.close();
+        }
+    }
+
+    private void assertSameDegree(InteractorDegree expected, InteractorDegree actual) {
+        Assertions.assertEquals(expected.getInteractorId(), actual.getInteractorId());
+        Assertions.assertEquals(expected.getAcc(), actual.getAcc());
+        Assertions.assertEquals(expected.getInteractionResourceId(), actual.getInteractionResourceId());
+        Assertions.assertEquals(expected.getDegree(), actual.getDegree(), "Wrong degree for " + expected.getAcc());
+        Assertions.assertEquals(expected.getMaxScore(), actual.getMaxScore(), 0.0001);
+        Assertions.assertEquals(expected.getMeanScore(), actual.getMeanScore(), 0.0001);
+    }
+
     @Test
     public void testGetInteractions() throws SQLException {
         List<String> accessions = new ArrayList<>();
@@ -75,6 +232,484 @@ public class InteractionImplTest {
 
     }
 
+    @Test
+    public void testGetInteractionsByAccessions() throws SQLException {
+        List<String> accessions = new ArrayList<>();
+        accessions.add(ACCESSION);
+        accessions.add("UniProt:NOT-THERE");
+
+        Map<String, List<Interaction>> interactionMap = interactionDAO.getByAccessions(accessions, RESOURCE_ID);
+        Assertions.assertEquals(accessions.size(), interactionMap.size(), "Every accession has to be in the map");
+        Assertions.assertTrue(interactionMap.get("UniProt:NOT-THERE").isEmpty());
+
+        // Same interactions as the query per accession, with the accession on side A
+        List<Interaction> expected = interactionDAO.getByAcc(ACCESSION, RESOURCE_ID, -1, -1);
+        List<Interaction> interactions = interactionMap.get(ACCESSION);
+        Assertions.assertEquals(expected.size(), interactions.size());
+
+        Set<Long> expectedIds = new HashSet<>();
+        for (Interaction interaction : expected) {
+            expectedIds.add(interaction.getId());
+        }
+        for (Interaction interaction : interactions) {
+            Assertions.assertTrue(expectedIds.contains(interaction.getId()), "Unexpected interaction " + interaction.getId());
+            Assertions.assertEquals(ACCESSION, interaction.getInteractorA().getAcc());
+        }
+    }
+
+    @Test
+    public void testConcurrentInteractions() throws Exception {
+        List<Interaction> expected = interactionService.getInteractions(ACCESSION, InteractorConstant.STATIC);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Interaction>>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> interactionService.getInteractions(ACCESSION, InteractorConstant.STATIC)));
+            }
+            for (Future<List<Interaction>> future : futures) {
+                List<Interaction> interactions = future.get();
+                Assertions.assertEquals(expected.size(), interactions.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Assertions.assertEquals(expected.get(i).getId(), interactions.get(i).getId());
+                    Assertions.assertEquals(expected.get(i).getInteractionDetailsList().size(), interactions.get(i).getInteractionDetailsList().size());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetInteractionDetailsInOnePass() throws SQLException {
+        List<Interaction> interactions = interactionDAO.getByAcc(ACCESSION, RESOURCE_ID, -1, -1);
+        List<Long> ids = new ArrayList<>();
+        for (Interaction interaction : interactions) {
+            ids.add(interaction.getId());
+        }
+
+        // One query per interaction
+        long start = System.nanoTime();
+        Map<Long, List<InteractionDetails>> expected = new HashMap<>();
+        for (Long id : ids) {
+            expected.put(id, interactionDetailsDAO.getByInteraction(id));
+        }
+        long perInteraction = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Map<Long, List<InteractionDetails>> details = interactionDetailsDAO.getByInteractions(ids);
+        long batched = System.nanoTime() - start;
+
+        logger.info("Details of [{}] interactions: [{}.ms] with one query per interaction, [{}.ms] in one pass",
+                ids.size(), perInteraction / 1000000, batched / 1000000);
+
+        for (Long id : ids) {
+            List<String> expectedAcs = new ArrayList<>();
+            for (InteractionDetails interactionDetails : expected.get(id)) {
+                expectedAcs.add(interactionDetails.getInteractionAc());
+            }
+            List<String> acs = new ArrayList<>();
+            for (InteractionDetails interactionDetails : details.getOrDefault(id, new ArrayList<>())) {
+                acs.add(interactionDetails.getInteractionAc());
+            }
+            Assertions.assertEquals(expectedAcs, acs, "Different details for interaction " + id);
+        }
+    }
+
+    @Test
+    public void testKeysetPagination() throws Exception {
+        List<Interaction> expected = interactionDAO.getByAcc(ACCESSION, RESOURCE_ID, -1, -1);
+
+        List<Interaction> walked = new ArrayList<>();
+        InteractionCursor after = null;
+        List<Interaction> page;
+        while (!(page = interactionDAO.getByAccAfter(ACCESSION, RESOURCE_ID, after, 7)).isEmpty()) {
+            walked.addAll(page);
+            after = InteractionCursor.of(page.get(page.size() - 1));
+        }
+        Assertions.assertEquals(expected.size(), walked.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getId(), walked.get(i).getId(), "Different interaction at " + i);
+        }
+
+        // The service asks for the next page only while there is one, every page but the last one is full
+        int pages = 0;
+        String token = null;
+        do {
+            InteractionPage interactionPage = interactionService.getInteractionPage(ACCESSION, InteractorConstant.STATIC, token, 7);
+            token = interactionPage.getNext();
+            if (token != null) Assertions.assertEquals(7, interactionPage.getInteractions().size());
+            pages++;
+        } while (token != null);
+        Assertions.assertTrue(pages <= Math.max(1, (expected.size() + 6) / 7));
+    }
+
+    @Test
+    public void testInteractionPagesWithRepeatedPartners() throws Exception {
+        String main = SampleDatabase.copyTo(folder);
+        // P11111 interacts with P22222 (0.8 and 0.75), P33333 (0.6) and P44444 (0.3)
+        IntactParserTest.execute(main, "INSERT INTO INTERACTION (INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS) " +
+                "SELECT A.ID, B.ID, 0.75, 0.75, 1, '1010' FROM INTERACTOR A, INTERACTOR B WHERE A.ACC = 'UniProt:P11111' AND B.ACC = 'UniProt:P22222'");
+        IntactParserTest.execute(main, "INSERT INTO INTERACTION (INTERACTOR_A, INTERACTOR_B, AUTHOR_SCORE, MISCORE, INTERACTION_RESOURCE_ID, PUBMEDIDS) " +
+                "SELECT A.ID, B.ID, 0.3, 0.3, 1, '1011' FROM INTERACTOR A, INTERACTOR B WHERE A.ACC = 'UniProt:P11111' AND B.ACC = 'UniProt:P44444'");
+
+        InteractorsDatabase interactors = new InteractorsDatabase(main, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            InteractionService service = new InteractionService(interactors);
+            Assertions.assertEquals(Arrays.asList(Arrays.asList("UniProt:P22222", "UniProt:P33333"), Collections.singletonList("UniProt:P44444")),
+                    partnerPages(service, 2), "The repeated partner is skipped and the page is filled with the next one");
+            Assertions.assertEquals(Collections.singletonList(Arrays.asList("UniProt:P22222", "UniProt:P33333", "UniProt:P44444")), partnerPages(service, 3));
+            // Documented: the pages do not know the partners of the previous ones
+            Assertions.assertEquals(Arrays.asList(Collections.singletonList("UniProt:P22222"), Collections.singletonList("UniProt:P22222"),
+                    Collections.singletonList("UniProt:P33333"), Collections.singletonList("UniProt:P44444")), partnerPages(service, 1));
+        } finally {
+            interactors.close();
+        }
+    }
+
+    private List<List<String>> partnerPages(InteractionService service, int pageSize) throws Exception {
+        List<List<String>> pages = new ArrayList<>();
+        String token = null;
+        do {
+            InteractionPage page = service.getInteractionPage("UniProt:P11111", InteractorConstant.STATIC, token, pageSize);
+            List<String> partners = new ArrayList<>();
+            for (Interaction interaction : page.getInteractions()) {
+                partners.add(interaction.getInteractorB().getAcc());
+            }
+            pages.add(partners);
+            token = page.getNext();
+        } while (token != null);
+        return pages;
+    }
+
+    @Test
+    public void testGetInteractionsByPubmedId() throws Exception {
+        String main = SampleDatabase.copyTo(folder);
+        assertCitedBy1003(main);
+
+        // Databases that predate INTERACTION_PUBMED search every PUBMEDIDS instead
+        IntactParserTest.execute(main, "DROP TABLE INTERACTION_PUBMED");
+        assertCitedBy1003(main);
+    }
+
+    /**
+     * 1003 is the second publication of 1-3, the only interaction citing it
+     */
+    private void assertCitedBy1003(String database) throws Exception {
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            List<Interaction> citing = new InteractionService(interactors).getInteractionsByPubmedId("1003", InteractorConstant.STATIC);
+            Assertions.assertEquals(1, citing.size());
+            Assertions.assertEquals("UniProt:P11111", citing.get(0).getInteractorA().getAcc());
+            Assertions.assertEquals("UniProt:P33333", citing.get(0).getInteractorB().getAcc());
+            Assertions.assertEquals(Arrays.asList("1002", "1003"), citing.get(0).getPubmedIdentifiers());
+        } finally {
+            interactors.close();
+        }
+    }
+
+    @Test
+    public void testPubmedIdsAreSplitWhenAskedFor() {
+        Interaction interaction = new Interaction();
+        interaction.setPubmedIds("10831611,unassigned1304");
+        Assertions.assertEquals(Arrays.asList("10831611", "unassigned1304"), interaction.getPubmedIdentifiers());
+        interaction.addPubmedIdentifier("12345");
+        Assertions.assertEquals(3, interaction.getPubmedIdentifiers().size());
+
+        interaction.setPubmedIds("");
+        Assertions.assertNull(interaction.getPubmedIdentifiers());
+    }
+
+    @Test
+    public void testInMemoryInteractions() throws Exception {
+        InteractionLookupDAO inMemory = new InMemoryInteraction(interactors);
+        List<String> accessions = new ArrayList<>(interactionDAO.getByAccessions(Collections.singletonList(ACCESSION), RESOURCE_ID).keySet());
+        accessions.add("UniProt:NOT-AN-ACCESSION");
+
+        Assertions.assertEquals(interactionDAO.countByAccessions(accessions, RESOURCE_ID), inMemory.countByAccessions(accessions, RESOURCE_ID));
+
+        for (int page : new int[]{-1, 1, 2}) {
+            List<Interaction> expected = interactionDAO.getByAcc(ACCESSION, RESOURCE_ID, page, 10);
+            List<Interaction> interactions = inMemory.getByAcc(ACCESSION, RESOURCE_ID, page, 10);
+            Assertions.assertEquals(expected.size(), interactions.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assertions.assertEquals(expected.get(i).getId(), interactions.get(i).getId());
+                Assertions.assertEquals(expected.get(i).getIntactScore(), interactions.get(i).getIntactScore());
+                Assertions.assertEquals(expected.get(i).getInteractorB().getAcc(), interactions.get(i).getInteractorB().getAcc());
+                Assertions.assertEquals(expected.get(i).getPubmedIdentifiers(), interactions.get(i).getPubmedIdentifiers());
+            }
+        }
+
+        List<Interaction> all = inMemory.getByAcc(ACCESSION, RESOURCE_ID, -1, -1);
+        if (all.size() > 3) {
+            List<Interaction> after = inMemory.getByAccAfter(ACCESSION, RESOURCE_ID, InteractionCursor.of(all.get(2)), 3);
+            Assertions.assertEquals(interactionDAO.getByAccAfter(ACCESSION, RESOURCE_ID, InteractionCursor.of(all.get(2)), 3).size(), after.size());
+            Assertions.assertEquals(all.get(3).getId(), after.get(0).getId());
+        }
+
+        InteractionService inMemoryService = new InteractionService(interactors, inMemory);
+        Assertions.assertEquals(interactionService.getInteractions(ACCESSION, InteractorConstant.STATIC).size(), inMemoryService.getInteractions(ACCESSION, InteractorConstant.STATIC).size());
+    }
+
+    @Test
+    public void testGetByAccsPaginated() throws Exception {
+        InteractorsDatabase interactors = null;
+        try {
+            String main = SampleDatabase.copyTo(folder);
+            interactors = new InteractorsDatabase(main, InteractorsDatabase.Profile.READ_ONLY);
+            String file = new File(folder, "interactors.snapshot").getPath();
+            SnapshotGenerator.create(interactors, file);
+
+            List<String> accessions = Arrays.asList("UniProt:P11111", "UniProt:NOT-AN-ACCESSION", "UniProt:P44444", "ChEBI:15377");
+            for (InteractionLookupDAO dao : Arrays.asList(new StaticInteraction(interactors), new InMemoryInteraction(interactors),
+                                                         new SnapshotInteraction(new InteractorsSnapshot(file, interactors), interactors))) {
+                String name = dao.getClass().getSimpleName();
+
+                // The page of each accession in turn: 1-2 (0.8), 4-5 (0.9) and CHEBI-5 (0.7), then 1-3 (0.6), 4-2 (0.5) and CHEBI-3 (0.55)
+                Assertions.assertEquals(Arrays.asList("UniProt:P11111/UniProt:P22222", "UniProt:P44444/UniProt:P55555", "ChEBI:15377/UniProt:P55555"),
+                        pairs(dao.getByAcc(accessions, RESOURCE_ID, 1, 1)), name);
+                Assertions.assertEquals(Arrays.asList("UniProt:P11111/UniProt:P33333", "UniProt:P44444/UniProt:P22222", "ChEBI:15377/UniProt:P33333"),
+                        pairs(dao.getByAcc(accessions, RESOURCE_ID, 2, 1)), name);
+                Assertions.assertTrue(dao.getByAcc(accessions, RESOURCE_ID, 2, 2).isEmpty(), name);
+
+                List<Interaction> expected = new ArrayList<>();
+                for (String accession : accessions) {
+                    expected.addAll(dao.getByAcc(accession, RESOURCE_ID, -1, -1));
+                }
+                Assertions.assertEquals(pairs(expected), pairs(dao.getByAcc(accessions, RESOURCE_ID, -1, -1)), name);
+                Assertions.assertEquals(6, expected.size(), name);
+            }
+        } finally {
+            if (interactors != null) interactors.close();
+        }
+    }
+
+    @Test
+    public void testGetByAccessionsWithTiedScores() throws Exception {
+        String main = SampleDatabase.copyTo(folder);
+        // Every score tied, the order is told by the ID only
+        IntactParserTest.execute(main, "UPDATE INTERACTION SET MISCORE = 0.5");
+
+        InteractorsDatabase interactors = new InteractorsDatabase(main, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            StaticInteraction dao = new StaticInteraction(interactors);
+            List<String> accessions = Arrays.asList("UniProt:P11111", "UniProt:P22222", "UniProt:P33333", "UniProt:P44444", "UniProt:P55555", "ChEBI:15377");
+            Map<String, List<Interaction>> interactions = dao.getByAccessions(accessions, RESOURCE_ID);
+            for (String accession : accessions) {
+                List<Interaction> expected = dao.getByAcc(accession, RESOURCE_ID, -1, -1);
+                Assertions.assertEquals(2, expected.size(), accession);
+                Assertions.assertEquals(ids(expected), ids(interactions.get(accession)), accession);
+                Assertions.assertTrue(expected.get(0).getId() < expected.get(1).getId(), accession);
+            }
+        } finally {
+            interactors.close();
+        }
+    }
+
+    private List<Long> ids(List<Interaction> interactions) {
+        List<Long> ids = new ArrayList<>();
+        for (Interaction interaction : interactions) {
+            ids.add(interaction.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testSnapshotOfAnotherDatabase() throws Exception {
+        InteractorsDatabase interactors = null;
+        try {
+            String main = SampleDatabase.copyTo(folder);
+            interactors = new InteractorsDatabase(main);
+            String file = new File(folder, "interactors.snapshot").getPath();
+            SnapshotGenerator.create(interactors, file);
+            Assertions.assertEquals(6, new InteractorsSnapshot(file, interactors).getInteractions());
+
+            // A copy has another modified time but the same content stamp
+            File copy = new File(folder, "copy.db");
+            FileUtils.copyFile(new File(main), copy, false);
+            Assertions.assertTrue(copy.setLastModified(System.currentTimeMillis() + 60_000));
+            InteractorsDatabase copied = new InteractorsDatabase(copy.getPath());
+            try {
+                Assertions.assertEquals(6, new InteractorsSnapshot(file, copied).getInteractions());
+                InteractorDatabaseGenerator.stampContent(copied.getConnection());
+                Assertions.assertThrows(IOException.class, () -> new InteractorsSnapshot(file, copied));
+            } finally {
+                copied.close();
+            }
+            Assertions.assertEquals(6, new InteractorsSnapshot(file, interactors).getInteractions());
+
+            try (Statement statement = interactors.getConnection().createStatement()) {
+                statement.executeUpdate("DELETE FROM INTERACTION_DETAILS WHERE INTERACTION_ID = (SELECT MAX(ID) FROM INTERACTION)");
+                statement.executeUpdate("DELETE FROM INTERACTION WHERE ID = (SELECT MAX(ID) FROM INTERACTION)");
+            }
+            InteractorsDatabase changed = interactors;
+            Assertions.assertThrows(IOException.class, () -> new InteractorsSnapshot(file, changed));
+
+            SnapshotGenerator.create(interactors, file);
+            Assertions.assertEquals(5, new InteractorsSnapshot(file, interactors).getInteractions());
+        } finally {
+            if (interactors != null) interactors.close();
+        }
+    }
+
+    private List<String> pairs(List<Interaction> interactions) {
+        List<String> pairs = new ArrayList<>();
+        for (Interaction interaction : interactions) {
+            pairs.add(interaction.getInteractorA().getAcc() + "/" + interaction.getInteractorB().getAcc());
+        }
+        return pairs;
+    }
+
+    @Test
+    public void testSnapshotInteractions() throws Exception {
+        File file = new File(folder, "interactors.snapshot");
+        SnapshotGenerator.create(interactors, file.getPath());
+        InteractorsSnapshot snapshot = new InteractorsSnapshot(file.getPath(), interactors);
+        InteractionLookupDAO mapped = new SnapshotInteraction(snapshot, interactors);
+        InteractionDetailsLookupDAO mappedDetails = new SnapshotInteractionDetails(snapshot);
+
+        Assertions.assertEquals(-1, snapshot.findInteractor("UniProt:NOT-AN-ACCESSION"));
+        Assertions.assertEquals(interactionDAO.getMaxId(), mapped.getMaxId());
+
+        List<Interaction> expected = interactionDAO.getByAcc(ACCESSION, RESOURCE_ID, -1, -1);
+        List<Interaction> interactions = mapped.getByAcc(ACCESSION, RESOURCE_ID, -1, -1);
+        Assertions.assertEquals(expected.size(), interactions.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getId(), interactions.get(i).getId());
+            Assertions.assertEquals(expected.get(i).getIntactScore(), interactions.get(i).getIntactScore());
+            Assertions.assertEquals(expected.get(i).getInteractorA().getAcc(), interactions.get(i).getInteractorA().getAcc());
+            Assertions.assertEquals(expected.get(i).getInteractorB().getAlias(), interactions.get(i).getInteractorB().getAlias());
+            Assertions.assertEquals(expected.get(i).getPubmedIdentifiers(), interactions.get(i).getPubmedIdentifiers());
+
+            List<InteractionDetails> expectedDetails = interactionDetailsDAO.getByInteraction(expected.get(i).getId());
+            List<InteractionDetails> details = mappedDetails.getByInteraction(expected.get(i).getId());
+            Assertions.assertEquals(expectedDetails.size(), details.size());
+            for (int j = 0; j < expectedDetails.size(); j++) {
+                Assertions.assertEquals(expectedDetails.get(j).getInteractionAc(), details.get(j).getInteractionAc());
+            }
+        }
+
+        InteractionService snapshotService = new InteractionService(interactors, mapped, mappedDetails);
+        Assertions.assertEquals(interactionService.getInteractions(ACCESSION, InteractorConstant.STATIC).size(), snapshotService.getInteractions(ACCESSION, InteractorConstant.STATIC).size());
+    }
+
+    @Test
+    public void testCachedInteractions() throws Exception {
+        CachedInteractionService cached = new CachedInteractionService(interactionService);
+        List<String> accs = Arrays.asList(ACCESSION, "UniProt:NOT-AN-ACCESSION");
+
+        Map<String, List<Interaction>> expected = interactionService.getInteractions(accs, InteractorConstant.STATIC);
+        for (int i = 0; i < 2; i++) {
+            Map<String, List<Interaction>> interactions = cached.getInteractions(accs, InteractorConstant.STATIC);
+            Assertions.assertEquals(expected.keySet(), interactions.keySet());
+            Assertions.assertEquals(expected.get(ACCESSION).size(), interactions.get(ACCESSION).size());
+            Assertions.assertEquals(interactionService.countInteractionsByAccessions(accs, InteractorConstant.STATIC), cached.countInteractionsByAccessions(accs, InteractorConstant.STATIC));
+        }
+        Assertions.assertEquals(1, cached.getInteractionsCache().getLoads());
+        Assertions.assertEquals(2, cached.getInteractionsCache().getHits());
+        Assertions.assertEquals(1, cached.getCountsCache().getLoads());
+
+        Assertions.assertThrows(InvalidInteractionResourceException.class, () -> cached.getInteractions(ACCESSION, "not-a-resource"));
+    }
+
+    @Test
+    public void testCachedInteractionsAreCopies() throws Exception {
+        InteractorsDatabase interactors = null;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            interactors = new InteractorsDatabase(SampleDatabase.copyTo(folder), InteractorsDatabase.Profile.READ_ONLY);
+            CachedInteractionService cached = new CachedInteractionService(new InteractionService(interactors));
+            String acc = "UniProt:P11111";
+            List<List<String>> expected = pubmedIdentifiers(cached.getInteractions(acc, InteractorConstant.STATIC));
+            Assertions.assertEquals(Arrays.asList(Collections.singletonList("1001"), Arrays.asList("1002", "1003")), expected);
+
+            // Both threads read the same cached result at the same time and change what they got
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        List<Interaction> interactions = cached.getInteractions(acc, InteractorConstant.STATIC);
+                        barrier.await(10, TimeUnit.SECONDS);
+                        Assertions.assertEquals(expected, pubmedIdentifiers(interactions));
+                        interactions.get(0).addPubmedIdentifier("9999");
+                        interactions.get(0).getInteractorB().setAlias("CHANGED");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+
+            List<Interaction> interactions = cached.getInteractions(acc, InteractorConstant.STATIC);
+            Assertions.assertEquals(expected, pubmedIdentifiers(interactions));
+            Assertions.assertNotEquals("CHANGED", interactions.get(0).getInteractorB().getAlias());
+            Assertions.assertEquals(1, cached.getInteractionsCache().getLoads());
+        } finally {
+            executor.shutdown();
+            if (interactors != null) interactors.close();
+        }
+    }
+
+    private List<List<String>> pubmedIdentifiers(List<Interaction> interactions) {
+        List<List<String>> pubmedIdentifiers = new ArrayList<>();
+        for (Interaction interaction : interactions) {
+            pubmedIdentifiers.add(interaction.getPubmedIdentifiers());
+        }
+        return pubmedIdentifiers;
+    }
+
+    @Test
+    public void testStreamInteractions() throws Exception {
+        List<Interaction> expected = interactionService.getInteractions(ACCESSION, InteractorConstant.STATIC);
+        Map<String, Double> expectedScores = new HashMap<>();
+        for (Interaction interaction : expected) {
+            expectedScores.put(interaction.getInteractorB().getAcc(), interaction.getIntactScore());
+        }
+
+        List<Interaction> streamed = new ArrayList<>();
+        interactionService.streamInteractions(Collections.singletonList(ACCESSION), InteractorConstant.STATIC, (acc, interaction) -> {
+            Assertions.assertEquals(ACCESSION, acc);
+            streamed.add(interaction);
+        });
+
+        // Same partners with the same best score, in the same order
+        Assertions.assertEquals(expected.size(), streamed.size());
+        for (int i = 0; i < streamed.size(); i++) {
+            Interaction interaction = streamed.get(i);
+            Assertions.assertEquals(expectedScores.get(interaction.getInteractorB().getAcc()), interaction.getIntactScore());
+            Assertions.assertEquals(expected.get(i).getIntactScore(), interaction.getIntactScore());
+            Assertions.assertNotNull(interaction.getInteractionDetailsList());
+        }
+    }
+
+    @Test
+    public void testInteractionsByAccessionAreNotSorted() throws SQLException {
+        // The schema as the generator creates it, so the plan does not depend on how old the test database is
+        InteractorsDatabase memory = new InteractorsDatabase(":memory:");
+        try {
+            InteractorDatabaseGenerator.create(memory.getConnection(), false, true);
+            try (Statement statement = memory.getConnection().createStatement()) {
+                statement.executeUpdate(QueryStatement.CREATE_TABLE_INTERACTION_ADJACENCY);
+            }
+
+            for (String query : new String[]{QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION + " LIMIT ?, ?", QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY + " LIMIT ?, ?",
+                                             QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_AFTER + " LIMIT ?", QueryStatement.SELECT_INTERACTIONS_BY_ACCESSION_ADJACENCY_AFTER + " LIMIT ?"}) {
+                try (PreparedStatement pstm = memory.getConnection().prepareStatement("EXPLAIN QUERY PLAN " + query);
+                     ResultSet rs = pstm.executeQuery()) {
+                    while (rs.next()) {
+                        String detail = rs.getString(4);
+                        logger.info(detail);
+                        Assertions.assertFalse(detail.contains("TEMP B-TREE"), "Interactions are sorted after being read: " + detail);
+                    }
+                }
+            }
+        } finally {
+            memory.close();
+        }
+    }
+
     @Test
     public void testRoundScore() {
         Assertions.assertEquals(0.468, Toolbox.roundScore(0.467866), "1- Score not round properly");
@@ -4,17 +4,24 @@ package org.reactome.server.tool.interactors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.reactome.server.interactors.dao.InteractorDAO;
 import org.reactome.server.interactors.dao.intact.StaticInteractor;
 import org.reactome.server.interactors.database.InteractorsDatabase;
 import org.reactome.server.interactors.model.Interactor;
 import org.reactome.server.interactors.util.Toolbox;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -24,6 +31,11 @@ public class InteractorImplTest {
 
     private InteractorDAO interactorDAO;
 
+    private String database;
+
+    @TempDir
+    File folder;
+
     @BeforeEach
     public void setUp() throws IOException {
         Properties prop = new Properties();
@@ -31,7 +43,8 @@ public class InteractorImplTest {
         try {//src/test/resources/
             InputStream is = InteractionImplTest.class.getResourceAsStream("/db.properties");
             prop.load(is);
-            interactors = new InteractorsDatabase(prop.getProperty("database"));
+            database = prop.getProperty("database");
+            interactors = new InteractorsDatabase(database);
         } catch (SQLException | IOException e) {
             e.printStackTrace();
         }
@@ -47,6 +60,59 @@ public class InteractorImplTest {
 
     }
 
+    @Test
+    public void testGetBySynonym() throws Exception {
+        String main = SampleDatabase.copyTo(folder);
+        assertGen1(main);
+
+        // Databases that predate INTERACTOR_SYNONYM search every SYNONYMS instead
+        IntactParserTest.execute(main, "DROP TABLE INTERACTOR_SYNONYM");
+        assertGen1(main);
+    }
+
+    private void assertGen1(String database) throws SQLException {
+        InteractorsDatabase interactors = new InteractorsDatabase(database, InteractorsDatabase.Profile.READ_ONLY);
+        try {
+            List<Interactor> bySynonym = new StaticInteractor(interactors).getBySynonym("GEN1-like(gene name synonym)");
+            Assertions.assertEquals(1, bySynonym.size());
+            Assertions.assertEquals("UniProt:P11111", bySynonym.get(0).getAcc());
+        } finally {
+            interactors.close();
+        }
+    }
+
+    @Test
+    public void testReadOnlyConcurrentQueries() throws Exception {
+        InteractorsDatabase readOnly = new InteractorsDatabase(database, InteractorsDatabase.Profile.READ_ONLY);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            InteractorDAO readOnlyDAO = new StaticInteractor(readOnly);
+            Interactor expected = interactorDAO.getAll().get(0);
+
+            List<Future<Interactor>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> readOnlyDAO.getByAccession(expected.getAcc())));
+            }
+            for (Future<Interactor> future : futures) {
+                Assertions.assertEquals(expected.getId(), future.get().getId());
+            }
+
+            // A new interactor, so nothing but the read only connection can stop it
+            Interactor fresh = new Interactor();
+            long maxId = 0;
+            for (Interactor interactor : interactorDAO.getAll()) maxId = Math.max(maxId, interactor.getId());
+            fresh.setId(maxId + 1);
+            fresh.setAcc("UniProt:READONLY" + System.nanoTime());
+            fresh.setInteractorResourceId(expected.getInteractorResourceId());
+            fresh.setTaxid(9606);
+            SQLException e = Assertions.assertThrows(SQLException.class, () -> readOnlyDAO.bulkCreate(Collections.singletonList(fresh)), "A read only database has been written");
+            Assertions.assertTrue(e.getMessage().contains("SQLITE_READONLY"), "Not rejected because the database is read only: " + e.getMessage());
+        } finally {
+            executor.shutdown();
+            readOnly.close();
+        }
+    }
+
     @Test
     public void testUniprotAccessionRegex() {
         Assertions.assertTrue(Toolbox.isUniprotAccession("A2BC19"), "Not a valid Uniprot accession.");
@@ -0,0 +1,72 @@
+package org.reactome.server.tool.interactors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.util.MitabLine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class MitabLineTest {
+
+    private static final String LINE = "intact:EBI-1\t-\tuniprotkb:P12345\tchebi:\"CHEBI:15377\"\tpsi-mi:kpcb_human(display_long)|uniprotkb:\"a|b\"(gene name synonym)\t\ttaxid:9606(human)";
+
+    @Test
+    public void testFields() {
+        MitabLine line = new MitabLine().parse(LINE);
+
+        Assertions.assertEquals(7, line.size(), "Wrong number of fields");
+        Assertions.assertEquals("intact:EBI-1", line.field(0));
+        Assertions.assertTrue(line.isEmpty(1), "Second field is a dash");
+        Assertions.assertEquals("", line.field(5), "Empty field between two tabs");
+        Assertions.assertEquals("intact:EBI-1 - uniprotkb:P12345", line.head(3));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> line.field(7));
+
+        // Reusing the same instance
+        Assertions.assertEquals(1, line.parse("a").size());
+        Assertions.assertEquals("a", line.field(0));
+    }
+
+    @Test
+    public void testEntriesAndXrefs() {
+        MitabLine line = new MitabLine().parse(LINE);
+        CharSequence s = line.getLine();
+
+        Assertions.assertEquals(2, entries(line, 4, true).size(), "Quoted separator is not an entry separator");
+        Assertions.assertEquals(3, entries(line, 4, false).size());
+
+        int start = line.start(3);
+        int end = line.end(3);
+        int prefixEnd = MitabLine.prefixEnd(s, start, end);
+        Assertions.assertTrue(MitabLine.equalsIgnoreCase(s, start, prefixEnd, "ChEBI"));
+        Assertions.assertEquals("\"CHEBI", MitabLine.substring(s, prefixEnd + 1, MitabLine.valueEnd(s, prefixEnd + 1, end)));
+
+        start = line.start(6);
+        prefixEnd = MitabLine.prefixEnd(s, start, line.end(6));
+        Assertions.assertEquals(9606, MitabLine.firstNumber(s, prefixEnd + 1, line.end(6)));
+        Assertions.assertEquals(-1, MitabLine.firstNumber("taxid:", 0, 6));
+    }
+
+    @Test
+    public void testIsNumeric() {
+        for (String number : new String[]{"0", "-1", "0.56", "123.456"}) {
+            Assertions.assertTrue(MitabLine.isNumeric(number, 0, number.length()), number + " is a number");
+        }
+        for (String other : new String[]{"", "-", "1.", ".5", "1e3", "0.5a", "high"}) {
+            Assertions.assertFalse(MitabLine.isNumeric(other, 0, other.length()), other + " is not a number");
+        }
+    }
+
+    private List<String> entries(MitabLine line, int field, boolean quoteAware) {
+        List<String> rtn = new ArrayList<>();
+        int end = line.end(field);
+        for (int start = line.start(field), entryEnd; start < end; start = entryEnd + 1) {
+            entryEnd = MitabLine.entryEnd(line.getLine(), start, end, quoteAware);
+            rtn.add(MitabLine.substring(line.getLine(), start, entryEnd));
+        }
+        return rtn;
+    }
+}
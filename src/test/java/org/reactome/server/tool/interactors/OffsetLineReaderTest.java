@@ -0,0 +1,88 @@
+package org.reactome.server.tool.interactors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.util.OffsetLineReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class OffsetLineReaderTest {
+
+    private File folder;
+    private List<String> lines;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("offsets").toFile();
+        lines = new ArrayList<>();
+        lines.add("#ID(s) interactor A\tID(s) interactor B");
+        for (int i = 0; i < 5000; i++) {
+            lines.add("uniprotkb:P" + i + "\tuniprotkb:Q" + i + "\tpsi-mi:\"kpcb_human\"(display_long)\tcaf\u00e9");
+        }
+        // Longer than the buffer of the reader
+        StringBuilder longLine = new StringBuilder();
+        while (longLine.length() < 200000) longLine.append("uniprotkb:P12345|");
+        lines.add(2500, longLine.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FileUtils.deleteQuietly(folder);
+    }
+
+    @Test
+    public void testResumeFromOffset() throws IOException {
+        File file = new File(folder, "intact.txt");
+        write(new FileOutputStream(file), "\r\n");
+        checkResume(file);
+    }
+
+    @Test
+    public void testResumeFromOffsetInGzip() throws IOException {
+        File file = new File(folder, "intact.txt.gz");
+        write(new GZIPOutputStream(new FileOutputStream(file)), "\n");
+        checkResume(file);
+    }
+
+    private void checkResume(File file) throws IOException {
+        long offset;
+        long lineNumber;
+        try (OffsetLineReader reader = OffsetLineReader.open(file, 0, 0)) {
+            for (int i = 0; i < 3000; i++) {
+                Assertions.assertEquals(lines.get(i), reader.readLine(), "Line " + i);
+            }
+            offset = reader.getOffset();
+            lineNumber = reader.getLineNumber();
+        }
+        Assertions.assertEquals(3000, lineNumber);
+
+        try (OffsetLineReader reader = OffsetLineReader.open(file, offset, lineNumber)) {
+            for (int i = 3000; i < lines.size(); i++) {
+                Assertions.assertEquals(lines.get(i), reader.readLine(), "Line " + i + " after resuming");
+            }
+            Assertions.assertNull(reader.readLine(), "There are no more lines");
+            Assertions.assertEquals(lines.size(), reader.getLineNumber());
+        }
+    }
+
+    private void write(OutputStream os, String terminator) throws IOException {
+        try (Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines.size(); i++) {
+                writer.write(lines.get(i));
+                // Last line without terminator
+                if (i < lines.size() - 1) writer.write(terminator);
+            }
+        }
+    }
+}
@@ -6,19 +6,25 @@ import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.FieldSerializer;
 import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
 import com.googlecode.concurrenttrees.radix.node.util.AtomicReferenceArrayListAdapter;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.reactome.server.interactors.tuple.custom.CustomResource;
+import org.reactome.server.interactors.tuple.custom.CustomResourceStore;
 import org.reactome.server.interactors.tuple.exception.ParserException;
+import org.reactome.server.interactors.tuple.model.CustomInteraction;
 import org.reactome.server.interactors.tuple.model.TupleResult;
 import org.reactome.server.interactors.tuple.parser.Parser;
 import org.reactome.server.interactors.tuple.parser.ParserFactory;
+import org.reactome.server.interactors.util.InteractorConstant;
 
 import java.io.*;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.List;
+import java.nio.file.Files;
+import java.util.*;
 
 /**
  * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
@@ -98,6 +104,96 @@ public class ParserTest {
         Assertions.assertEquals(4, aux.getCustomResource().get("Q13501").size(), "Q13501 should be 4 times");
     }
 
+    @Test
+    public void testCustomResourceStore() throws IOException, ParserException {
+        File file = getFileFromResources(EXTENDED_TXT);
+        List<String> lines = IOUtils.readLines(new FileInputStream(file), Charset.defaultCharset());
+        TupleResult result = ParserFactory.build(lines).parse(lines);
+        result.getSummary().setToken(InteractorConstant.TUPLE_PREFIX + "12345");
+
+        File folder = Files.createTempDirectory("uploads").toFile();
+        try {
+            CustomResourceStore store = new CustomResourceStore(folder);
+            store.save(result);
+            store.evict(result.getSummary().getToken());
+
+            TupleResult aux = store.get(result.getSummary().getToken());
+            Assertions.assertEquals(result.getSummary().getInteractions(), aux.getSummary().getInteractions());
+            Assertions.assertEquals(result.getWarningMessages(), aux.getWarningMessages());
+            Assertions.assertEquals(result.getCustomResource().getInteractions(), aux.getCustomResource().getInteractions());
+            Assertions.assertEquals(2, aux.getCustomResource().get("Q9H0R8").size(), "Q9H0R8 should be 2 times");
+            Assertions.assertEquals(2, aux.getCustomResource().get("Q14596").size(), "Q14596 should be 2 times");
+            Assertions.assertEquals(4, aux.getCustomResource().get("Q13501").size(), "Q13501 should be 4 times");
+
+            Assertions.assertNull(store.get(InteractorConstant.TUPLE_PREFIX + "54321"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> store.get("../" + result.getSummary().getToken()));
+        } finally {
+            FileUtils.deleteQuietly(folder);
+        }
+    }
+
+    @Test
+    public void testCompactCustomResource() throws IOException, ParserException {
+        File file = getFileFromResources(EXTENDED_TXT);
+        List<String> lines = IOUtils.readLines(new FileInputStream(file), Charset.defaultCharset());
+        TupleResult result = ParserFactory.build(lines).parse(lines);
+
+        CustomResource compact = result.getCustomResource();
+        Assertions.assertTrue(compact.isCompact(), "Parsed resources should be compacted");
+        Assertions.assertThrows(IllegalStateException.class, () -> compact.add(new CustomInteraction()));
+
+        CustomResource offHeap = ParserFactory.build(lines).parse(lines).getCustomResource();
+        offHeap.compact(true);
+
+        // The same lines added as the parser adds them, without compacting
+        CustomResource tree = new CustomResource();
+        Set<String> identifiers = new TreeSet<>();
+        for (String line : lines) {
+            if (line.startsWith("#") || line.trim().isEmpty()) continue;
+            String[] columns = line.split("\t");
+            CustomInteraction interaction = new CustomInteraction();
+            interaction.setInteractorIdA(columns[0]);
+            interaction.setInteractorIdB(columns[1]);
+            interaction.setInteractorAliasA(columns[2]);
+            interaction.setInteractorAliasB(columns[3]);
+            interaction.setCsvInteractionEvidence(columns[6]);
+            interaction.setConfidenceValue(Double.valueOf(columns[7]));
+            if (!tree.checkForDuplicates(interaction)) tree.add(interaction);
+            identifiers.addAll(Arrays.asList(columns[0], columns[1], columns[2], columns[3]));
+        }
+        identifiers.add("XXXXXX");
+
+        for (CustomResource resource : Arrays.asList(compact, offHeap)) {
+            Assertions.assertEquals(tree.getInteractions(), resource.getInteractions());
+            Assertions.assertEquals(tree.getInteractors(), resource.getInteractors());
+        }
+        Assertions.assertEquals(result.getSummary().getInteractions().intValue(), offHeap.getInteractions());
+        Assertions.assertEquals(result.getSummary().getInteractors().intValue(), offHeap.getInteractors());
+        for (String identifier : identifiers) {
+            List<String> expected = fields(tree.get(identifier));
+            Assertions.assertEquals(expected, fields(compact.get(identifier)), identifier);
+            Assertions.assertEquals(expected, fields(offHeap.get(identifier)), identifier);
+        }
+        Assertions.assertEquals(2, offHeap.get("Q9H0R8").size(), "Q9H0R8 should be 2 times");
+        Assertions.assertEquals(2, offHeap.get("Q14596").size(), "Q14596 should be 2 times");
+        Assertions.assertEquals(4, offHeap.get("Q13501").size(), "Q13501 should be 4 times");
+        Assertions.assertTrue(offHeap.get("XXXXXX").isEmpty());
+    }
+
+    /**
+     * Identifiers, aliases, score and evidences of each interaction, sorted
+     */
+    private List<String> fields(Set<CustomInteraction> interactions) {
+        List<String> rtn = new ArrayList<>();
+        for (CustomInteraction interaction : interactions) {
+            rtn.add(interaction.getInteractorIdA() + "|" + interaction.getInteractorAliasA() + "|" +
+                    interaction.getInteractorIdB() + "|" + interaction.getInteractorAliasB() + "|" +
+                    interaction.getConfidenceValue() + "|" + interaction.getEvidence());
+        }
+        Collections.sort(rtn);
+        return rtn;
+    }
+
     // TODO: create more test cases
 
     private File getFileFromResources(String fileName) {
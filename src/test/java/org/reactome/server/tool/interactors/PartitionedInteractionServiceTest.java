@@ -0,0 +1,116 @@
+package org.reactome.server.tool.interactors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.IntactParser;
+import org.reactome.server.interactors.database.InteractorsDatabase;
+import org.reactome.server.interactors.model.DatabasePartition;
+import org.reactome.server.interactors.model.Interaction;
+import org.reactome.server.interactors.service.InteractionService;
+import org.reactome.server.interactors.service.PartitionedInteractionService;
+import org.reactome.server.interactors.util.InteractorConstant;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Partitions derived from the sample IntAct file: human interactions from 0.6 and every species from 0.7
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class PartitionedInteractionServiceTest {
+
+    private static final String HUMAN = "UniProt:P11111";
+    private static final String MOUSE = "UniProt:P44444";
+
+    private File folder;
+    private InteractorsDatabase database;
+    private InteractionService interactionService;
+    private PartitionedInteractionService partitionedService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        folder = Files.createTempDirectory("partitions").toFile();
+        String file = new File(IntactParserTest.class.getResource(IntactParserTest.INTACT_FILE).toURI()).getPath();
+        String main = new File(folder, "interactors.db").getPath();
+        IntactParser.run("-g", main, "-f", file, "-p", "9606:0.6,*:0.7");
+
+        database = new InteractorsDatabase(main, InteractorsDatabase.Profile.READ_ONLY);
+        interactionService = new InteractionService(database);
+        partitionedService = new PartitionedInteractionService(database);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        database.close();
+        FileUtils.deleteQuietly(folder);
+    }
+
+    @Test
+    public void testPartitions() throws Exception {
+        List<DatabasePartition> partitions = partitionedService.getPartitions();
+        Assertions.assertEquals(2, partitions.size());
+        // 1-2 and 1-3 are human from 0.6. 1-2, 4-5 and 5-6 are from 0.7
+        Assertions.assertEquals("interactors-9606-0.6.db", partitions.get(0).getFileName());
+        Assertions.assertEquals(2L, (long) partitions.get(0).getInteractions());
+        Assertions.assertEquals("interactors-all-0.7.db", partitions.get(1).getFileName());
+        Assertions.assertEquals(3L, (long) partitions.get(1).getInteractions());
+        for (DatabasePartition partition : partitions) {
+            String file = new File(folder, partition.getFileName()).getPath();
+            Assertions.assertEquals((long) partition.getInteractions(), IntactParserTest.count(file, "INTERACTION"));
+        }
+    }
+
+    @Test
+    public void testRoute() {
+        DatabasePartition human = partitionedService.getPartitions().get(0);
+        DatabasePartition all = partitionedService.getPartitions().get(1);
+
+        Assertions.assertSame(human, partitionedService.route(9606, 0.6));
+        Assertions.assertSame(human, partitionedService.route(9606, 0.8), "Both cover it, the smallest one is used");
+        Assertions.assertSame(all, partitionedService.route(10090, 0.7));
+        Assertions.assertSame(all, partitionedService.route(null, 0.9));
+
+        Assertions.assertNull(partitionedService.route(9606, 0.5), "Lower scores are only in the main database");
+        Assertions.assertNull(partitionedService.route(10090, 0.6));
+        Assertions.assertNull(partitionedService.route(9606, null));
+        Assertions.assertNull(partitionedService.route(null, null));
+    }
+
+    @Test
+    public void testGetInteractions() throws Exception {
+        // Partition, partition with a higher score, main database and main database filtered
+        assertSameAsMain(HUMAN, 9606, 0.6);
+        assertSameAsMain(HUMAN, 9606, 0.7);
+        assertSameAsMain(MOUSE, 10090, 0.8);
+        assertSameAsMain(MOUSE, 10090, null);
+        assertSameAsMain(MOUSE, 10090, 0.5);
+    }
+
+    /**
+     * The interactions of the accession from the partitioned service are the ones of the main database with the
+     * given score, same order
+     */
+    private void assertSameAsMain(String acc, Integer taxId, Double minScore) throws Exception {
+        List<Long> expected = new ArrayList<>();
+        for (Interaction interaction : interactionService.getInteractions(acc, InteractorConstant.STATIC)) {
+            if (minScore == null || interaction.getIntactScore() >= minScore) expected.add(interaction.getId());
+        }
+        Assertions.assertFalse(expected.isEmpty(), acc + " has no interactions to compare with");
+
+        Map<String, List<Interaction>> interactions = partitionedService.getInteractions(Collections.singletonList(acc), InteractorConstant.STATIC, taxId, minScore);
+        List<Long> actual = new ArrayList<>();
+        for (Interaction interaction : interactions.get(acc)) {
+            actual.add(interaction.getId());
+        }
+        Assertions.assertEquals(expected, actual, "Interactions of " + acc + " for taxId " + taxId + " and score " + minScore);
+
+        Map<String, Integer> counts = partitionedService.countInteractionsByAccessions(Collections.singletonList(acc), InteractorConstant.STATIC, taxId, minScore);
+        Assertions.assertEquals(expected.size(), (int) counts.get(acc));
+    }
+}
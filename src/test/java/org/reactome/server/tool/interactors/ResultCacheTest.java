@@ -0,0 +1,188 @@
+package org.reactome.server.tool.interactors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.util.ResultCache;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class ResultCacheTest {
+
+    @Test
+    public void testMissingKeysAreLoadedTogether() throws Exception {
+        ResultCache<String, List<String>> cache = new ResultCache<>(100, List::size);
+        List<Collection<String>> loads = new ArrayList<>();
+        ResultCache.Loader<String, List<String>> loader = keys -> {
+            loads.add(new ArrayList<>(keys));
+            Map<String, List<String>> rtn = new HashMap<>();
+            for (String key : keys) {
+                if (!key.equals("none")) rtn.put(key, Arrays.asList(key, key));
+            }
+            return rtn;
+        };
+
+        Map<String, List<String>> values = cache.getAll(Arrays.asList("a", "b", "none"), 60000, loader);
+        Assertions.assertEquals(2, values.size());
+        Assertions.assertEquals(Arrays.asList("a", "a"), values.get("a"));
+
+        values = cache.getAll(Arrays.asList("a", "c", "none"), 60000, loader);
+        Assertions.assertEquals(2, values.size());
+        Assertions.assertEquals(2, loads.size());
+        Assertions.assertEquals(Collections.singletonList("c"), loads.get(1), "Only the missing key is loaded, results without value are kept");
+        Assertions.assertEquals(2, cache.getHits());
+        Assertions.assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAreEvictedByWeight() throws Exception {
+        ResultCache<String, List<String>> cache = new ResultCache<>(5, List::size);
+        ResultCache.Loader<String, List<String>> loader = keys -> {
+            Map<String, List<String>> rtn = new HashMap<>();
+            for (String key : keys) rtn.put(key, Arrays.asList(key, key));
+            return rtn;
+        };
+
+        cache.getAll(Collections.singletonList("a"), 60000, loader);
+        cache.getAll(Collections.singletonList("b"), 60000, loader);
+        cache.getAll(Collections.singletonList("a"), 60000, loader);
+        cache.getAll(Collections.singletonList("c"), 60000, loader);
+
+        Assertions.assertEquals(4, cache.getWeight());
+        Assertions.assertEquals(1, cache.getEvictions());
+        long loads = cache.getLoads();
+        cache.getAll(Arrays.asList("a", "c"), 60000, loader);
+        Assertions.assertEquals(loads, cache.getLoads(), "b is the one evicted");
+        cache.getAll(Collections.singletonList("b"), 60000, loader);
+        Assertions.assertEquals(loads + 1, cache.getLoads());
+    }
+
+    @Test
+    public void testExpiredAreLoadedAgain() throws Exception {
+        ResultCache<String, Integer> cache = new ResultCache<>(100, value -> 1);
+        AtomicInteger loads = new AtomicInteger();
+        ResultCache.Loader<String, Integer> loader = keys -> Collections.singletonMap(keys.iterator().next(), loads.incrementAndGet());
+
+        Assertions.assertEquals(1, (int) cache.getAll(Collections.singletonList("a"), 20, loader).get("a"));
+        Assertions.assertEquals(1, (int) cache.getAll(Collections.singletonList("a"), 20, loader).get("a"));
+        Thread.sleep(50);
+        Assertions.assertEquals(2, (int) cache.getAll(Collections.singletonList("a"), 20, loader).get("a"));
+        Assertions.assertEquals(3, (int) cache.getAll(Collections.singletonList("b"), 0, loader).get("b"));
+        Assertions.assertEquals(4, (int) cache.getAll(Collections.singletonList("b"), 0, loader).get("b"), "Not kept without time to live");
+    }
+
+    @Test
+    public void testConcurrentMissesAreLoadedOnce() throws Exception {
+        ResultCache<String, Integer> cache = new ResultCache<>(100, value -> 1);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResultCache.Loader<String, Integer> loader = keys -> {
+            loads.incrementAndGet();
+            started.countDown();
+            release.await();
+            return Collections.singletonMap("a", 42);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<String, Integer>>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.getAll(Collections.singletonList("a"), 60000, loader)));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> cache.getAll(Collections.singletonList("a"), 60000, loader)));
+            }
+            // Give the others the time to find the load running
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Map<String, Integer>> future : futures) {
+                Assertions.assertEquals(42, (int) future.get().get("a"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, cache.getLoads());
+    }
+
+    @Test
+    public void testKeysInvalidatedWhileLoadingAreNotKept() throws Exception {
+        ResultCache<String, Integer> cache = new ResultCache<>(100, value -> 1);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResultCache.Loader<String, Integer> stale = keys -> {
+            loads.incrementAndGet();
+            started.countDown();
+            release.await();
+            Map<String, Integer> rtn = new HashMap<>();
+            for (String key : keys) rtn.put(key, 1);
+            return rtn;
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, Integer>> future = executor.submit(() -> cache.getAll(Arrays.asList("a", "b"), 60000, stale));
+            started.await();
+            cache.invalidate("a");
+
+            // Not waiting for the load started before, it is loaded again
+            ResultCache.Loader<String, Integer> fresh = keys -> Collections.singletonMap("a", 2);
+            Assertions.assertEquals(2, (int) cache.getAll(Collections.singletonList("a"), 60000, fresh).get("a"));
+
+            release.countDown();
+            Assertions.assertEquals(1, (int) future.get().get("a"), "The load returns its results anyway");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(2, (int) cache.getAll(Collections.singletonList("a"), 60000, stale).get("a"), "The newer result is not replaced");
+        Assertions.assertEquals(1, (int) cache.getAll(Collections.singletonList("b"), 60000, stale).get("b"), "Other keys of the load are kept");
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLoadsRunningWhenAllAreInvalidatedAreNotJoined() throws Exception {
+        ResultCache<String, Integer> cache = new ResultCache<>(100, value -> 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResultCache.Loader<String, Integer> stale = keys -> {
+            started.countDown();
+            release.await();
+            return Collections.singletonMap("a", 1);
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, Integer>> future = executor.submit(() -> cache.getAll(Collections.singletonList("a"), 60000, stale));
+            started.await();
+            cache.invalidateAll();
+
+            // Not waiting for the load started before, it is loaded again
+            ResultCache.Loader<String, Integer> fresh = keys -> Collections.singletonMap("a", 2);
+            Assertions.assertEquals(2, (int) cache.getAll(Collections.singletonList("a"), 60000, fresh).get("a"));
+
+            release.countDown();
+            Assertions.assertEquals(1, (int) future.get().get("a"), "The load returns its results anyway");
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(2, (int) cache.getAll(Collections.singletonList("a"), 60000, stale).get("a"), "The newer result is not replaced");
+        Assertions.assertEquals(2, cache.getLoads());
+    }
+
+    @Test
+    public void testFailedLoadsAreNotKept() throws Exception {
+        ResultCache<String, Integer> cache = new ResultCache<>(100, value -> 1);
+        Assertions.assertThrows(SQLException.class, () -> cache.getAll(Collections.singletonList("a"), 60000, keys -> {
+            throw new SQLException("database is locked");
+        }));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(7, (int) cache.getAll(Collections.singletonList("a"), 60000, keys -> Collections.singletonMap("a", 7)).get("a"));
+    }
+}
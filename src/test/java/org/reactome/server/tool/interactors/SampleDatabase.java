@@ -0,0 +1,34 @@
+package org.reactome.server.tool.interactors;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * The sample IntAct file ({@link IntactParserTest#loadSample(File)}) loaded once for the whole run. Every test gets
+ * its own copy, in its temporary folder, so it can change it.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+final class SampleDatabase {
+
+    private static File sample;
+
+    private SampleDatabase() {
+    }
+
+    /**
+     * @return a copy of the sample database in the given folder
+     */
+    static synchronized String copyTo(File folder) throws Exception {
+        if (sample == null) {
+            File loaded = Files.createTempDirectory("sample").toFile();
+            sample = new File(IntactParserTest.loadSample(loaded));
+            FileUtils.forceDeleteOnExit(loaded);
+        }
+        File copy = new File(folder, sample.getName());
+        FileUtils.copyFile(sample, copy, false);
+        return copy.getPath();
+    }
+}
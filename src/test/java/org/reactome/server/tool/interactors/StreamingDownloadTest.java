@@ -0,0 +1,162 @@
+package org.reactome.server.tool.interactors;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.interactors.util.StreamingDownload;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local file URL stands in for the IntAct server.
+ *
+ * @author Guilherme S Viteri <gviteri@ebi.ac.uk>
+ */
+public class StreamingDownloadTest {
+
+    private static final List<String> LINES = Arrays.asList(
+            "#ID(s) interactor A\tID(s) interactor B",
+            "uniprotkb:P12345\tuniprotkb:Q12345",
+            "uniprotkb:P54321\tchebi:\"CHEBI:12345\"");
+
+    private File remote;
+    private File local;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        remote = Files.createTempDirectory("remote").toFile();
+        local = Files.createTempDirectory("local").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FileUtils.deleteQuietly(remote);
+        FileUtils.deleteQuietly(local);
+    }
+
+    @Test
+    public void testDownloadIsSkippedWhenUnchanged() throws IOException {
+        File source = new File(remote, "intact-micluster.txt");
+        FileUtils.writeLines(source, StandardCharsets.UTF_8.name(), LINES, "\n");
+        File target = new File(local, "intact-micluster.txt");
+
+        try (StreamingDownload download = StreamingDownload.open(source.toURI().toURL(), target)) {
+            Assertions.assertFalse(download.isCached(), "First download can't be cached");
+            Assertions.assertEquals(LINES, readLines(download.getReader()));
+            download.finish();
+        }
+        Assertions.assertTrue(target.exists(), "Downloaded file is not there");
+        Assertions.assertEquals(LINES, FileUtils.readLines(target, StandardCharsets.UTF_8));
+
+        try (StreamingDownload download = StreamingDownload.open(source.toURI().toURL(), target)) {
+            Assertions.assertTrue(download.isCached(), "Content hasn't changed, the download should have been skipped");
+            Assertions.assertEquals(LINES, readLines(download.getReader()));
+            download.finish();
+        }
+
+        List<String> changed = new ArrayList<>(LINES);
+        changed.add("uniprotkb:P00000\tuniprotkb:Q00000");
+        FileUtils.writeLines(source, StandardCharsets.UTF_8.name(), changed, "\n");
+        Assertions.assertTrue(source.setLastModified(source.lastModified() + 60000));
+
+        try (StreamingDownload download = StreamingDownload.open(source.toURI().toURL(), target)) {
+            Assertions.assertFalse(download.isCached(), "Content has changed, it has to be downloaded again");
+            Assertions.assertEquals(changed, readLines(download.getReader()));
+            download.finish();
+        }
+        File[] archived = local.listFiles((dir, name) -> name.startsWith("intact-micluster-") && name.endsWith(".txt"));
+        Assertions.assertNotNull(archived);
+        Assertions.assertEquals(1, archived.length, "The previous download has not been kept");
+    }
+
+    @Test
+    public void testGzipIsReadWhileDownloaded() throws IOException {
+        File source = new File(remote, "intact-micluster.txt.gz");
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(source)), StandardCharsets.UTF_8)) {
+            for (String line : LINES) writer.write(line + "\n");
+        }
+        File target = new File(local, "intact-micluster.txt.gz");
+
+        try (StreamingDownload download = StreamingDownload.open(source.toURI().toURL(), target)) {
+            // Reading only the header, finishing has to complete the download anyway
+            Assertions.assertEquals(LINES.get(0), download.getReader().readLine());
+            download.finish();
+        }
+        Assertions.assertTrue(FileUtils.contentEquals(source, target), "Downloaded file is not a copy of the remote one");
+    }
+
+    @Test
+    public void testAbortedDownloadIsNotKept() throws IOException {
+        File source = new File(remote, "intact-micluster.txt");
+        FileUtils.writeLines(source, StandardCharsets.UTF_8.name(), LINES, "\n");
+        File target = new File(local, "intact-micluster.txt");
+
+        try (StreamingDownload download = StreamingDownload.open(source.toURI().toURL(), target)) {
+            // The parse fails after the header
+            Assertions.assertEquals(LINES.get(0), download.getReader().readLine());
+        }
+        Assertions.assertFalse(target.exists(), "An aborted download can't be kept");
+        Assertions.assertFalse(new File(local, "intact-micluster.txt.part").exists(), "The partial file has not been removed");
+
+        try (StreamingDownload download = StreamingDownload.open(source.toURI().toURL(), target)) {
+            Assertions.assertFalse(download.isCached(), "Nothing was kept, it has to be downloaded again");
+        }
+    }
+
+    @Test
+    public void testUnchangedIsOnlyAskedForTheHeaders() throws IOException {
+        byte[] content = String.join("\n", LINES).getBytes(StandardCharsets.UTF_8);
+        List<String> methods = Collections.synchronizedList(new ArrayList<>());
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            methods.add(exchange.getRequestMethod());
+            exchange.getResponseHeaders().add("Last-Modified", "Tue, 02 Jan 2024 03:04:05 GMT");
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(content.length));
+            boolean head = exchange.getRequestMethod().equals("HEAD");
+            exchange.sendResponseHeaders(200, head ? -1 : content.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                if (!head) os.write(content);
+            }
+        });
+        server.start();
+        try {
+            URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/intact-micluster.txt");
+            File target = new File(local, "intact-micluster.txt");
+            try (StreamingDownload download = StreamingDownload.open(url, target)) {
+                Assertions.assertEquals(LINES, readLines(download.getReader()));
+                download.finish();
+            }
+            Assertions.assertEquals(Arrays.asList("HEAD", "GET"), methods);
+
+            methods.clear();
+            try (StreamingDownload download = StreamingDownload.open(url, target)) {
+                Assertions.assertTrue(download.isCached(), "Content hasn't changed, the download should have been skipped");
+                Assertions.assertEquals(LINES, readLines(download.getReader()));
+            }
+            Assertions.assertEquals(Collections.singletonList("HEAD"), methods, "The content has been requested again");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private List<String> readLines(BufferedReader reader) throws IOException {
+        List<String> rtn = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rtn.add(line);
+        }
+        return rtn;
+    }
+}